@@ -0,0 +1,568 @@
+// FUTURE ENHANCEMENT: Single-Task In-Memory Compilation of LLM-Generated Code
+// Replaces one CodeCompiler.compiles(...) call per transformation with one
+// javax.tools compilation task for the whole batch. Nothing touches the disk.
+
+package com.example.dynamic_migration_engine.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PERFORMANCE: Compiles a batch of generated sources in one compiler invocation
+ *
+ * Sources are held as in-memory JavaFileObjects and class files are captured
+ * in memory. Diagnostics are mapped back to the source they belong to, so the
+ * caller gets a per-source success flag, error list, primary class bytecode
+ * and the bytecode of every other class the source declares (nested, local,
+ * anonymous or secondary top-level classes), which the primary class needs
+ * at run time.
+ *
+ * javac emits no class files when any unit has errors, so failed units are
+ * dropped and the survivors are compiled once more to obtain their bytecode.
+ * Each round opens one standard file manager and closes it when the round ends.
+ *
+ * The outcome per unit must match compiling it on its own with CodeCompiler,
+ * so units only share a round when they cannot see each other: units that
+ * declare the same top-level type go to different rounds, and a unit that
+ * mentions a type another unit of the batch declares is compiled alone.
+ *
+ * Generated code is compiled against the application's classpath
+ * ({@link CompilationClasspath}), which inside a Spring Boot fat jar is
+ * not what java.class.path says.
+ */
+@Component
+public class BatchCodeCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCodeCompiler.class);
+
+    private static final Pattern PACKAGE_DECLARATION =
+        Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern TYPE_DECLARATION =
+        Pattern.compile("\\b(?:class|interface|enum|record)\\s+(\\w+)");
+    private static final Pattern PUBLIC_MODIFIER = Pattern.compile("\\bpublic\\b");
+    private static final Pattern IDENTIFIER = Pattern.compile("\\b[A-Za-z_$][\\w$]*");
+    private static final String WRAPPER_CLASS_PREFIX = "GeneratedTransformation_";
+
+    private final JavaCompiler compiler;
+    private volatile String classpath; // Resolved on first use; may copy nested jars out of the fat jar
+
+    public BatchCodeCompiler() {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            logger.warn("No system Java compiler available; batch compilation requires a JDK runtime");
+        }
+    }
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Compiles all sources together.
+     *
+     * @param sources generated Java sources, in caller order
+     * @return one {@link CompilationOutcome} per source, in the same order
+     */
+    public List<CompilationOutcome> compileAll(List<String> sources) {
+        List<SourceUnit> units = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            units.add(SourceUnit.of(i, sources.get(i)));
+        }
+
+        Map<Integer, List<String>> errors = new HashMap<>();
+        Map<Integer, byte[]> bytecode = new HashMap<>();
+        Map<Integer, Map<String, byte[]>> helperClasses = new HashMap<>();
+
+        for (List<SourceUnit> round : planRounds(units)) {
+            compileRound(round, errors, bytecode, helperClasses);
+        }
+
+        List<CompilationOutcome> outcomes = new ArrayList<>(sources.size());
+        for (SourceUnit unit : units) {
+            List<String> unitErrors = errors.getOrDefault(unit.index, List.of());
+            outcomes.add(new CompilationOutcome(
+                unitErrors.isEmpty() && bytecode.containsKey(unit.index),
+                unitErrors,
+                bytecode.get(unit.index),
+                helperClasses.getOrDefault(unit.index, Map.of())));
+        }
+        return outcomes;
+    }
+
+    private void compileRound(List<SourceUnit> round,
+                              Map<Integer, List<String>> errors,
+                              Map<Integer, byte[]> bytecode,
+                              Map<Integer, Map<String, byte[]>> helperClasses) {
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            compilePending(new ArrayList<>(round), standard, errors, bytecode, helperClasses);
+        } catch (IOException e) {
+            logger.debug("Failed to close compiler file manager: {}", e.getMessage());
+        }
+    }
+
+    private void compilePending(List<SourceUnit> pending,
+                                StandardJavaFileManager standard,
+                                Map<Integer, List<String>> errors,
+                                Map<Integer, byte[]> bytecode,
+                                Map<Integer, Map<String, byte[]>> helperClasses) {
+        while (!pending.isEmpty()) {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            InMemoryFileManager fileManager = new InMemoryFileManager(standard);
+
+            List<String> options = List.of(
+                "-proc:none",
+                "-classpath", classpath());
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, pending).call();
+
+            Set<SourceUnit> failed = new HashSet<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                    continue;
+                }
+                if (diagnostic.getSource() instanceof SourceUnit unit) {
+                    failed.add(unit);
+                    errors.computeIfAbsent(unit.index, k -> new ArrayList<>())
+                        .add("line " + (diagnostic.getLineNumber() - unit.lineOffset) + ": "
+                            + diagnostic.getMessage(null));
+                }
+            }
+
+            if (success) {
+                for (SourceUnit unit : pending) {
+                    Map<String, byte[]> classes = fileManager.classesFor(unit);
+                    byte[] primary = classes.remove(unit.qualifiedName);
+                    if (primary != null) {
+                        bytecode.put(unit.index, primary);
+                        helperClasses.put(unit.index, classes);
+                    }
+                }
+                return;
+            }
+            if (failed.isEmpty()) {
+                // Error without a source (e.g. bad classpath); attribute it to every unit
+                for (SourceUnit unit : pending) {
+                    errors.computeIfAbsent(unit.index, k -> new ArrayList<>()).add("compilation failed");
+                }
+                return;
+            }
+            pending.removeAll(failed);
+        }
+    }
+
+    private String classpath() {
+        String resolved = classpath;
+        if (resolved == null) {
+            synchronized (this) {
+                if (classpath == null) {
+                    classpath = CompilationClasspath.resolve(BatchCodeCompiler.class.getClassLoader());
+                }
+                resolved = classpath;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Groups units into rounds in which no unit can resolve, or clash with, a
+     * type of another unit. Type names are compared by simple name, so a
+     * false match only costs a separate compilation.
+     */
+    private static List<List<SourceUnit>> planRounds(List<SourceUnit> units) {
+        Map<String, Integer> declaringUnits = new HashMap<>();
+        for (SourceUnit unit : units) {
+            for (String type : unit.topLevelTypes) {
+                declaringUnits.merge(type, 1, Integer::sum);
+            }
+        }
+
+        List<List<SourceUnit>> rounds = new ArrayList<>();
+        List<Set<String>> roundTypes = new ArrayList<>(); // null for a round closed to other units
+        int isolated = 0;
+        for (SourceUnit unit : units) {
+            if (mentionsOtherUnitType(unit, declaringUnits)) {
+                rounds.add(List.of(unit));
+                roundTypes.add(null);
+                isolated++;
+                continue;
+            }
+            int target = 0;
+            while (target < rounds.size()
+                    && (roundTypes.get(target) == null || !Collections.disjoint(roundTypes.get(target), unit.topLevelTypes))) {
+                target++;
+            }
+            if (target == rounds.size()) {
+                rounds.add(new ArrayList<>());
+                roundTypes.add(new HashSet<>());
+            }
+            rounds.get(target).add(unit);
+            roundTypes.get(target).addAll(unit.topLevelTypes);
+        }
+        if (isolated > 0) {
+            logger.debug("{} of {} generated sources reference another source's types and are compiled alone",
+                isolated, units.size());
+        }
+        return rounds;
+    }
+
+    private static boolean mentionsOtherUnitType(SourceUnit unit, Map<String, Integer> declaringUnits) {
+        for (String identifier : unit.identifiers) {
+            int declaredBy = declaringUnits.getOrDefault(identifier, 0);
+            if (declaredBy > (unit.topLevelTypes.contains(identifier) ? 1 : 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Result for a single source of the batch
+     *
+     * @param helperClasses every other class emitted for the source, by binary name
+     */
+    public record CompilationOutcome(boolean compiled, List<String> errors, byte[] bytecode,
+                                     Map<String, byte[]> helperClasses) {
+    }
+
+    /**
+     * In-memory source. Bare method bodies (no type declaration) are wrapped in a
+     * synthetic class so they compile the same way CodeCompiler treats them.
+     */
+    private static final class SourceUnit extends SimpleJavaFileObject {
+        final int index;
+        final String qualifiedName;
+        final String code;
+        final int lineOffset;
+        final Set<String> topLevelTypes; // Simple names of every top-level type the unit declares
+        final Set<String> identifiers;   // Every identifier outside comments and literals
+
+        private SourceUnit(int index, String qualifiedName, String code, int lineOffset,
+                           Set<String> topLevelTypes, Set<String> identifiers) {
+            super(URI.create("string:///batch" + index + "/" + qualifiedName.replace('.', '/')
+                + Kind.SOURCE.extension), Kind.SOURCE);
+            this.index = index;
+            this.qualifiedName = qualifiedName;
+            this.code = code;
+            this.lineOffset = lineOffset;
+            this.topLevelTypes = topLevelTypes;
+            this.identifiers = identifiers;
+        }
+
+        static SourceUnit of(int index, String source) {
+            String code = source == null ? "" : source;
+            String declarations = stripCommentsAndLiterals(code);
+            Set<String> identifiers = new HashSet<>();
+            Matcher identifier = IDENTIFIER.matcher(declarations);
+            while (identifier.find()) {
+                identifiers.add(identifier.group());
+            }
+            String typeName = primaryTypeName(declarations);
+            if (typeName == null) {
+                String wrapper = WRAPPER_CLASS_PREFIX + index;
+                return new SourceUnit(index, wrapper, "public class " + wrapper + " {\n" + code + "\n}\n", 1,
+                    Set.of(wrapper), identifiers);
+            }
+            Matcher pkg = PACKAGE_DECLARATION.matcher(declarations);
+            String qualifiedName = pkg.find() ? pkg.group(1) + "." + typeName : typeName;
+            return new SourceUnit(index, qualifiedName, code, 0, topLevelTypeNames(declarations), identifiers);
+        }
+
+        private static Set<String> topLevelTypeNames(String declarations) {
+            Set<String> names = new HashSet<>();
+            Matcher type = TYPE_DECLARATION.matcher(declarations);
+            while (type.find()) {
+                if (braceDepth(declarations, type.start()) == 0) {
+                    names.add(type.group(1));
+                }
+            }
+            return names;
+        }
+
+        /**
+         * Name of the public top-level type, else of the first top-level type, else null.
+         * Declarations nested inside braces (member or local classes) are ignored.
+         */
+        private static String primaryTypeName(String declarations) {
+            String first = null;
+            Matcher type = TYPE_DECLARATION.matcher(declarations);
+            while (type.find()) {
+                if (braceDepth(declarations, type.start()) != 0) {
+                    continue;
+                }
+                if (isPublic(declarations, type.start())) {
+                    return type.group(1);
+                }
+                if (first == null) {
+                    first = type.group(1);
+                }
+            }
+            return first;
+        }
+
+        private static boolean isPublic(String declarations, int keyword) {
+            int modifiers = keyword;
+            while (modifiers > 0 && ";{}".indexOf(declarations.charAt(modifiers - 1)) < 0) {
+                modifiers--;
+            }
+            return PUBLIC_MODIFIER.matcher(declarations.substring(modifiers, keyword)).find();
+        }
+
+        private static int braceDepth(String text, int end) {
+            int depth = 0;
+            for (int i = 0; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+            }
+            return depth;
+        }
+
+        /**
+         * Blanks out comments and string, text block and char literals so that
+         * words like "class" in javadoc or messages are not taken as declarations.
+         * Line breaks are kept; only used for scanning, never compiled.
+         */
+        static String stripCommentsAndLiterals(String code) {
+            StringBuilder out = new StringBuilder(code.length());
+            int i = 0;
+            int n = code.length();
+            while (i < n) {
+                char c = code.charAt(i);
+                if (c == '/' && i + 1 < n && code.charAt(i + 1) == '/') {
+                    while (i < n && code.charAt(i) != '\n') {
+                        i++;
+                    }
+                } else if (c == '/' && i + 1 < n && code.charAt(i + 1) == '*') {
+                    int close = code.indexOf("*/", i + 2);
+                    i = blank(code, i, close < 0 ? n : close + 2, out);
+                } else if (code.startsWith("\"\"\"", i)) {
+                    int close = i + 3;
+                    while (close < n && !code.startsWith("\"\"\"", close)) {
+                        close += code.charAt(close) == '\\' ? 2 : 1;
+                    }
+                    i = blank(code, i, Math.min(n, close + 3), out);
+                } else if (c == '"' || c == '\'') {
+                    int close = i + 1;
+                    while (close < n && code.charAt(close) != c && code.charAt(close) != '\n') {
+                        close += code.charAt(close) == '\\' ? 2 : 1;
+                    }
+                    i = blank(code, i, Math.min(n, close + 1), out);
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+            return out.toString();
+        }
+
+        private static int blank(String code, int from, int to, StringBuilder out) {
+            for (int i = from; i < to; i++) {
+                out.append(code.charAt(i) == '\n' ? '\n' : ' ');
+            }
+            return to;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * Captures emitted class files in memory, remembering which source produced them
+     */
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<FileObject, Map<String, ByteArrayOutputStream>> classesBySource = new IdentityHashMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            classesBySource.computeIfAbsent(sibling, k -> new HashMap<>()).put(className, buffer);
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return buffer;
+                }
+            };
+        }
+
+        Map<String, byte[]> classesFor(SourceUnit unit) {
+            Map<String, byte[]> classes = new HashMap<>();
+            classesBySource.getOrDefault(unit, Map.of())
+                .forEach((className, buffer) -> classes.put(className, buffer.toByteArray()));
+            return classes;
+        }
+    }
+}
+
+/**
+ * Classpath for compiling generated code against the application's classes
+ * and libraries. Inside a Spring Boot fat jar java.class.path is only the
+ * launcher jar and javac cannot read jars nested in it, so the nested
+ * entries the application class loader uses (BOOT-INF/lib/*.jar and
+ * BOOT-INF/classes) are copied once to a temporary directory. Both the
+ * Boot 2 "jar:file:/app.jar!/BOOT-INF/lib/x.jar!/" and the Boot 3.2
+ * "jar:nested:/app.jar/!BOOT-INF/lib/x.jar!/" URL forms are understood.
+ */
+final class CompilationClasspath {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationClasspath.class);
+
+    private CompilationClasspath() {
+    }
+
+    static String resolve(ClassLoader loader) {
+        Set<String> entries = new LinkedHashSet<>();
+        Path extracted = null;
+        try {
+            for (ClassLoader current = loader; current != null; current = current.getParent()) {
+                if (!(current instanceof URLClassLoader urlLoader)) {
+                    continue;
+                }
+                for (URL url : urlLoader.getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        entries.add(Path.of(url.toURI()).toString());
+                        continue;
+                    }
+                    if (extracted == null) {
+                        extracted = Files.createTempDirectory("generated-code-classpath");
+                        extracted.toFile().deleteOnExit();
+                    }
+                    Path entry = extractNested(url.toString(), extracted);
+                    if (entry != null) {
+                        entries.add(entry.toString());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not build the classpath for generated code from the class loader, "
+                + "using java.class.path: {}", e.getMessage());
+        }
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+        if (extracted != null) {
+            logger.info("Copied nested classpath entries for generated code to {}", extracted);
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Copies a nested jar, or the classes of a nested directory, out of the
+     * outer archive; null for URL forms it does not know
+     */
+    static Path extractNested(String url, Path targetDirectory) throws IOException {
+        String spec = url.endsWith("!/") ? url.substring(0, url.length() - 2) : url;
+        String outerUri; // Percent-encoded in both forms
+        String entry;
+        if (spec.startsWith("jar:nested:")) {
+            int separator = spec.indexOf("/!");
+            if (separator < 0) {
+                return null;
+            }
+            outerUri = "file:" + spec.substring("jar:nested:".length(), separator);
+            entry = spec.substring(separator + 2);
+        } else if (spec.startsWith("jar:file:")) {
+            int separator = spec.indexOf("!/");
+            if (separator < 0) {
+                return null;
+            }
+            outerUri = spec.substring("jar:".length(), separator);
+            entry = spec.substring(separator + 2);
+        } else {
+            return null;
+        }
+        entry = entry.endsWith("/") ? entry.substring(0, entry.length() - 1) : entry;
+
+        try (JarFile archive = new JarFile(Path.of(URI.create(outerUri)).toFile())) {
+            Path target = targetDirectory.resolve(entry.replace('/', '_'));
+            if (entry.endsWith(".jar")) {
+                JarEntry jar = archive.getJarEntry(entry);
+                if (jar == null) {
+                    return null;
+                }
+                try (InputStream in = archive.getInputStream(jar)) {
+                    Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                target.toFile().deleteOnExit();
+                return target;
+            }
+            String prefix = entry + "/";
+            Set<Path> directories = new HashSet<>();
+            Enumeration<JarEntry> archiveEntries = archive.entries();
+            while (archiveEntries.hasMoreElements()) {
+                JarEntry file = archiveEntries.nextElement();
+                if (file.isDirectory() || !file.getName().startsWith(prefix)) {
+                    continue;
+                }
+                Path copy = target.resolve(file.getName().substring(prefix.length())).normalize();
+                if (!copy.startsWith(target)) {
+                    continue; // Entry name escaping the directory
+                }
+                createDirectories(target, copy.getParent(), directories);
+                try (InputStream in = archive.getInputStream(file)) {
+                    Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+                copy.toFile().deleteOnExit();
+            }
+            return target;
+        }
+    }
+
+    // Registered parent first: deleteOnExit runs in reverse order, so files go before their directories
+    private static void createDirectories(Path root, Path directory, Set<Path> created) throws IOException {
+        if (directory.equals(root.getParent()) || created.contains(directory)) {
+            return;
+        }
+        createDirectories(root, directory.getParent(), created);
+        Files.createDirectories(directory);
+        directory.toFile().deleteOnExit();
+        created.add(directory);
+    }
+}
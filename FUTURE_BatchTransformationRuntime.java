@@ -0,0 +1,610 @@
+// FUTURE ENHANCEMENT: Batch Runtime for LLM-Generated Transformations
+// Loads approved GeneratedTransformation bytecode once and runs it over
+// ColumnBatch vectors of ~2K rows instead of one Map<String, Object> per row.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+import com.example.dynamic_migration_engine.model.GeneratedTransformation;
+import com.example.dynamic_migration_engine.util.BatchCodeCompiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * PERFORMANCE: Columnar execution of generated transformation code
+ *
+ * Two kinds of generated classes are supported:
+ * - Batch-native: implements {@link BatchTransformation} and loops over the
+ *   whole batch itself, so the JIT can inline and hoist across rows
+ * - Single-row (e.g. splitCustomerFullName): one public method taking one
+ *   value. An adapter calls it through a MethodHandle typed to long / double /
+ *   Object, so primitive columns are never boxed. Map results are spread
+ *   over the destination columns named by their keys. Only lossless
+ *   conversions are used: an int / short / float parameter keeps the row
+ *   path, and a long parameter only runs columnar while its column holds
+ *   integral values.
+ *
+ * Each transformation gets its own class loader, which also defines the
+ * nested and helper classes compiled with it, so its classes are unloaded
+ * together with the plan. (Hidden classes would need the generated code to
+ * live in this package, which the LLM output does not guarantee.)
+ * Anything that cannot be loaded stays on the row-at-a-time path.
+ */
+@Component
+public class BatchTransformationRuntime {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransformationRuntime.class);
+
+    @Value("${migration.batch-runtime.batch-size:2048}")
+    private int batchSize = ColumnBatch.DEFAULT_CAPACITY; // Rows per ColumnBatch; 1-4K keeps vectors in L2
+
+    private final BatchCodeCompiler batchCodeCompiler;
+
+    public BatchTransformationRuntime(BatchCodeCompiler batchCodeCompiler) {
+        this.batchCodeCompiler = batchCodeCompiler;
+    }
+
+    /**
+     * Contract for batch-native generated code. Read inputs with
+     * longs()/doubles()/objects(), write outputs with writeLongs()/writeDoubles()/writeObjects().
+     * One instance serves all partition workers, so implementations must be stateless.
+     */
+    public interface BatchTransformation {
+        void transform(ColumnBatch source, ColumnBatch destination);
+    }
+
+    /**
+     * Loads every transformation that can run in batch mode
+     */
+    public BatchChunkPlan plan(List<ColumnMappingDto> columnMappings,
+                               List<GeneratedTransformation> transformations) {
+        MigrationPlan layout = MigrationPlan.of(null, null, columnMappings, null);
+        List<LoadedTransformation> loaded = new ArrayList<>();
+        List<GeneratedTransformation> rowAtATime = new ArrayList<>();
+
+        for (GeneratedTransformation transformation : transformations) {
+            ColumnMappingDto mapping = mappingFor(columnMappings, transformation.getDestinationColumnName());
+            Optional<LoadedTransformation> batch = mapping == null
+                ? Optional.empty()
+                : load(transformation, mapping, columnMappings);
+            if (batch.isPresent()) {
+                loaded.add(batch.get());
+            } else {
+                rowAtATime.add(transformation);
+            }
+        }
+        logger.debug("Batch runtime: {} transformations columnar, {} row-at-a-time",
+            loaded.size(), rowAtATime.size());
+        return new BatchChunkPlan(layout, loaded, rowAtATime, Math.max(1, batchSize));
+    }
+
+    private Optional<LoadedTransformation> load(GeneratedTransformation transformation,
+                                                ColumnMappingDto mapping,
+                                                List<ColumnMappingDto> columnMappings) {
+        try {
+            byte[] bytecode = bytecodeOf(transformation);
+            if (bytecode == null) {
+                return Optional.empty();
+            }
+            Map<String, byte[]> helperClasses = transformation.getHelperClasses() == null
+                ? Map.of() : transformation.getHelperClasses();
+            Class<?> generatedClass = new GeneratedClassLoader(getClass().getClassLoader(), helperClasses).define(bytecode);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            if (BatchTransformation.class.isAssignableFrom(generatedClass)) {
+                BatchTransformation batch = (BatchTransformation) lookup
+                    .findConstructor(generatedClass, MethodType.methodType(void.class)).invoke();
+                return Optional.of(new LoadedTransformation(transformation, batch,
+                    Set.of(transformation.getDestinationColumnName()), inputsOf(mapping), false));
+            }
+
+            Method method = singleRowMethod(generatedClass, transformation.getMethodName());
+            if (method == null || mapping.getSecondarySourceColumnName() != null) {
+                return Optional.empty(); // Multi-input single-row code keeps the row path
+            }
+            MethodHandle handle = lookup.unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(lookup.findConstructor(generatedClass, MethodType.methodType(void.class)).invoke());
+            }
+
+            ScalarAdapter adapter = new ScalarAdapter(handle, method.getParameterTypes()[0], method.getReturnType(),
+                mapping.getSourceColumnName(), transformation.getDestinationColumnName());
+            Set<String> outputs = new LinkedHashSet<>();
+            outputs.add(transformation.getDestinationColumnName());
+            if (adapter.returnsMap()) {
+                // Map keys name destination columns, e.g. {"first_name", "last_name"} from one full name
+                for (ColumnMappingDto other : columnMappings) {
+                    if (mapping.getSourceColumnName().equals(other.getSourceColumnName())) {
+                        outputs.add(other.getDestinationColumnName());
+                    }
+                }
+            }
+            return Optional.of(new LoadedTransformation(transformation, adapter, outputs, inputsOf(mapping),
+                adapter.returnsMap()));
+
+        } catch (Throwable e) {
+            logger.warn("Transformation {} cannot run in batch mode, using row-at-a-time: {}",
+                transformation.getMethodName(), e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] bytecodeOf(GeneratedTransformation transformation) {
+        if (transformation.getCompiledBytecode() != null) {
+            return transformation.getCompiledBytecode();
+        }
+        if (batchCodeCompiler == null || !batchCodeCompiler.isAvailable()) {
+            return null;
+        }
+        // Validated without batch compilation (or cached before bytecode was kept): compile once here
+        BatchCodeCompiler.CompilationOutcome outcome =
+            batchCodeCompiler.compileAll(List.of(transformation.getJavaCode())).get(0);
+        if (outcome.compiled()) {
+            transformation.setCompiledBytecode(outcome.bytecode());
+            transformation.setHelperClasses(outcome.helperClasses());
+        }
+        return outcome.bytecode();
+    }
+
+    private static Method singleRowMethod(Class<?> generatedClass, String methodName) {
+        for (Method method : generatedClass.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == 1
+                    && method.getReturnType() != void.class) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static ColumnMappingDto mappingFor(List<ColumnMappingDto> columnMappings, String destinationColumn) {
+        if (destinationColumn == null) {
+            return null;
+        }
+        for (ColumnMappingDto mapping : columnMappings) {
+            if (destinationColumn.equals(mapping.getDestinationColumnName()) && mapping.getSourceColumnName() != null) {
+                return mapping;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> inputsOf(ColumnMappingDto mapping) {
+        Set<String> inputs = new LinkedHashSet<>();
+        inputs.add(mapping.getSourceColumnName());
+        if (mapping.getSecondarySourceColumnName() != null) {
+            inputs.add(mapping.getSecondarySourceColumnName());
+        }
+        return inputs;
+    }
+
+    /**
+     * One loader per generated class; becomes unreachable together with the plan.
+     * Helper classes are defined on first use, like classes from a jar.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> helperClasses;
+
+        GeneratedClassLoader(ClassLoader parent, Map<String, byte[]> helperClasses) {
+            super(parent);
+            this.helperClasses = helperClasses;
+        }
+
+        Class<?> define(byte[] bytecode) {
+            return defineClass(null, bytecode, 0, bytecode.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytecode = helperClasses.get(name);
+            if (bytecode == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    /**
+     * Thrown by an adapter whose input column cannot be converted without loss;
+     * the plan moves the transformation to the row path
+     */
+    static final class RowPathRequired extends RuntimeException {
+        RowPathRequired(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    enum Kind { LONG, DOUBLE, OBJECT, MAP }
+
+    /**
+     * Runs a single-row method over a batch. The handle is adapted to (long|double|Object)
+     * -> (long|double|Object) once with asType, which only allows lossless conversions,
+     * and every call site below is invokeExact, so primitive values stay unboxed end to end.
+     */
+    static final class ScalarAdapter implements BatchTransformation {
+        private final MethodHandle handle;
+        private final Kind inputKind;
+        private final Kind outputKind;
+        private final boolean primitiveParameter;
+        private final String inputColumn;
+        private final String outputColumn;
+
+        ScalarAdapter(MethodHandle target, Class<?> parameterType, Class<?> returnType,
+                      String inputColumn, String outputColumn) {
+            this.inputKind = parameterKind(parameterType);
+            this.outputKind = Map.class.isAssignableFrom(returnType) ? Kind.MAP : kindOf(returnType);
+            this.primitiveParameter = parameterType.isPrimitive();
+            this.inputColumn = inputColumn;
+            this.outputColumn = outputColumn;
+            this.handle = target.asType(MethodType.methodType(canonical(outputKind), canonical(inputKind)));
+        }
+
+        boolean returnsMap() {
+            return outputKind == Kind.MAP;
+        }
+
+        @Override
+        public void transform(ColumnBatch source, ColumnBatch destination) {
+            try {
+                switch (inputKind) {
+                    case LONG -> fromLongs(longInput(source), destination);
+                    case DOUBLE -> fromDoubles(doubleInput(source), destination);
+                    default -> fromObjects(source.objects(inputColumn), destination);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new TransformationException("Generated transformation failed on column " + inputColumn, e);
+            }
+        }
+
+        // Decimals, strings or doubles in the column would have to be truncated or parsed
+        private ColumnBatch.LongVector longInput(ColumnBatch source) {
+            if (!(source.vector(inputColumn) instanceof ColumnBatch.LongVector)) {
+                throw new RowPathRequired("column " + inputColumn + " is not integral");
+            }
+            return source.longs(inputColumn);
+        }
+
+        private ColumnBatch.DoubleVector doubleInput(ColumnBatch source) {
+            ColumnBatch.ColumnVector vector = source.vector(inputColumn);
+            if (!(vector instanceof ColumnBatch.DoubleVector || vector instanceof ColumnBatch.LongVector)) {
+                throw new RowPathRequired("column " + inputColumn + " is not numeric");
+            }
+            try {
+                return source.doubles(inputColumn);
+            } catch (ArithmeticException e) {
+                throw new RowPathRequired("column " + inputColumn + " has longs beyond double precision");
+            }
+        }
+
+        private void fromLongs(ColumnBatch.LongVector in, ColumnBatch destination) throws Throwable {
+            int rows = destination.rowCount();
+            switch (outputKind) {
+                case LONG -> {
+                    ColumnBatch.LongVector out = destination.writeLongs(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            out.set(row, (long) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                case DOUBLE -> {
+                    ColumnBatch.DoubleVector out = destination.writeDoubles(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            out.set(row, (double) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                default -> {
+                    ObjectSink sink = sink(destination);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            sink.accept(row, (Object) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void fromDoubles(ColumnBatch.DoubleVector in, ColumnBatch destination) throws Throwable {
+            int rows = destination.rowCount();
+            switch (outputKind) {
+                case LONG -> {
+                    ColumnBatch.LongVector out = destination.writeLongs(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            out.set(row, (long) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                case DOUBLE -> {
+                    ColumnBatch.DoubleVector out = destination.writeDoubles(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            out.set(row, (double) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                default -> {
+                    ObjectSink sink = sink(destination);
+                    for (int row = 0; row < rows; row++) {
+                        if (!in.isNull(row)) {
+                            sink.accept(row, (Object) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void fromObjects(ColumnBatch.ObjectVector in, ColumnBatch destination) throws Throwable {
+            int rows = destination.rowCount();
+            // Reference parameters see NULL like the row path does; primitive ones cannot
+            boolean skipNulls = primitiveParameter;
+            switch (outputKind) {
+                case LONG -> {
+                    ColumnBatch.LongVector out = destination.writeLongs(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!(skipNulls && in.values[row] == null)) {
+                            out.set(row, (long) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                case DOUBLE -> {
+                    ColumnBatch.DoubleVector out = destination.writeDoubles(outputColumn);
+                    for (int row = 0; row < rows; row++) {
+                        if (!(skipNulls && in.values[row] == null)) {
+                            out.set(row, (double) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+                default -> {
+                    ObjectSink sink = sink(destination);
+                    for (int row = 0; row < rows; row++) {
+                        if (!(skipNulls && in.values[row] == null)) {
+                            sink.accept(row, (Object) handle.invokeExact(in.values[row]));
+                        }
+                    }
+                }
+            }
+        }
+
+        private ObjectSink sink(ColumnBatch destination) {
+            if (outputKind != Kind.MAP) {
+                ColumnBatch.ObjectVector out = destination.writeObjects(outputColumn);
+                return out::set;
+            }
+            // Legacy Map<String, Object> results: one destination vector per key, resolved once per batch
+            Map<Object, ColumnBatch.ObjectVector> vectors = new HashMap<>();
+            return (row, result) -> {
+                if (result == null) {
+                    return;
+                }
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()) {
+                    ColumnBatch.ObjectVector out = vectors.computeIfAbsent(entry.getKey(), key ->
+                        destination.hasColumn(String.valueOf(key)) ? destination.objects(String.valueOf(key)) : null);
+                    if (out != null) {
+                        out.set(row, entry.getValue());
+                    }
+                }
+            };
+        }
+
+        private static Kind parameterKind(Class<?> type) {
+            if (type.isPrimitive() && type != long.class && type != double.class) {
+                // Column values are read as long or double; passing them on would narrow
+                throw new IllegalArgumentException("parameter type " + type + " needs a narrowing conversion");
+            }
+            return kindOf(type);
+        }
+
+        private static Kind kindOf(Class<?> type) {
+            if (type == long.class || type == int.class || type == short.class || type == byte.class) {
+                return Kind.LONG;
+            }
+            if (type == double.class || type == float.class) {
+                return Kind.DOUBLE;
+            }
+            return Kind.OBJECT;
+        }
+
+        private static Class<?> canonical(Kind kind) {
+            return switch (kind) {
+                case LONG -> long.class;
+                case DOUBLE -> double.class;
+                default -> Object.class;
+            };
+        }
+
+        @FunctionalInterface
+        private interface ObjectSink {
+            void accept(int row, Object value);
+        }
+    }
+}
+
+/**
+ * A transformation ready for batch execution plus the columns it reads and writes
+ *
+ * @param partialOutput true if some output cells may be left unwritten (Map results
+ *                      without every key); those columns start from the direct-copy values
+ */
+record LoadedTransformation(GeneratedTransformation transformation,
+                            BatchTransformationRuntime.BatchTransformation batch,
+                            Set<String> outputColumns,
+                            Set<String> inputColumns,
+                            boolean partialOutput) {
+}
+
+/**
+ * Per-migration execution plan: converts each Object[][] chunk into ColumnBatches
+ * of at most batchSize rows, runs the loaded transformations, and writes their
+ * output columns back. Safe to share between partition workers; batches are per call.
+ *
+ * A transformation that turns out not to run columnar (a LinkageError such as
+ * a missing helper class, or an input column that is not integral for a long
+ * parameter) is moved to the row path for the rest of the run, and the chunk
+ * is executed again without it. Outputs are recomputed from the source rows,
+ * so re-executing a chunk is safe.
+ */
+final class BatchChunkPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTransformationRuntime.class);
+
+    private final MigrationPlan layout;
+    private final int batchSize;
+    private volatile Stage stage; // Replaced, never modified, when a transformation moves to the row path
+
+    BatchChunkPlan(MigrationPlan layout, List<LoadedTransformation> loaded,
+                   List<GeneratedTransformation> rowAtATime, int batchSize) {
+        this.layout = layout;
+        this.batchSize = batchSize;
+        this.stage = new Stage(layout, loaded, rowAtATime);
+    }
+
+    boolean hasBatchTransformations() {
+        return !stage.loaded.isEmpty();
+    }
+
+    /**
+     * Transformations that must still be applied row by row, after {@link #execute}
+     */
+    List<GeneratedTransformation> rowAtATime() {
+        return stage.rowAtATime;
+    }
+
+    void execute(Object[][] sourceRows, int rowCount, Object[][] destinationRows,
+                 PipelineMetrics.MigrationMeter meter) {
+        while (true) {
+            Stage current = stage;
+            int rejected = current.execute(sourceRows, rowCount, destinationRows, meter, batchSize);
+            if (rejected < 0) {
+                return;
+            }
+            moveToRowPath(current, rejected);
+        }
+    }
+
+    private synchronized void moveToRowPath(Stage current, int index) {
+        if (stage != current) {
+            return; // Another worker rebuilt the stage; the chunk is retried against the new one
+        }
+        List<LoadedTransformation> loaded = new ArrayList<>(current.loaded);
+        List<GeneratedTransformation> rowAtATime = new ArrayList<>(current.rowAtATime);
+        rowAtATime.add(loaded.remove(index).transformation());
+        stage = new Stage(layout, loaded, rowAtATime);
+    }
+
+    /**
+     * Loaded transformations plus the column layout derived from them
+     */
+    private static final class Stage {
+        final List<LoadedTransformation> loaded;
+        final List<GeneratedTransformation> rowAtATime;
+        private final List<String> inputColumns;
+        private final List<String> outputColumns;
+        private final int[] inputRowIndexes;
+        private final int[] outputRowIndexes;
+        private final boolean[] prefillOutput;
+
+        Stage(MigrationPlan layout, List<LoadedTransformation> loaded, List<GeneratedTransformation> rowAtATime) {
+            this.loaded = List.copyOf(loaded);
+            this.rowAtATime = List.copyOf(rowAtATime);
+
+            Set<String> inputs = new LinkedHashSet<>();
+            Set<String> outputs = new LinkedHashSet<>();
+            Set<String> partialOutputs = new LinkedHashSet<>();
+            for (LoadedTransformation transformation : loaded) {
+                inputs.addAll(transformation.inputColumns());
+                outputs.addAll(transformation.outputColumns());
+                if (transformation.partialOutput()) {
+                    partialOutputs.addAll(transformation.outputColumns());
+                }
+            }
+            outputs.retainAll(layout.destinationColumns); // Map keys that are not mapped columns are ignored
+            this.inputColumns = new ArrayList<>(inputs);
+            this.outputColumns = new ArrayList<>(outputs);
+            this.inputRowIndexes = inputColumns.stream().mapToInt(layout.sourceColumns::indexOf).toArray();
+            this.outputRowIndexes = outputColumns.stream().mapToInt(layout.destinationColumns::indexOf).toArray();
+            this.prefillOutput = new boolean[outputColumns.size()];
+            for (int c = 0; c < outputColumns.size(); c++) {
+                prefillOutput[c] = partialOutputs.contains(outputColumns.get(c));
+            }
+        }
+
+        /**
+         * @return index of a transformation that has to move to the row path, or -1
+         */
+        int execute(Object[][] sourceRows, int rowCount, Object[][] destinationRows,
+                    PipelineMetrics.MigrationMeter meter, int batchSize) {
+            if (loaded.isEmpty() || rowCount == 0) {
+                return -1;
+            }
+            int capacity = Math.min(batchSize, rowCount);
+            ColumnBatch source = new ColumnBatch(inputColumns, capacity);
+            ColumnBatch destination = new ColumnBatch(outputColumns, capacity);
+            long[] nanos = new long[loaded.size()];
+            int failed = -1;
+            int rejected = -1;
+
+            try {
+                for (int offset = 0; offset < rowCount; offset += capacity) {
+                    int rows = Math.min(capacity, rowCount - offset);
+                    source.reset(rows);
+                    for (int c = 0; c < inputColumns.size(); c++) {
+                        source.gather(inputColumns.get(c), sourceRows, offset, inputRowIndexes[c]);
+                    }
+                    destination.reset(rows);
+                    for (int c = 0; c < outputColumns.size(); c++) {
+                        if (prefillOutput[c]) {
+                            destination.gather(outputColumns.get(c), destinationRows, offset, outputRowIndexes[c]);
+                        }
+                    }
+
+                    for (int t = 0; t < loaded.size(); t++) {
+                        long start = System.nanoTime();
+                        failed = t;
+                        try {
+                            loaded.get(t).batch().transform(source, destination);
+                        } catch (LinkageError | BatchTransformationRuntime.RowPathRequired e) {
+                            logger.warn("Transformation {} moved to row-at-a-time: {}",
+                                loaded.get(t).transformation().getMethodName(), e.toString());
+                            rejected = t;
+                            return rejected;
+                        }
+                        failed = -1;
+                        nanos[t] += System.nanoTime() - start;
+                    }
+
+                    for (int c = 0; c < outputColumns.size(); c++) {
+                        destination.scatter(outputColumns.get(c), destinationRows, offset, outputRowIndexes[c]);
+                    }
+                }
+                return -1;
+            } finally {
+                // Same granularity as the row path: one sample per method per chunk. A rejected
+                // transformation is timed by the row path when the chunk is executed again.
+                for (int t = 0; t < loaded.size(); t++) {
+                    if (t != rejected) {
+                        meter.recordMethod(loaded.get(t).transformation().getMethodName(), nanos[t], rowCount, t == failed);
+                    }
+                }
+            }
+        }
+    }
+}
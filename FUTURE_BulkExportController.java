@@ -0,0 +1,67 @@
+// FUTURE ENHANCEMENT: Streaming Variant of /download-migration-queries
+// Builds the script from the source table while it is downloaded.
+
+package com.example.dynamic_migration_engine.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.dynamic_migration_engine.model.BulkExportRequest;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.service.BulkLoadExporter;
+import com.example.dynamic_migration_engine.service.ConnectionProfileResolver;
+import com.example.dynamic_migration_engine.service.LLMTransformationService;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * SCALABILITY: Bulk-load export endpoint
+ *
+ * POST /api/migration/download-migration-queries/bulk -> body: BulkExportRequest
+ *
+ * Returns application/sql, or application/gzip when gzip is requested, as an
+ * attachment. The existing endpoint that formats a posted queries list stays
+ * for migrations that were already run.
+ */
+@RestController
+@RequestMapping("/api/migration")
+@CrossOrigin(origins = "http://localhost:4200")
+public class BulkExportController {
+
+    private final LLMTransformationService llmTransformationService;
+    private final ConnectionProfileResolver connectionProfileResolver;
+
+    public BulkExportController(LLMTransformationService llmTransformationService,
+                                ConnectionProfileResolver connectionProfileResolver) {
+        this.llmTransformationService = llmTransformationService;
+        this.connectionProfileResolver = connectionProfileResolver;
+    }
+
+    @PostMapping("/download-migration-queries/bulk")
+    public ResponseEntity<StreamingResponseBody> downloadBulkLoadScript(@RequestBody BulkExportRequest request) {
+        Optional<DbConnectionParams> source = connectionProfileResolver.resolve(request.getSourceDatabaseName());
+        Optional<DbConnectionParams> destination = connectionProfileResolver.resolve(request.getDestinationDatabaseName());
+        if (source.isEmpty() || destination.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        BulkLoadExporter.Format format = request.getFormat() == null ? null
+            : BulkLoadExporter.Format.valueOf(request.getFormat().toUpperCase(Locale.ROOT));
+        String fileName = "migration_" + request.getSourceTableName() + "_to_" + request.getDestinationTableName()
+            + ".sql" + (request.isGzip() ? ".gz" : "");
+
+        StreamingResponseBody body = out -> llmTransformationService.exportMigrationScript(
+            source.get(), request.getSourceTableName(),
+            destination.get(), request.getDestinationTableName(),
+            request.getColumnMappings(), format, request.isGzip(), out);
+        return ResponseEntity.ok()
+            .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+            .contentType(MediaType.parseMediaType(request.isGzip() ? "application/gzip" : "application/sql"))
+            .body(body);
+    }
+}
@@ -0,0 +1,79 @@
+// FUTURE ENHANCEMENT: Request Body for the Bulk-Load Export
+// Names the tables and mappings to export instead of carrying the generated statements.
+
+package com.example.dynamic_migration_engine.model;
+
+import java.util.List;
+
+/**
+ * Model for POST /download-migration-queries/bulk. Connection details are
+ * resolved from the stored profiles by database name, like /start-migration.
+ */
+public class BulkExportRequest {
+    private String sourceDatabaseName;
+    private String sourceTableName;
+    private String destinationDatabaseName;
+    private String destinationTableName;
+    private List<ColumnMappingDto> columnMappings;
+    private String format; // "INSERT" or "COPY"; null = COPY for PostgreSQL destinations, INSERT otherwise
+    private boolean gzip;
+
+    public BulkExportRequest() {
+    }
+
+    public String getSourceDatabaseName() {
+        return sourceDatabaseName;
+    }
+
+    public void setSourceDatabaseName(String sourceDatabaseName) {
+        this.sourceDatabaseName = sourceDatabaseName;
+    }
+
+    public String getSourceTableName() {
+        return sourceTableName;
+    }
+
+    public void setSourceTableName(String sourceTableName) {
+        this.sourceTableName = sourceTableName;
+    }
+
+    public String getDestinationDatabaseName() {
+        return destinationDatabaseName;
+    }
+
+    public void setDestinationDatabaseName(String destinationDatabaseName) {
+        this.destinationDatabaseName = destinationDatabaseName;
+    }
+
+    public String getDestinationTableName() {
+        return destinationTableName;
+    }
+
+    public void setDestinationTableName(String destinationTableName) {
+        this.destinationTableName = destinationTableName;
+    }
+
+    public List<ColumnMappingDto> getColumnMappings() {
+        return columnMappings;
+    }
+
+    public void setColumnMappings(List<ColumnMappingDto> columnMappings) {
+        this.columnMappings = columnMappings;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+}
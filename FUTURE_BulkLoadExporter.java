@@ -0,0 +1,484 @@
+// FUTURE ENHANCEMENT: Bulk-Load Export for /download-migration-queries
+// Writes the migration as multi-row INSERT batches or PostgreSQL COPY blocks straight
+// from the source cursor, instead of one statement per row from a materialized list.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SCALABILITY: Constant-memory migration scripts that load in bulk
+ *
+ * Source rows are read through a forward-only cursor one fetch at a time,
+ * transformed with the same {@link ChunkTransformer} as a live migration
+ * and written out immediately, so memory holds one chunk whatever the table
+ * size. Two formats:
+ * - INSERT: multi-row INSERT ... VALUES with up to export.insert-batch-rows rows
+ *   per statement (INSERT ALL for Oracle), inside one transaction
+ * - COPY (PostgreSQL only): COPY ... FROM STDIN blocks in text format,
+ *   export.copy-block-rows rows each, replayable with psql
+ *
+ * Both replace the per-row statements of the old export: the destination
+ * parses one statement per batch (or none for COPY) and commits once,
+ * instead of parsing and committing every row.
+ */
+@Service
+public class BulkLoadExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoadExporter.class);
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        INSERT,
+        COPY;
+
+        /**
+         * COPY for PostgreSQL destinations, multi-row INSERT otherwise
+         */
+        public static Format defaultFor(String databaseType) {
+            return "PostgreSQL".equals(databaseType) ? COPY : INSERT;
+        }
+    }
+
+    private final MigrationConnectionProvider connectionProvider;
+    private final int fetchSize;
+    private final int insertBatchRows;
+    private final int copyBlockRows;
+
+    public BulkLoadExporter(MigrationConnectionProvider connectionProvider,
+                            @Value("${export.fetch-size:1000}") int fetchSize,
+                            @Value("${export.insert-batch-rows:1000}") int insertBatchRows,
+                            @Value("${export.copy-block-rows:100000}") int copyBlockRows) {
+        this.connectionProvider = connectionProvider;
+        this.fetchSize = fetchSize;
+        // SQL Server rejects more than 1000 rows in one VALUES list
+        this.insertBatchRows = Math.max(1, Math.min(insertBatchRows, 1000));
+        this.copyBlockRows = copyBlockRows;
+    }
+
+    /**
+     * Streams the export script for one table mapping to {@code out}
+     *
+     * @param format INSERT or COPY; null picks {@link Format#defaultFor} the destination
+     * @param gzip   compress the script; {@code out} is finished but not closed
+     * @return number of rows written
+     */
+    long export(DbConnectionParams sourceParams, String sourceTableName,
+                String destinationDatabaseType, String destinationTableName,
+                List<ColumnMappingDto> columnMappings, ChunkTransformer transformer,
+                Format format, boolean gzip, OutputStream out) throws IOException {
+        Format effectiveFormat = format != null ? format : Format.defaultFor(destinationDatabaseType);
+        if (effectiveFormat == Format.COPY && !"PostgreSQL".equals(destinationDatabaseType)) {
+            throw new IllegalArgumentException("COPY export requires a PostgreSQL destination, not " + destinationDatabaseType);
+        }
+        MigrationPlan plan = MigrationPlan.of(sourceTableName, destinationTableName, columnMappings, null);
+        SqlDialect dialect = SqlDialect.of(destinationDatabaseType);
+
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, WRITE_BUFFER_BYTES) : null;
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), WRITE_BUFFER_BYTES);
+        ScriptWriter script = effectiveFormat == Format.COPY
+            ? new CopyScriptWriter(writer, plan, dialect, copyBlockRows)
+            : new InsertScriptWriter(writer, plan, dialect, insertBatchRows);
+
+        long start = System.currentTimeMillis();
+        script.begin(sourceTableName);
+        long rows;
+        try {
+            rows = streamRows(sourceParams, plan, transformer, script);
+        } catch (SQLException e) {
+            // The response is already partly sent; end the script so that replaying it loads nothing
+            script.abort(e.getMessage());
+            writer.flush();
+            throw new IOException("Export of " + sourceTableName + " failed", e);
+        }
+        script.end(rows);
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        logger.info("Exported {} rows of {} as {} in {} ms", rows, sourceTableName, effectiveFormat,
+            System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private long streamRows(DbConnectionParams sourceParams, MigrationPlan plan, ChunkTransformer transformer,
+                            ScriptWriter script) throws SQLException, IOException {
+        transformer.awaitReady(); // Nothing is buffered here, so wait for generated code up front
+        try (Connection source = connectionProvider.open(sourceParams)) {
+            String quote = source.getMetaData().getIdentifierQuoteString().trim();
+            String select = "SELECT " + plan.sourceColumnList(quote) + " FROM "
+                + MigrationPlan.qualifiedTableName(source, plan.sourceTable);
+
+            // PostgreSQL only honours the fetch size inside a transaction
+            boolean autoCommit = source.getAutoCommit();
+            source.setAutoCommit(false);
+            try (PreparedStatement statement = source.prepareStatement(
+                    select, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(StreamingMigrationExecutor.streamingFetchSize(source, fetchSize));
+                try (ResultSet rs = statement.executeQuery()) {
+                    int columnCount = plan.sourceColumns.size();
+                    Object[][] sourceRows = new Object[fetchSize][];
+                    long rows = 0;
+                    int rowCount;
+                    do {
+                        rowCount = 0;
+                        while (rowCount < fetchSize && rs.next()) {
+                            Object[] row = new Object[columnCount];
+                            for (int i = 0; i < columnCount; i++) {
+                                row[i] = rs.getObject(i + 1);
+                            }
+                            sourceRows[rowCount++] = row;
+                        }
+                        if (rowCount > 0) {
+                            Object[][] destinationRows = new Object[rowCount][];
+                            transformer.transform(sourceRows, rowCount, destinationRows);
+                            for (int i = 0; i < rowCount; i++) {
+                                if (destinationRows[i] != null) {
+                                    script.row(destinationRows[i]);
+                                    rows++;
+                                }
+                            }
+                        }
+                    } while (rowCount == fetchSize);
+                    return rows;
+                }
+            } finally {
+                source.commit();
+                source.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
+
+/**
+ * Identifier quoting, literals and transaction syntax of the destination database
+ */
+enum SqlDialect {
+    POSTGRESQL("\"", "\"", "BEGIN;", "TRUE", "FALSE"),
+    MYSQL("`", "`", "START TRANSACTION;", "TRUE", "FALSE"),
+    SQLSERVER("[", "]", "BEGIN TRANSACTION;", "1", "0"),
+    ORACLE("\"", "\"", null, "1", "0"); // Oracle opens transactions implicitly
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final DateTimeFormatter ORACLE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSSSS");
+
+    final String beginTransaction;
+    private final String openQuote;
+    private final String closeQuote;
+    private final String trueLiteral;
+    private final String falseLiteral;
+
+    SqlDialect(String openQuote, String closeQuote, String beginTransaction, String trueLiteral, String falseLiteral) {
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+        this.beginTransaction = beginTransaction;
+        this.trueLiteral = trueLiteral;
+        this.falseLiteral = falseLiteral;
+    }
+
+    static SqlDialect of(String databaseType) {
+        return switch (databaseType) {
+            case "PostgreSQL" -> POSTGRESQL;
+            case "MySQL" -> MYSQL;
+            case "SQLServer" -> SQLSERVER;
+            case "Oracle" -> ORACLE;
+            default -> throw new IllegalArgumentException("Unsupported database type: " + databaseType);
+        };
+    }
+
+    String quote(String identifier) {
+        return openQuote + identifier.replace(closeQuote, closeQuote + closeQuote) + closeQuote;
+    }
+
+    /**
+     * Quotes a possibly schema-qualified table name part by part; the
+     * destination is not connected, so the dots are taken as separators
+     */
+    String quoteTable(String tableName) {
+        List<String> parts = new ArrayList<>();
+        for (String part : tableName.split("\\.", -1)) {
+            parts.add(quote(part));
+        }
+        return String.join(".", parts);
+    }
+
+    String columnList(List<String> columns) {
+        StringBuilder list = new StringBuilder();
+        for (String column : columns) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append(quote(column));
+        }
+        return list.toString();
+    }
+
+    void appendLiteral(StringBuilder sql, Object value) {
+        if (value == null) {
+            sql.append("NULL");
+        } else if (value instanceof Boolean bool) {
+            sql.append(bool ? trueLiteral : falseLiteral);
+        } else if (value instanceof BigDecimal decimal) {
+            sql.append(decimal.toPlainString());
+        } else if (value instanceof Number number && isFinite(number)) {
+            sql.append(number);
+        } else if (value instanceof byte[] bytes) {
+            appendBinary(sql, bytes);
+        } else if (this == ORACLE && (value instanceof Date || value instanceof LocalDate)) {
+            // Oracle parses untyped strings with NLS_DATE_FORMAT; typed literals are session-independent
+            sql.append("DATE ");
+            appendString(sql, value.toString());
+        } else if (this == ORACLE && (value instanceof Timestamp || value instanceof LocalDateTime)) {
+            LocalDateTime local = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+            sql.append("TIMESTAMP ");
+            appendString(sql, ORACLE_TIMESTAMP.format(local)); // All nine fraction digits, as the literal syntax expects
+        } else {
+            appendString(sql, value.toString()); // Strings, dates, UUIDs, driver types; the column type casts
+        }
+    }
+
+    private void appendString(StringBuilder sql, String text) {
+        if (this == SQLSERVER) {
+            sql.append('N'); // Without it the literal is varchar in the database code page and loses other characters
+        }
+        sql.append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                sql.append("''");
+            } else if (c == '\\' && this == MYSQL) {
+                sql.append("\\\\"); // MySQL treats backslash as an escape character by default
+            } else {
+                sql.append(c);
+            }
+        }
+        sql.append('\'');
+    }
+
+    private void appendBinary(StringBuilder sql, byte[] bytes) {
+        String hex = HEX.formatHex(bytes);
+        switch (this) {
+            case POSTGRESQL -> sql.append("'\\x").append(hex).append("'::bytea");
+            case MYSQL -> sql.append("X'").append(hex).append('\'');
+            case SQLSERVER -> sql.append("0x").append(hex);
+            case ORACLE -> sql.append("HEXTORAW('").append(hex).append("')");
+        }
+    }
+
+    private static boolean isFinite(Number number) {
+        return !(number instanceof Double d && !Double.isFinite(d)) && !(number instanceof Float f && !Float.isFinite(f));
+    }
+}
+
+/**
+ * Receives destination rows in order and writes them in one export format
+ */
+abstract class ScriptWriter {
+    final Writer out;
+    final MigrationPlan plan;
+    final SqlDialect dialect;
+
+    ScriptWriter(Writer out, MigrationPlan plan, SqlDialect dialect) {
+        this.out = out;
+        this.plan = plan;
+        this.dialect = dialect;
+    }
+
+    void begin(String sourceTableName) throws IOException {
+        out.write("-- Migration export: " + sourceTableName + " -> " + plan.destinationTable + "\n");
+        out.write("-- Generated at " + LocalDateTime.now() + "\n\n");
+        if (dialect.beginTransaction != null) {
+            out.write(dialect.beginTransaction + "\n");
+        }
+    }
+
+    abstract void row(Object[] values) throws IOException;
+
+    void end(long rows) throws IOException {
+        out.write("COMMIT;\n");
+        out.write("-- " + rows + " rows\n");
+    }
+
+    /**
+     * Ends a script whose source read failed; rows already written are rolled back on replay
+     */
+    void abort(String reason) throws IOException {
+        out.write("\n-- EXPORT FAILED: " + String.valueOf(reason).replace('\n', ' ') + "\n");
+        out.write("ROLLBACK;\n");
+    }
+}
+
+final class InsertScriptWriter extends ScriptWriter {
+    private final int batchRows;
+    private final String insertPrefix;
+    private final StringBuilder statement = new StringBuilder(64 * 1024);
+    private int rowsInStatement;
+
+    InsertScriptWriter(Writer out, MigrationPlan plan, SqlDialect dialect, int batchRows) {
+        super(out, plan, dialect);
+        this.batchRows = batchRows;
+        String target = dialect.quoteTable(plan.destinationTable) + " (" + dialect.columnList(plan.destinationColumns) + ")";
+        this.insertPrefix = dialect == SqlDialect.ORACLE ? "INTO " + target + " VALUES " : "INSERT INTO " + target + " VALUES\n";
+    }
+
+    @Override
+    void row(Object[] values) throws IOException {
+        if (rowsInStatement == 0) {
+            statement.append(dialect == SqlDialect.ORACLE ? "INSERT ALL\n" : insertPrefix);
+        } else {
+            statement.append(dialect == SqlDialect.ORACLE ? "\n" : ",\n");
+        }
+        if (dialect == SqlDialect.ORACLE) {
+            statement.append("  ").append(insertPrefix);
+        }
+        statement.append('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                statement.append(", ");
+            }
+            dialect.appendLiteral(statement, values[i]);
+        }
+        statement.append(')');
+        if (++rowsInStatement == batchRows) {
+            flushStatement();
+        }
+    }
+
+    @Override
+    void end(long rows) throws IOException {
+        flushStatement();
+        super.end(rows);
+    }
+
+    @Override
+    void abort(String reason) throws IOException {
+        statement.setLength(0); // Incomplete batch is dropped
+        rowsInStatement = 0;
+        super.abort(reason);
+    }
+
+    private void flushStatement() throws IOException {
+        if (rowsInStatement == 0) {
+            return;
+        }
+        if (dialect == SqlDialect.ORACLE) {
+            statement.append("\nSELECT 1 FROM DUAL");
+        }
+        statement.append(";\n");
+        if (dialect == SqlDialect.SQLSERVER) {
+            statement.append("GO\n"); // One batch per statement keeps sqlcmd from buffering the whole script
+        }
+        out.append(statement);
+        statement.setLength(0);
+        rowsInStatement = 0;
+    }
+}
+
+/**
+ * PostgreSQL COPY text format: tab-separated, \N for NULL, backslash escapes
+ */
+final class CopyScriptWriter extends ScriptWriter {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int blockRows;
+    private final String copyCommand;
+    private final StringBuilder line = new StringBuilder(256);
+    private int rowsInBlock;
+
+    CopyScriptWriter(Writer out, MigrationPlan plan, SqlDialect dialect, int blockRows) {
+        super(out, plan, dialect);
+        this.blockRows = blockRows;
+        this.copyCommand = "COPY " + dialect.quoteTable(plan.destinationTable)
+            + " (" + dialect.columnList(plan.destinationColumns) + ") FROM STDIN;\n";
+    }
+
+    @Override
+    void row(Object[] values) throws IOException {
+        if (rowsInBlock == 0) {
+            out.write(copyCommand);
+        }
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            appendField(values[i]);
+        }
+        line.append('\n');
+        out.append(line);
+        if (++rowsInBlock == blockRows) {
+            endBlock();
+        }
+    }
+
+    @Override
+    void end(long rows) throws IOException {
+        endBlock();
+        super.end(rows);
+    }
+
+    @Override
+    void abort(String reason) throws IOException {
+        endBlock(); // Back from COPY data to SQL, otherwise ROLLBACK would be read as a row
+        super.abort(reason);
+    }
+
+    private void endBlock() throws IOException {
+        if (rowsInBlock > 0) {
+            out.write("\\.\n");
+            rowsInBlock = 0;
+        }
+    }
+
+    private void appendField(Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof Boolean bool) {
+            line.append(bool ? 't' : 'f');
+        } else if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else if (value instanceof byte[] bytes) {
+            line.append("\\\\x").append(HEX.formatHex(bytes)); // bytea hex input, backslash escaped for COPY
+        } else {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+    }
+}
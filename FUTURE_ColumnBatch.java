@@ -0,0 +1,385 @@
+// FUTURE ENHANCEMENT: Columnar Row Batch for Generated Transformations
+// Typed column vectors with null masks, filled from (and written back to) the
+// Object[][] chunks of StreamingMigrationExecutor. See BatchTransformationRuntime.
+
+package com.example.dynamic_migration_engine.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PERFORMANCE: A batch of up to {@link #capacity()} rows stored column by column
+ *
+ * - {@link LongVector}: integral columns, long[] plus a null bitmap
+ * - {@link DoubleVector}: floating-point columns, double[] plus a null bitmap
+ * - {@link ObjectVector}: everything else (strings, decimals, dates); null is the null reference
+ *
+ * Vectors are allocated once and reused for every batch of a chunk, so the
+ * per-row cost of a transformation is array reads and writes only.
+ * Accessors convert a column to the requested kind when needed (e.g. a
+ * NUMERIC column read as longs), once per batch. Conversions never lose
+ * integral information: a value that does not fit (12.75 read as a long, a
+ * long above 2^53 read as a double) throws ArithmeticException, and strings
+ * that are not numbers throw NumberFormatException.
+ *
+ * Not thread-safe; each worker uses its own batches.
+ */
+public final class ColumnBatch {
+
+    public static final int DEFAULT_CAPACITY = 2048;
+
+    private final int capacity;
+    private final Map<String, Integer> positions;
+    private final ColumnVector[] vectors;
+    private int rowCount;
+
+    public ColumnBatch(List<String> columnNames, int capacity) {
+        this.capacity = capacity;
+        this.positions = new HashMap<>(columnNames.size() * 2);
+        this.vectors = new ColumnVector[columnNames.size()];
+        for (int i = 0; i < columnNames.size(); i++) {
+            positions.put(columnNames.get(i), i);
+            vectors[i] = new ObjectVector(capacity);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public boolean hasColumn(String name) {
+        return positions.containsKey(name);
+    }
+
+    public ColumnVector vector(String name) {
+        return vectors[position(name)];
+    }
+
+    public LongVector longs(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof LongVector)) {
+            LongVector converted = new LongVector(capacity);
+            copyInto(vectors[position], converted);
+            vectors[position] = converted;
+        }
+        return (LongVector) vectors[position];
+    }
+
+    public DoubleVector doubles(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof DoubleVector)) {
+            DoubleVector converted = new DoubleVector(capacity);
+            copyInto(vectors[position], converted);
+            vectors[position] = converted;
+        }
+        return (DoubleVector) vectors[position];
+    }
+
+    public ObjectVector objects(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof ObjectVector)) {
+            ObjectVector converted = new ObjectVector(capacity);
+            copyInto(vectors[position], converted);
+            vectors[position] = converted;
+        }
+        return (ObjectVector) vectors[position];
+    }
+
+    /**
+     * Vector for an output column that the caller fills row by row; previous
+     * contents are discarded and every row starts out NULL
+     */
+    public LongVector writeLongs(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof LongVector)) {
+            vectors[position] = new LongVector(capacity);
+        }
+        vectors[position].clear(rowCount);
+        return (LongVector) vectors[position];
+    }
+
+    public DoubleVector writeDoubles(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof DoubleVector)) {
+            vectors[position] = new DoubleVector(capacity);
+        }
+        vectors[position].clear(rowCount);
+        return (DoubleVector) vectors[position];
+    }
+
+    public ObjectVector writeObjects(String name) {
+        int position = position(name);
+        if (!(vectors[position] instanceof ObjectVector)) {
+            vectors[position] = new ObjectVector(capacity);
+        }
+        vectors[position].clear(rowCount);
+        return (ObjectVector) vectors[position];
+    }
+
+    /**
+     * Starts a new batch: every column null, row count set
+     */
+    void reset(int rows) {
+        if (rows > capacity) {
+            throw new IllegalArgumentException("Batch of " + rows + " rows exceeds capacity " + capacity);
+        }
+        this.rowCount = rows;
+        for (ColumnVector vector : vectors) {
+            vector.clear(rows);
+        }
+    }
+
+    /**
+     * Loads one column from row-major chunk data. The vector kind follows the
+     * values: all integral -> longs, all floating-point -> doubles, else objects.
+     */
+    void gather(String name, Object[][] rows, int offset, int rowIndex) {
+        int position = position(name);
+        boolean integral = true;
+        boolean floating = true;
+        for (int row = 0; row < rowCount; row++) {
+            Object value = rows[offset + row][rowIndex];
+            if (value != null) {
+                integral &= value instanceof Long || value instanceof Integer
+                    || value instanceof Short || value instanceof Byte;
+                floating &= value instanceof Double || value instanceof Float;
+            }
+        }
+        // An all-NULL column counts as integral
+        if (integral && !(vectors[position] instanceof LongVector)) {
+            vectors[position] = new LongVector(capacity);
+        } else if (!integral && floating && !(vectors[position] instanceof DoubleVector)) {
+            vectors[position] = new DoubleVector(capacity);
+        } else if (!integral && !floating && !(vectors[position] instanceof ObjectVector)) {
+            vectors[position] = new ObjectVector(capacity);
+        }
+        ColumnVector target = vectors[position];
+        target.clear(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            target.setBoxed(row, rows[offset + row][rowIndex]);
+        }
+    }
+
+    /**
+     * Writes one column back into row-major chunk data
+     */
+    void scatter(String name, Object[][] rows, int offset, int rowIndex) {
+        ColumnVector vector = vectors[position(name)];
+        for (int row = 0; row < rowCount; row++) {
+            rows[offset + row][rowIndex] = vector.getBoxed(row);
+        }
+    }
+
+    private void copyInto(ColumnVector from, ColumnVector to) {
+        to.clear(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            to.setBoxed(row, from.getBoxed(row));
+        }
+    }
+
+    private int position(String name) {
+        Integer position = positions.get(name);
+        if (position == null) {
+            throw new IllegalArgumentException("Column '" + name + "' is not part of this batch");
+        }
+        return position;
+    }
+
+    /**
+     * One column of a batch
+     */
+    public abstract static sealed class ColumnVector permits PrimitiveVector, ObjectVector {
+
+        public abstract boolean isNull(int row);
+
+        public abstract void setNull(int row);
+
+        /**
+         * Boxed access for adapters and the row-major boundary only
+         */
+        public abstract Object getBoxed(int row);
+
+        abstract void setBoxed(int row, Object value);
+
+        abstract void clear(int rows);
+    }
+
+    /**
+     * Primitive vectors share a null bitmap: bit set = SQL NULL
+     */
+    public abstract static sealed class PrimitiveVector extends ColumnVector permits LongVector, DoubleVector {
+        final long[] nulls;
+
+        PrimitiveVector(int capacity) {
+            this.nulls = new long[(capacity + 63) >>> 6];
+        }
+
+        @Override
+        public final boolean isNull(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        @Override
+        public final void setNull(int row) {
+            nulls[row >>> 6] |= 1L << row;
+        }
+
+        final void setNotNull(int row) {
+            nulls[row >>> 6] &= ~(1L << row);
+        }
+
+        @Override
+        final void clear(int rows) {
+            // All rows start out NULL until a value is written
+            Arrays.fill(nulls, 0, (rows + 63) >>> 6, -1L);
+        }
+    }
+
+    public static final class LongVector extends PrimitiveVector {
+        public final long[] values;
+
+        LongVector(int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        public long get(int row) {
+            return values[row];
+        }
+
+        public void set(int row, long value) {
+            values[row] = value;
+            setNotNull(row);
+        }
+
+        @Override
+        public Object getBoxed(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        void setBoxed(int row, Object value) {
+            if (value == null) {
+                setNull(row);
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                set(row, ((Number) value).longValue());
+            } else if (value instanceof Number number) {
+                set(row, exactLong(number));
+            } else {
+                set(row, Long.parseLong(value.toString().trim()));
+            }
+        }
+
+        private static long exactLong(Number number) {
+            if (number instanceof BigDecimal decimal) {
+                return decimal.longValueExact();
+            }
+            if (number instanceof BigInteger integer) {
+                return integer.longValueExact();
+            }
+            double value = number.doubleValue();
+            if (value != Math.rint(value) || value < Long.MIN_VALUE || value >= 0x1p63) {
+                throw new ArithmeticException(number + " is not a long");
+            }
+            return (long) value;
+        }
+    }
+
+    public static final class DoubleVector extends PrimitiveVector {
+        public final double[] values;
+
+        DoubleVector(int capacity) {
+            super(capacity);
+            this.values = new double[capacity];
+        }
+
+        public double get(int row) {
+            return values[row];
+        }
+
+        public void set(int row, double value) {
+            values[row] = value;
+            setNotNull(row);
+        }
+
+        @Override
+        public Object getBoxed(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        void setBoxed(int row, Object value) {
+            if (value == null) {
+                setNull(row);
+            } else if (value instanceof Long || value instanceof BigInteger) {
+                set(row, exactDouble((Number) value));
+            } else if (value instanceof Number number) {
+                set(row, number.doubleValue()); // Nearest double, as for a DOUBLE PRECISION column
+            } else {
+                set(row, Double.parseDouble(value.toString().trim()));
+            }
+        }
+
+        private static double exactDouble(Number integral) {
+            double value = integral.doubleValue();
+            if (!Double.isFinite(value) || !new BigDecimal(value).toBigInteger().equals(new BigInteger(integral.toString()))) {
+                throw new ArithmeticException(integral + " is not exactly representable as a double");
+            }
+            return value;
+        }
+    }
+
+    public static final class ObjectVector extends ColumnVector {
+        public final Object[] values;
+
+        ObjectVector(int capacity) {
+            this.values = new Object[capacity];
+        }
+
+        public Object get(int row) {
+            return values[row];
+        }
+
+        public String getString(int row) {
+            Object value = values[row];
+            return value == null ? null : value.toString();
+        }
+
+        public void set(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        public boolean isNull(int row) {
+            return values[row] == null;
+        }
+
+        @Override
+        public void setNull(int row) {
+            values[row] = null;
+        }
+
+        @Override
+        public Object getBoxed(int row) {
+            return values[row];
+        }
+
+        @Override
+        void setBoxed(int row, Object value) {
+            values[row] = value;
+        }
+
+        @Override
+        void clear(int rows) {
+            Arrays.fill(values, 0, rows, null);
+        }
+    }
+}
@@ -0,0 +1,475 @@
+// FUTURE ENHANCEMENT: In-JVM Candidate Generation for Column-Mapping Prediction
+// The Python ML service currently scores every source column against every
+// destination column. This index narrows each source column to a handful of
+// destination candidates and answers exact / near-exact name matches locally.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.model.MlMappingSuggestion;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * SCALABILITY: Cuts remote mapping prediction from n x m pairs to n x k
+ *
+ * For each source column:
+ * 1. Exact or near-exact name match with a compatible type -> MlMappingSuggestion built locally
+ * 2. Otherwise the top k destination candidates from {@link ColumnCandidateIndex}
+ *    are sent to the ML service for scoring
+ *
+ * The remote scorer receives the pruned pairs; anything it returns outside
+ * them is dropped, so an ML service that still scores all pairs gives the
+ * same result. LLMTransformationService routes its ML request through
+ * {@link #predict}, with the column lists from {@link #tableColumns}.
+ */
+@Component
+public class ColumnCandidateGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnCandidateGenerator.class);
+
+    @Value("${ml.candidates.per-source:5}")
+    private int candidatesPerSource;
+
+    @Value("${ml.candidates.local-matching:true}")
+    private boolean localMatchingEnabled; // false = every source column is scored remotely
+
+    private final MigrationConnectionProvider connectionProvider;
+
+    public ColumnCandidateGenerator(MigrationConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * Columns of the table in ordinal order, from DatabaseMetaData.getColumns
+     */
+    public List<SchemaColumn> tableColumns(DbConnectionParams params, String tableName) throws SQLException {
+        List<SchemaColumn> columns = new ArrayList<>();
+        try (Connection connection = connectionProvider.open(params);
+             ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, tableName, "%")) {
+            while (rs.next()) {
+                columns.add(new SchemaColumn(rs.getString("COLUMN_NAME"), rs.getString("TYPE_NAME")));
+            }
+        }
+        return columns;
+    }
+
+    public CandidatePlan plan(List<SchemaColumn> sourceColumns, List<SchemaColumn> destinationColumns) {
+        ColumnCandidateIndex index = ColumnCandidateIndex.build(destinationColumns);
+        List<MlMappingSuggestion> localMatches = new ArrayList<>();
+        Map<String, List<String>> remoteCandidates = new LinkedHashMap<>();
+        int remotePairs = 0;
+
+        for (SchemaColumn source : sourceColumns) {
+            if (localMatchingEnabled) {
+                MlMappingSuggestion local = index.localMatch(source);
+                if (local != null) {
+                    localMatches.add(local);
+                    continue;
+                }
+            }
+            List<String> candidates = index.candidates(source, candidatesPerSource);
+            if (!candidates.isEmpty()) {
+                remoteCandidates.put(source.name(), candidates);
+                remotePairs += candidates.size();
+            }
+        }
+
+        CandidatePlan plan = new CandidatePlan(localMatches, remoteCandidates,
+            (long) sourceColumns.size() * destinationColumns.size(), remotePairs);
+        logger.debug("Mapping candidates: {} local matches, {} of {} pairs sent for remote scoring",
+            localMatches.size(), remotePairs, plan.allPairs());
+        return plan;
+    }
+
+    /**
+     * Local matches plus remote scores for the remaining candidate pairs.
+     *
+     * @param remoteScorer Calls the ML service for the plan's remoteCandidates
+     *                     (e.g. mlIntegrationService.getMappingPredictions)
+     */
+    public List<MlMappingSuggestion> predict(List<SchemaColumn> sourceColumns,
+                                             List<SchemaColumn> destinationColumns,
+                                             Function<CandidatePlan, List<MlMappingSuggestion>> remoteScorer) {
+        CandidatePlan plan = plan(sourceColumns, destinationColumns);
+        List<MlMappingSuggestion> suggestions = new ArrayList<>(plan.localMatches());
+        if (plan.remoteCandidates().isEmpty()) {
+            return suggestions;
+        }
+        List<MlMappingSuggestion> scored = remoteScorer.apply(plan);
+        if (scored != null) {
+            for (MlMappingSuggestion suggestion : scored) {
+                List<String> candidates = plan.remoteCandidates().get(suggestion.getSourceColumnName());
+                if (candidates != null && candidates.contains(suggestion.getDestinationColumnName())) {
+                    suggestions.add(suggestion);
+                }
+            }
+        }
+        return suggestions;
+    }
+}
+
+/**
+ * Inverted index over destination column names (character trigrams and
+ * canonical tokens) and data types (type families). Immutable once built;
+ * queries allocate their own scratch space, so one index can serve
+ * concurrent /metadata requests.
+ */
+final class ColumnCandidateIndex {
+
+    static final double EXACT_MATCH_CONFIDENCE = 1.0;
+    static final double NEAR_EXACT_MATCH_CONFIDENCE = 0.95;
+
+    // Scoring weights: name trigrams dominate, tokens reward whole-word agreement, type breaks ties
+    private static final double GRAM_WEIGHT = 0.7;
+    private static final double TOKEN_WEIGHT = 0.2;
+    private static final double TYPE_WEIGHT = 0.1;
+
+    // Common abbreviations and synonyms in enterprise schemas, folded to one token
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+        Map.entry("client", "customer"), Map.entry("cust", "customer"),
+        Map.entry("tel", "phone"), Map.entry("telephone", "phone"),
+        Map.entry("mail", "email"), Map.entry("addr", "address"),
+        Map.entry("no", "number"), Map.entry("num", "number"), Map.entry("nbr", "number"),
+        Map.entry("qty", "quantity"), Map.entry("amt", "amount"),
+        Map.entry("dt", "date"), Map.entry("desc", "description"),
+        Map.entry("identifier", "id"), Map.entry("key", "id"));
+
+    private static final byte FAMILY_OTHER = 0;
+    private static final byte FAMILY_NUMERIC = 1;
+    private static final byte FAMILY_STRING = 2;
+    private static final byte FAMILY_TEMPORAL = 3;
+    private static final byte FAMILY_BOOLEAN = 4;
+
+    private final String[] names;
+    private final String[] lowerNames;
+    private final String[] keys;          // canonical tokens joined, e.g. "customer_id"
+    private final int[] gramCounts;
+    private final int[] tokenCounts;
+    private final byte[] families;
+    private final Map<String, int[]> gramPostings;
+    private final Map<String, int[]> tokenPostings;
+    private final Map<String, int[]> keyPostings;
+    private final int[][] familyPostings;
+
+    private ColumnCandidateIndex(List<SchemaColumn> columns) {
+        int n = columns.size();
+        names = new String[n];
+        lowerNames = new String[n];
+        keys = new String[n];
+        gramCounts = new int[n];
+        tokenCounts = new int[n];
+        families = new byte[n];
+
+        Map<String, IntList> grams = new HashMap<>();
+        Map<String, IntList> tokens = new HashMap<>();
+        Map<String, IntList> byKey = new HashMap<>();
+        IntList[] byFamily = new IntList[FAMILY_BOOLEAN + 1];
+        for (int f = 0; f < byFamily.length; f++) {
+            byFamily[f] = new IntList();
+        }
+
+        for (int id = 0; id < n; id++) {
+            SchemaColumn column = columns.get(id);
+            String[] columnTokens = tokenize(column.name());
+            Set<String> columnGrams = trigrams(String.join("", columnTokens));
+            names[id] = column.name();
+            lowerNames[id] = column.name() == null ? "" : column.name().toLowerCase(Locale.ROOT);
+            keys[id] = String.join("_", columnTokens);
+            gramCounts[id] = columnGrams.size();
+            families[id] = family(column.dataType());
+
+            for (String gram : columnGrams) {
+                grams.computeIfAbsent(gram, k -> new IntList()).add(id);
+            }
+            Set<String> distinctTokens = Set.of(Arrays.stream(columnTokens).distinct().toArray(String[]::new));
+            tokenCounts[id] = distinctTokens.size();
+            for (String token : distinctTokens) {
+                tokens.computeIfAbsent(token, k -> new IntList()).add(id);
+            }
+            byKey.computeIfAbsent(keys[id], k -> new IntList()).add(id);
+            byFamily[families[id]].add(id);
+        }
+
+        gramPostings = freeze(grams);
+        tokenPostings = freeze(tokens);
+        keyPostings = freeze(byKey);
+        familyPostings = new int[byFamily.length][];
+        for (int f = 0; f < byFamily.length; f++) {
+            familyPostings[f] = byFamily[f].toArray();
+        }
+    }
+
+    static ColumnCandidateIndex build(List<SchemaColumn> destinationColumns) {
+        return new ColumnCandidateIndex(destinationColumns);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Exact (case-insensitive) or near-exact (same canonical tokens, e.g.
+     * "CustomerID" / "customer_id" / "client_id") match with a compatible type,
+     * or null. Exact matches win over near-exact ones; first destination wins ties.
+     */
+    MlMappingSuggestion localMatch(SchemaColumn source) {
+        int[] sameKey = keyPostings.get(String.join("_", tokenize(source.name())));
+        if (sameKey == null) {
+            return null;
+        }
+        String lowerName = source.name() == null ? "" : source.name().toLowerCase(Locale.ROOT);
+        byte sourceFamily = family(source.dataType());
+        int best = -1;
+        for (int id : sameKey) {
+            if (!compatible(sourceFamily, families[id])) {
+                continue;
+            }
+            if (lowerNames[id].equals(lowerName)) {
+                best = id;
+                break;
+            }
+            if (best < 0) {
+                best = id;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        boolean exact = lowerNames[best].equals(lowerName);
+        return new MlMappingSuggestion(
+            source.name(),
+            names[best],
+            exact ? EXACT_MATCH_CONFIDENCE : NEAR_EXACT_MATCH_CONFIDENCE,
+            sourceFamily == families[best] ? "DIRECT" : "TYPE_CONVERSION",
+            exact ? "Exact column name match (local)" : "Column names match after normalization (local)");
+    }
+
+    /**
+     * Best k destination names for a source column, best first. Columns with no
+     * lexical overlap are topped up with type-compatible destinations so the ML
+     * model still sees semantic candidates (e.g. "dob" -> "date_of_birth").
+     */
+    List<String> candidates(SchemaColumn source, int k) {
+        int n = names.length;
+        if (n == 0 || k <= 0) {
+            return List.of();
+        }
+        String[] sourceTokens = tokenize(source.name());
+        Set<String> sourceGrams = trigrams(String.join("", sourceTokens));
+        Set<String> distinctTokens = Set.of(Arrays.stream(sourceTokens).distinct().toArray(String[]::new));
+        byte sourceFamily = family(source.dataType());
+
+        int[] sharedGrams = new int[n];
+        int[] sharedTokens = new int[n];
+        IntList touched = new IntList();
+        for (String gram : sourceGrams) {
+            int[] postings = gramPostings.get(gram);
+            if (postings != null) {
+                for (int id : postings) {
+                    if (sharedGrams[id]++ == 0 && sharedTokens[id] == 0) {
+                        touched.add(id);
+                    }
+                }
+            }
+        }
+        for (String token : distinctTokens) {
+            int[] postings = tokenPostings.get(token);
+            if (postings != null) {
+                for (int id : postings) {
+                    if (sharedTokens[id]++ == 0 && sharedGrams[id] == 0) {
+                        touched.add(id);
+                    }
+                }
+            }
+        }
+
+        // Bounded insertion top-k over touched destinations only
+        int[] top = new int[k];
+        double[] topScores = new double[k];
+        int count = 0;
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.values[i];
+            double dice = 2.0 * sharedGrams[id] / Math.max(1, sourceGrams.size() + gramCounts[id]);
+            double tokenOverlap = (double) sharedTokens[id] / Math.max(1, Math.max(distinctTokens.size(), tokenCounts[id]));
+            double score = GRAM_WEIGHT * dice + TOKEN_WEIGHT * tokenOverlap + TYPE_WEIGHT * typeScore(sourceFamily, families[id]);
+            count = insert(top, topScores, count, id, score);
+        }
+
+        List<String> result = new ArrayList<>(k);
+        for (int i = 0; i < count; i++) {
+            result.add(names[top[i]]);
+        }
+        if (count < k) {
+            topUpByType(result, sourceFamily, k, sharedGrams, sharedTokens);
+        }
+        return result;
+    }
+
+    private void topUpByType(List<String> result, byte sourceFamily, int k, int[] sharedGrams, int[] sharedTokens) {
+        byte[] order = sourceFamily == FAMILY_STRING || sourceFamily == FAMILY_OTHER
+            ? new byte[] {sourceFamily}
+            : new byte[] {sourceFamily, FAMILY_STRING};
+        for (byte family : order) {
+            for (int id : familyPostings[family]) {
+                if (result.size() >= k) {
+                    return;
+                }
+                if (sharedGrams[id] == 0 && sharedTokens[id] == 0) {
+                    result.add(names[id]);
+                }
+            }
+        }
+    }
+
+    private static int insert(int[] top, double[] scores, int count, int id, double score) {
+        int position = count;
+        while (position > 0 && score > scores[position - 1]) {
+            position--;
+        }
+        if (position >= top.length) {
+            return count;
+        }
+        int last = Math.min(count, top.length - 1);
+        System.arraycopy(top, position, top, position + 1, last - position);
+        System.arraycopy(scores, position, scores, position + 1, last - position);
+        top[position] = id;
+        scores[position] = score;
+        return Math.min(count + 1, top.length);
+    }
+
+    /**
+     * "CustomerID" -> [customer, id], "client_no" -> [customer, number]
+     */
+    static String[] tokenize(String columnName) {
+        if (columnName == null || columnName.isEmpty()) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < columnName.length(); i++) {
+            char c = columnName.charAt(i);
+            boolean boundary = !Character.isLetterOrDigit(c)
+                || i > 0 && Character.isUpperCase(c) && Character.isLowerCase(columnName.charAt(i - 1))
+                || i > 0 && Character.isDigit(c) != Character.isDigit(columnName.charAt(i - 1));
+            if (boundary && current.length() > 0) {
+                addToken(tokens, current.toString());
+                current.setLength(0);
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            }
+        }
+        if (current.length() > 0) {
+            addToken(tokens, current.toString());
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        tokens.add(SYNONYMS.getOrDefault(token, token));
+    }
+
+    private static Set<String> trigrams(String key) {
+        if (key.isEmpty()) {
+            return Set.of();
+        }
+        String padded = "^" + key + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        if (padded.length() < 3) {
+            grams.add(padded);
+        }
+        return grams;
+    }
+
+    static byte family(String dataType) {
+        if (dataType == null) {
+            return FAMILY_OTHER;
+        }
+        String type = dataType.toUpperCase(Locale.ROOT);
+        if (type.contains("BOOL") || type.equals("BIT")) {
+            return FAMILY_BOOLEAN;
+        }
+        if (type.contains("INT") || type.contains("NUM") || type.contains("DEC") || type.contains("FLOAT")
+                || type.contains("DOUBLE") || type.contains("REAL") || type.contains("MONEY") || type.equals("SERIAL")) {
+            return FAMILY_NUMERIC;
+        }
+        if (type.contains("CHAR") || type.contains("TEXT") || type.contains("CLOB") || type.contains("STRING")) {
+            return FAMILY_STRING;
+        }
+        if (type.contains("DATE") || type.contains("TIME")) {
+            return FAMILY_TEMPORAL;
+        }
+        return FAMILY_OTHER;
+    }
+
+    private static boolean compatible(byte source, byte destination) {
+        return source == destination || source == FAMILY_OTHER || destination == FAMILY_OTHER
+            || destination == FAMILY_STRING;
+    }
+
+    private static double typeScore(byte source, byte destination) {
+        if (source == destination) {
+            return 1.0;
+        }
+        return compatible(source, destination) ? 0.5 : 0.0;
+    }
+
+    private static Map<String, int[]> freeze(Map<String, IntList> lists) {
+        Map<String, int[]> frozen = new HashMap<>(lists.size() * 2);
+        lists.forEach((key, list) -> frozen.put(key, list.toArray()));
+        return frozen;
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
+
+/**
+ * Column name and database data type as reported by /metadata
+ */
+record SchemaColumn(String name, String dataType) {
+}
+
+/**
+ * Outcome of candidate generation for one source/destination table pair
+ *
+ * @param remoteCandidates source column name -> destination column names to score remotely
+ */
+record CandidatePlan(List<MlMappingSuggestion> localMatches,
+                     Map<String, List<String>> remoteCandidates,
+                     long allPairs,
+                     int remotePairs) {
+}
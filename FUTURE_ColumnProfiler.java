@@ -0,0 +1,911 @@
+// FUTURE ENHANCEMENT: Single-Pass Column Profiling of the Source Table
+// Replaces the raw sample values in the LLM prompt and the ML request with a
+// compact profile of every source column.
+
+package com.example.dynamic_migration_engine.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.util.CryptoUtil;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PERFORMANCE: Profiles every column of a table in one streaming scan with fixed memory
+ *
+ * The table is read once through a forward-only cursor. With
+ * profiling.sample-percent between 0 and 100 the database samples it
+ * (TABLESAMPLE / SAMPLE BLOCK; MySQL filters with RAND(), which still scans).
+ * At most profiling.max-rows rows are read, so a 100M-row table costs the
+ * same as a table with max-rows rows. Truncated profiles say so.
+ *
+ * Rows are buffered in column-major chunks of about profiling.chunk-cells
+ * values. While the next chunk is fetched, the previous one is folded into the
+ * column accumulators on profiling.parallelism threads; each thread owns a
+ * fixed subset of the columns, so accumulators need no locking.
+ *
+ * Per column, memory does not grow with the row count:
+ * - distinct count: HyperLogLog, 4096 one-byte registers (~1.6% standard error)
+ * - nulls, min/max, string lengths in power-of-two buckets
+ * - patterns of string values: date/time formats, email, phone, numbers, UUID, ...
+ * - top-k values: Misra-Gries with 8 * profiling.top-k counters; counts are lower bounds
+ *
+ * Profiles are cached per database login and table for
+ * profiling.cache.ttl-seconds, and concurrent requests for the same table
+ * share one scan. {@link #profileAsync} runs the scan on its own
+ * profiling.scan-threads threads, so a migration can start extracting while
+ * the profile is still being built.
+ */
+@Service
+public class ColumnProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnProfiler.class);
+
+    static final int DEFAULT_TOP_K = 10;
+    private static final int PROMPT_TOP_VALUES = 5;
+    private static final int PROMPT_PATTERNS = 4;
+
+    private final MigrationConnectionProvider connectionProvider;
+    private final double samplePercent; // 0 or >= 100 = every row
+    private final long maxRows;
+    private final int fetchSize;
+    private final int chunkCells;
+    private final int parallelism;
+    private final int topK;
+    private final int queryTimeoutSeconds;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ThreadPoolExecutor accumulatorExecutor;
+    private final ThreadPoolExecutor scanExecutor;
+    private final Map<ProfileKey, CompletableFuture<CachedProfile>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ColumnProfiler(MigrationConnectionProvider connectionProvider,
+                          @Value("${profiling.sample-percent:0}") double samplePercent,
+                          @Value("${profiling.max-rows:2000000}") long maxRows,
+                          @Value("${profiling.fetch-size:5000}") int fetchSize,
+                          @Value("${profiling.chunk-cells:262144}") int chunkCells,
+                          @Value("${profiling.parallelism:4}") int parallelism,
+                          @Value("${profiling.top-k:10}") int topK,
+                          @Value("${profiling.query-timeout-seconds:300}") int queryTimeoutSeconds,
+                          @Value("${profiling.cache.ttl-seconds:3600}") long ttlSeconds,
+                          @Value("${profiling.cache.max-entries:32}") int maxEntries,
+                          @Value("${profiling.scan-threads:2}") int scanThreads) {
+        this.connectionProvider = connectionProvider;
+        this.samplePercent = samplePercent;
+        this.maxRows = maxRows;
+        this.fetchSize = fetchSize;
+        this.chunkCells = Math.max(1024, chunkCells);
+        this.parallelism = Math.max(1, parallelism);
+        this.topK = topK;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        // Bounded queue; when it is full the scanning thread folds the chunk itself
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.accumulatorExecutor = new ThreadPoolExecutor(
+            this.parallelism, this.parallelism, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256),
+            runnable -> {
+                Thread thread = new Thread(runnable, "column-profiler-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.accumulatorExecutor.allowCoreThreadTimeOut(true);
+        // Bounded queue; when it is full profileAsync fails and the caller keeps raw samples
+        AtomicInteger scanThreadNumber = new AtomicInteger();
+        this.scanExecutor = new ThreadPoolExecutor(
+            Math.max(1, scanThreads), Math.max(1, scanThreads), 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(16),
+            runnable -> {
+                Thread thread = new Thread(runnable, "column-profiler-scan-" + scanThreadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.scanExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Cached profile of the table, or one scan to build it
+     */
+    public TableProfile profile(DbConnectionParams params, String tableName) throws SQLException {
+        if (ttlMillis <= 0) {
+            return scan(params, tableName);
+        }
+        ProfileKey key = new ProfileKey(ConnectionKey.of(params, CryptoUtil.decrypt(params.getPassword())), tableName);
+
+        while (true) {
+            CompletableFuture<CachedProfile> created = new CompletableFuture<>();
+            CompletableFuture<CachedProfile> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                misses.incrementAndGet();
+                return load(key, created, params, tableName);
+            }
+            CachedProfile cached;
+            try {
+                cached = existing.join(); // Waits for a scan already in flight
+            } catch (CompletionException e) {
+                entries.remove(key, existing);
+                continue; // The other request's scan failed; this one tries its own
+            }
+            if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return cached.profile();
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Same as {@link #profile}, without blocking the caller: a fresh cached
+     * profile completes immediately, anything else scans on a profiler thread
+     */
+    public CompletableFuture<TableProfile> profileAsync(DbConnectionParams params, String tableName) {
+        if (ttlMillis > 0) {
+            CompletableFuture<CachedProfile> existing = entries.get(
+                new ProfileKey(ConnectionKey.of(params, CryptoUtil.decrypt(params.getPassword())), tableName));
+            if (existing != null && existing.isDone() && !existing.isCompletedExceptionally()
+                    && existing.join().expiresAtMillis() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return CompletableFuture.completedFuture(existing.join().profile());
+            }
+        }
+        CompletableFuture<TableProfile> result = new CompletableFuture<>();
+        try {
+            scanExecutor.execute(() -> {
+                try {
+                    result.complete(profile(params, tableName));
+                } catch (SQLException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Drops cached profiles of tables in this database, e.g. after DDL or a bulk load into the source
+     */
+    public int invalidate(String databaseName) {
+        int removed = 0;
+        for (ProfileKey key : entries.keySet()) {
+            if (key.connection().databaseName().equals(databaseName) && entries.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * MONITORING: Profile cache hits and misses
+     */
+    public ProfileCacheStats getStats() {
+        return new ProfileCacheStats(hits.get(), misses.get(), entries.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accumulatorExecutor.shutdown();
+        scanExecutor.shutdownNow();
+    }
+
+    /**
+     * Prompt text for one column of TransformationContext.getSampleData():
+     * a ColumnProfile as is, a collection of raw sample values profiled in
+     * memory, anything else as its string form
+     */
+    public static String promptText(String column, Object samples) {
+        if (samples instanceof ColumnProfile profile) {
+            return profile.toPromptText();
+        }
+        if (samples instanceof Collection<?> values) {
+            ColumnAccumulator accumulator = new ColumnAccumulator(column, null, DEFAULT_TOP_K);
+            values.forEach(accumulator::add);
+            return accumulator.finish().toPromptText();
+        }
+        return String.valueOf(samples);
+    }
+
+    private TableProfile load(ProfileKey key, CompletableFuture<CachedProfile> future,
+                              DbConnectionParams params, String tableName) throws SQLException {
+        TableProfile profile;
+        try {
+            profile = scan(params, tableName);
+        } catch (SQLException | RuntimeException e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(new CachedProfile(profile, System.currentTimeMillis() + ttlMillis));
+        evictOverflow();
+        return profile;
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            // Oldest completed entry first; scans still in flight are never evicted
+            ProfileKey oldest = entries.entrySet().stream()
+                .filter(entry -> entry.getValue().isDone() && !entry.getValue().isCompletedExceptionally())
+                .min(Comparator.comparingLong(entry -> entry.getValue().join().expiresAtMillis()))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    private TableProfile scan(DbConnectionParams params, String tableName) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.open(params)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false); // PostgreSQL only uses a cursor inside a transaction
+            try (Statement statement = connection.createStatement(
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize("MySQL".equals(params.getDatabaseType()) ? Integer.MIN_VALUE : fetchSize);
+                if (maxRows > 0 && maxRows < Integer.MAX_VALUE) {
+                    statement.setMaxRows((int) maxRows + 1); // One extra row tells "exactly max-rows" from "truncated"
+                }
+                statement.setQueryTimeout(queryTimeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(
+                        selectSql(connection, params.getDatabaseType(), tableName))) {
+                    TableProfile profile = profileRows(tableName, resultSet, start);
+                    logger.info("Profiled {} columns of {} over {} rows in {} ms{}",
+                        profile.columns().size(), tableName, profile.rowsScanned(), profile.durationMillis(),
+                        profile.truncated() ? " (row limit reached)" : "");
+                    return profile;
+                }
+            } finally {
+                endReadTransaction(connection, autoCommit);
+            }
+        }
+    }
+
+    private String selectSql(Connection connection, String databaseType, String tableName) throws SQLException {
+        String select = "SELECT * FROM " + MigrationPlan.qualifiedTableName(connection, tableName);
+        if (!isSampled()) {
+            return select;
+        }
+        String percent = BigDecimal.valueOf(samplePercent).stripTrailingZeros().toPlainString();
+        return switch (databaseType) {
+            case "PostgreSQL" -> select + " TABLESAMPLE SYSTEM (" + percent + ")";
+            case "SQLServer" -> select + " TABLESAMPLE (" + percent + " PERCENT)";
+            case "Oracle" -> select + " SAMPLE BLOCK (" + percent + ")";
+            default -> select + " WHERE RAND() < " + samplePercent / 100; // MySQL has no TABLESAMPLE
+        };
+    }
+
+    private boolean isSampled() {
+        return samplePercent > 0 && samplePercent < 100;
+    }
+
+    private TableProfile profileRows(String tableName, ResultSet resultSet, long startNanos) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        ColumnAccumulator[] accumulators = new ColumnAccumulator[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            accumulators[c] = new ColumnAccumulator(metaData.getColumnLabel(c + 1), metaData.getColumnTypeName(c + 1), topK);
+        }
+        int chunkRows = Math.max(64, chunkCells / Math.max(1, columnCount));
+        int groups = Math.max(1, Math.min(parallelism, columnCount));
+
+        // Two chunks: one being fetched, one being folded in
+        Object[][][] buffers = new Object[2][columnCount][chunkRows];
+        CompletableFuture<?>[] bufferReleased = {CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null)};
+        CompletableFuture<?>[] groupTails = new CompletableFuture<?>[groups];
+        for (int g = 0; g < groups; g++) {
+            groupTails[g] = CompletableFuture.completedFuture(null);
+        }
+
+        long rows = 0;
+        int current = 0;
+        boolean truncated;
+        try {
+            while (true) {
+                bufferReleased[current].join();
+                Object[][] chunk = buffers[current];
+                int filled = 0;
+                while (filled < chunkRows && (maxRows <= 0 || rows < maxRows) && resultSet.next()) {
+                    for (int c = 0; c < columnCount; c++) {
+                        chunk[c][filled] = resultSet.getObject(c + 1);
+                    }
+                    filled++;
+                    rows++;
+                }
+                if (filled > 0) {
+                    int size = filled;
+                    CompletableFuture<?>[] folds = new CompletableFuture<?>[groups];
+                    for (int g = 0; g < groups; g++) {
+                        int group = g;
+                        // Chained per group, so each accumulator sees its chunks one at a time and in order
+                        groupTails[g] = groupTails[g].thenRunAsync(() -> {
+                            for (int c = group; c < columnCount; c += groups) {
+                                accumulators[c].addAll(chunk[c], size);
+                            }
+                        }, accumulatorExecutor);
+                        folds[g] = groupTails[g];
+                    }
+                    bufferReleased[current] = CompletableFuture.allOf(folds);
+                    current ^= 1;
+                }
+                if (filled < chunkRows) {
+                    break;
+                }
+            }
+            truncated = maxRows > 0 && rows >= maxRows && resultSet.next();
+            CompletableFuture.allOf(groupTails).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Profiling " + tableName + " failed", e.getCause());
+        }
+
+        Map<String, ColumnProfile> columns = new LinkedHashMap<>();
+        for (ColumnAccumulator accumulator : accumulators) {
+            columns.put(accumulator.column, accumulator.finish());
+        }
+        return new TableProfile(tableName, rows, isSampled() ? samplePercent : 100.0, truncated,
+            (System.nanoTime() - startNanos) / 1_000_000, LocalDateTime.now(), columns);
+    }
+
+    private static void endReadTransaction(Connection connection, boolean autoCommit) {
+        try {
+            connection.rollback(); // Nothing was written; ends the cursor's transaction
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            logger.debug("Failed to end profiling transaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Profile of one table; columns in result set order
+     *
+     * @param samplePercent 100 unless the database sampled the table
+     * @param truncated true if profiling.max-rows stopped the scan early
+     */
+    public record TableProfile(String tableName,
+                               long rowsScanned,
+                               double samplePercent,
+                               boolean truncated,
+                               long durationMillis,
+                               LocalDateTime profiledAt,
+                               Map<String, ColumnProfile> columns) {
+    }
+
+    /**
+     * Compact summary of one column, sent to the ML service and rendered into the LLM prompt
+     *
+     * @param distinct HyperLogLog estimate
+     * @param minLength -1 if the column has no string or binary values
+     * @param patterns pattern of the string values -> count, most frequent first
+     * @param topValues most frequent values; counts are lower bounds
+     */
+    public record ColumnProfile(String column,
+                                String typeName,
+                                long rows,
+                                long nulls,
+                                long distinct,
+                                String min,
+                                String max,
+                                int minLength,
+                                int maxLength,
+                                double avgLength,
+                                Map<String, Long> lengthHistogram,
+                                Map<String, Long> patterns,
+                                List<ValueCount> topValues) {
+
+        public double nullRatio() {
+            return rows == 0 ? 0.0 : (double) nulls / rows;
+        }
+
+        /**
+         * One line, e.g. "VARCHAR, 1,000,000 rows, 2.1% null, ~982,113 distinct; length 8-64 (avg 21.3);
+         * patterns EMAIL 97.8%, OTHER 2.2%; range 'aaron@a.com' .. 'zoe@z.org'"
+         */
+        public String toPromptText() {
+            StringBuilder text = new StringBuilder();
+            if (typeName != null) {
+                text.append(typeName).append(", ");
+            }
+            if (rows == 0) {
+                return text.append("no rows").toString();
+            }
+            long nonNull = rows - nulls;
+            text.append(String.format("%,d rows, %.1f%% null, ~%,d distinct", rows, 100.0 * nullRatio(), distinct));
+            if (minLength >= 0) {
+                text.append(String.format("; length %d-%d (avg %.1f)", minLength, maxLength, avgLength));
+            }
+            if (!patterns.isEmpty()) {
+                text.append("; patterns ");
+                appendShares(text, patterns.entrySet().stream().limit(PROMPT_PATTERNS).toList(), nonNull, false);
+            }
+            if (min != null) {
+                text.append("; range '").append(min).append("' .. '").append(max).append('\'');
+            }
+            // Frequent values only say something if values repeat; for keys they are noise
+            List<Map.Entry<String, Long>> frequent = topValues.stream()
+                .filter(value -> value.count() > 1)
+                .limit(PROMPT_TOP_VALUES)
+                .map(value -> Map.entry(value.value(), value.count()))
+                .toList();
+            if (!frequent.isEmpty() && distinct < nonNull / 2) {
+                text.append("; top ");
+                appendShares(text, frequent, nonNull, true);
+            }
+            return text.toString();
+        }
+
+        private static void appendShares(StringBuilder text, List<Map.Entry<String, Long>> shares,
+                                         long total, boolean quoted) {
+            for (int i = 0; i < shares.size(); i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                Map.Entry<String, Long> share = shares.get(i);
+                text.append(quoted ? "'" + share.getKey() + "'" : share.getKey())
+                    .append(String.format(" %.1f%%", 100.0 * share.getValue() / Math.max(1, total)));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return toPromptText(); // PromptSharder sizes sample data by its string form
+        }
+    }
+
+    public record ValueCount(String value, long count) {
+    }
+
+    public record ProfileCacheStats(long hits, long misses, int entries) {
+    }
+}
+
+/**
+ * Table of one database login
+ */
+record ProfileKey(ConnectionKey connection, String tableName) {
+}
+
+record CachedProfile(ColumnProfiler.TableProfile profile, long expiresAtMillis) {
+}
+
+/**
+ * Fixed-size state of one column. Not thread-safe; ColumnProfiler gives
+ * every accumulator to one thread at a time.
+ */
+final class ColumnAccumulator {
+
+    private static final int MAX_VALUE_CHARS = 64; // Longer values are cut for min/max and top-k
+    private static final String[] LENGTH_BUCKETS = {
+        "0", "1", "2-3", "4-7", "8-15", "16-31", "32-63", "64-127", "128-255", "256+"};
+
+    final String column;
+    private final String typeName;
+    private final int topK;
+    private final HyperLogLog distinct = new HyperLogLog();
+    private final FrequentValues frequentValues;
+    private final long[] lengthBuckets = new long[LENGTH_BUCKETS.length];
+    private final Map<String, long[]> patterns = new HashMap<>(); // Bounded: ValuePattern returns a fixed set of labels
+    private long rows;
+    private long nulls;
+    private Object min;
+    private Object max;
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength = -1;
+    private long totalLength;
+    private long measured;
+
+    ColumnAccumulator(String column, String typeName, int topK) {
+        this.column = column;
+        this.typeName = typeName;
+        this.topK = topK;
+        this.frequentValues = new FrequentValues(Math.max(64, topK * 8));
+    }
+
+    void addAll(Object[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            add(values[i]);
+            values[i] = null; // The chunk buffer is reused; do not keep the value reachable
+        }
+    }
+
+    void add(Object value) {
+        rows++;
+        if (value == null) {
+            nulls++;
+            return;
+        }
+        if (value instanceof byte[] bytes) {
+            distinct.add(HyperLogLog.hash(bytes));
+            recordLength(bytes.length);
+            return;
+        }
+        if (value instanceof Blob || value instanceof Clob) {
+            return; // Reading LOBs would defeat the bounded scan; they count as non-null only
+        }
+        String text = value instanceof String string ? string : value.toString();
+        distinct.add(HyperLogLog.hash(text));
+        updateRange(value);
+        if (value instanceof CharSequence) {
+            recordLength(text.length());
+            patterns.computeIfAbsent(ValuePattern.classify(text), pattern -> new long[1])[0]++;
+        }
+        frequentValues.add(text.length() > MAX_VALUE_CHARS ? text.substring(0, MAX_VALUE_CHARS) : text);
+    }
+
+    ColumnProfiler.ColumnProfile finish() {
+        long nonNull = rows - nulls;
+        Map<String, Long> lengthHistogram = new LinkedHashMap<>();
+        for (int b = 0; b < lengthBuckets.length; b++) {
+            if (lengthBuckets[b] > 0) {
+                lengthHistogram.put(LENGTH_BUCKETS[b], lengthBuckets[b]);
+            }
+        }
+        Map<String, Long> patternHistogram = new LinkedHashMap<>();
+        patterns.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+            .forEach(entry -> patternHistogram.put(entry.getKey(), entry.getValue()[0]));
+        return new ColumnProfiler.ColumnProfile(
+            column, typeName, rows, nulls,
+            Math.min(distinct.estimate(), nonNull),
+            min == null ? null : display(min),
+            max == null ? null : display(max),
+            measured == 0 ? -1 : minLength,
+            measured == 0 ? -1 : maxLength,
+            measured == 0 ? 0.0 : (double) totalLength / measured,
+            lengthHistogram, patternHistogram,
+            frequentValues.top(topK));
+    }
+
+    private void recordLength(int length) {
+        measured++;
+        totalLength += length;
+        minLength = Math.min(minLength, length);
+        maxLength = Math.max(maxLength, length);
+        lengthBuckets[Math.min(LENGTH_BUCKETS.length - 1, 32 - Integer.numberOfLeadingZeros(length))]++;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void updateRange(Object value) {
+        if (!(value instanceof Comparable comparable)) {
+            return;
+        }
+        if (min == null) {
+            min = value;
+            max = value;
+        } else if (min.getClass() == value.getClass()) {
+            if (comparable.compareTo(min) < 0) {
+                min = value;
+            } else if (comparable.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+    }
+
+    private static String display(Object value) {
+        String text = value.toString();
+        return text.length() > MAX_VALUE_CHARS ? text.substring(0, MAX_VALUE_CHARS) + "..." : text;
+    }
+}
+
+/**
+ * HyperLogLog with 2^12 registers over 64-bit hashes; no large-range
+ * correction is needed at 64 bits
+ */
+final class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    void add(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The guard bit caps the rank at 64 - PRECISION + 1
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros); // Linear counting for small sets
+        }
+        return Math.round(estimate);
+    }
+
+    static long hash(CharSequence text) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a, then a 64-bit finalizer to spread the bits
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
+
+/**
+ * Misra-Gries frequent items: at most {@code capacity} counters. When a new
+ * value arrives at a full table every counter is decremented and empty ones
+ * removed, which is O(capacity) but at most once per {@code capacity} values
+ * on average.
+ */
+final class FrequentValues {
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+
+    FrequentValues(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void add(String value) {
+        long[] counter = counters.get(value);
+        if (counter != null) {
+            counter[0]++;
+        } else if (counters.size() < capacity) {
+            counters.put(value, new long[] {1});
+        } else {
+            counters.values().removeIf(count -> --count[0] == 0);
+        }
+    }
+
+    List<ColumnProfiler.ValueCount> top(int k) {
+        List<ColumnProfiler.ValueCount> top = new ArrayList<>(counters.size());
+        counters.forEach((value, count) -> top.add(new ColumnProfiler.ValueCount(value, count[0])));
+        top.sort(Comparator.comparingLong(ColumnProfiler.ValueCount::count).reversed()
+            .thenComparing(ColumnProfiler.ValueCount::value));
+        return top.size() > k ? new ArrayList<>(top.subList(0, k)) : top;
+    }
+}
+
+/**
+ * Classifies string values into a small, fixed set of labels. Dates and
+ * times are labelled with their format ("yyyy-MM-dd", "dd.MM.yyyy",
+ * "MM/dd/yyyy HH:mm", ...); day/month order that the value does not decide
+ * is labelled "nn/nn/yyyy". Cheap character checks run first, so the regular
+ * expressions only see values that look like dates or times.
+ */
+final class ValuePattern {
+
+    private static final Pattern DATE = Pattern.compile("(\\d{1,4})([-/.])(\\d{1,2})\\2(\\d{1,4})");
+    private static final Pattern TIME = Pattern.compile(
+        "(\\d{1,2}):(\\d{2})(:\\d{2})?(\\.\\d{1,9})?( ?[AaPp][Mm])?(Z|[+-]\\d{2}:?\\d{2})?");
+
+    private ValuePattern() {
+    }
+
+    static String classify(String raw) {
+        String value = raw.strip();
+        int length = value.length();
+        if (length == 0) {
+            return "EMPTY";
+        }
+        int digits = 0;
+        int letters = 0;
+        int spaces = 0;
+        int ats = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (Character.isLetter(c)) {
+                letters++;
+            } else if (c == ' ') {
+                spaces++;
+            } else if (c == '@') {
+                ats++;
+            }
+        }
+        if (ats == 1 && spaces == 0) {
+            return isEmail(value) ? "EMAIL" : "OTHER";
+        }
+        if (length == 36 && isUuid(value)) {
+            return "UUID";
+        }
+        boolean signed = value.charAt(0) == '-' || value.charAt(0) == '+';
+        if (letters == 0 && digits == length - (signed ? 1 : 0) && digits > 0) {
+            return "INTEGER";
+        }
+        if (digits > 0 && Character.isDigit(value.charAt(0)) && length <= 40) {
+            String temporal = temporalFormat(value);
+            if (temporal != null) {
+                return temporal;
+            }
+        }
+        if (letters == 0) {
+            if (isDecimal(value)) {
+                return "DECIMAL";
+            }
+            if (isPhone(value, digits)) {
+                return "PHONE";
+            }
+            return "OTHER";
+        }
+        if (isBoolean(value)) {
+            return "BOOLEAN";
+        }
+        if (digits == 0) {
+            return "TEXT";
+        }
+        return letters + digits + spaces == length ? "ALPHANUMERIC" : "OTHER";
+    }
+
+    private static String temporalFormat(String value) {
+        int split = value.indexOf('T') > 0 ? value.indexOf('T') : value.indexOf(' ');
+        String datePart = split > 0 ? value.substring(0, split) : value;
+        String timePart = split > 0 ? value.substring(split + 1) : null;
+
+        Matcher date = DATE.matcher(datePart);
+        if (!date.matches()) {
+            return timeFormat(value); // "10:30", "10:30 PM"
+        }
+        String dateFormat = dateFormat(date);
+        if (dateFormat == null || timePart == null) {
+            return dateFormat;
+        }
+        String timeFormat = timeFormat(timePart);
+        return timeFormat == null ? null
+            : dateFormat + (value.charAt(split) == 'T' ? "'T'" : " ") + timeFormat;
+    }
+
+    private static String dateFormat(Matcher date) {
+        String first = date.group(1);
+        String separator = date.group(2);
+        String second = date.group(3);
+        String third = date.group(4);
+        if (first.length() == 4 && third.length() <= 2) {
+            return "yyyy" + separator + "MM" + separator + "dd";
+        }
+        if (first.length() > 2 || (third.length() != 4 && third.length() != 2)) {
+            return null;
+        }
+        String year = third.length() == 4 ? "yyyy" : "yy";
+        int a = Integer.parseInt(first);
+        int b = Integer.parseInt(second);
+        if (a > 12 || (".".equals(separator) && b <= 12)) {
+            return "dd" + separator + "MM" + separator + year; // Dotted dates are day-first in practice
+        }
+        if (b > 12) {
+            return "MM" + separator + "dd" + separator + year;
+        }
+        return "nn" + separator + "nn" + separator + year;
+    }
+
+    private static String timeFormat(String value) {
+        Matcher time = TIME.matcher(value);
+        if (!time.matches()) {
+            return null;
+        }
+        boolean twelveHour = time.group(5) != null;
+        return (twelveHour ? "hh:mm" : "HH:mm")
+            + (time.group(3) != null ? ":ss" : "")
+            + (time.group(4) != null ? ".SSS" : "")
+            + (twelveHour ? " a" : "")
+            + (time.group(6) != null ? "XXX" : "");
+    }
+
+    private static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        int dot = value.lastIndexOf('.');
+        return at > 0 && dot > at + 1 && dot < value.length() - 1;
+    }
+
+    private static boolean isUuid(String value) {
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDecimal(String value) {
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        int separators = 0;
+        int digits = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == ',') {
+                separators++;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else {
+                return false;
+            }
+        }
+        return separators == 1 && digits > 0;
+    }
+
+    private static boolean isPhone(String value, int digits) {
+        if (digits < 7 || digits > 15) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && c != ' ' && c != '-' && c != '.' && c != '(' && c != ')'
+                    && !(c == '+' && i == 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "false", "yes", "no", "y", "n", "t", "f" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+// FUTURE ENHANCEMENT: Connection Lookup for Endpoints Addressed by Database Name
+// /execute-sql only receives a database name; its credentials come from the
+// profiles saved through /api/db-profiles.
+
+package com.example.dynamic_migration_engine.service;
+
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+
+import java.util.Optional;
+
+/**
+ * Resolves the stored connection profile of a database, implemented by the
+ * H2-backed profile store. The password is returned encrypted, like in the
+ * DbConnectionParams the UI sends, so callers treat both the same way.
+ */
+public interface ConnectionProfileResolver {
+
+    Optional<DbConnectionParams> resolve(String databaseName);
+}
@@ -0,0 +1,428 @@
+// FUTURE ENHANCEMENT: Preloaded Destination Key Set for Conflict Detection
+// Loaded once per migration by StreamingMigrationExecutor so that most
+// incoming rows are classified as insert / key conflict without a query.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PERFORMANCE: Destination primary keys in compact in-memory structures
+ *
+ * The keys are read in one streaming pass (server-side cursor, bounded fetch
+ * size) before the first chunk is written:
+ * - Integral keys go into an open-addressing long hash set: membership is
+ *   exact, so a row is either a certain insert or a certain conflict.
+ * - Keys the destination compares exactly like their Java values (binary,
+ *   UUID, decimals, and VARCHAR on PostgreSQL and Oracle) go into a Bloom
+ *   filter (1% false-positive rate, about 1.2 bytes per key). "Absent" is
+ *   certain for incoming keys of the same Java type as the stored ones; a
+ *   possible hit is confirmed with the writer's batched exact lookup.
+ * - Keys compared by collation (MySQL and SQL Server strings, which default to
+ *   case-insensitive), blank-padded CHAR keys and temporal keys are not
+ *   loaded: two different Java values can be the same key there, so only
+ *   the exact lookup can tell.
+ *
+ * If the set would exceed the memory budget the load is abandoned and every
+ * key is reported as a possible hit, which is the previous behaviour: one
+ * batched lookup per write batch. Keys inserted during the run are added so
+ * retried partitions still see them.
+ *
+ * Only the writer's single-column key is supported; a composite key would be
+ * hashed as one tuple into the Bloom filter.
+ */
+public final class DestinationKeySet {
+
+    private static final Logger logger = LoggerFactory.getLogger(DestinationKeySet.class);
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    enum Membership { ABSENT, PRESENT, POSSIBLE }
+
+    // How the destination compares key values
+    private enum KeyType { INTEGRAL, EXACT, COLLATED }
+
+    private final String description;
+    private final LongHashSet longKeys; // Integral keys, exact
+    private final BloomFilter otherKeys; // Exactly compared keys, approximate
+    private Class<?> otherKeyType; // Java type the Bloom filter was filled with; other types are POSSIBLE
+    private final AtomicLong lookupsAvoided = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private DestinationKeySet(String description, LongHashSet longKeys, BloomFilter otherKeys, Class<?> otherKeyType) {
+        this.description = description;
+        this.longKeys = longKeys;
+        this.otherKeys = otherKeys;
+        this.otherKeyType = otherKeyType;
+    }
+
+    /**
+     * Reads every key of the destination table, or gives up once the
+     * structure would need more than {@code memoryBudgetBytes}
+     *
+     * @param table Table name as checked and quoted by MigrationPlan.resolveTables
+     */
+    static DestinationKeySet load(Connection destination, String table, String keyColumn,
+                                  long memoryBudgetBytes, int fetchSize) throws SQLException {
+        String quote = destination.getMetaData().getIdentifierQuoteString().trim();
+        String key = MigrationPlan.quoteIdentifier(quote, keyColumn);
+        long started = System.nanoTime();
+
+        boolean autoCommit = destination.getAutoCommit();
+        destination.setAutoCommit(false); // PostgreSQL only streams with a fetch size inside a transaction
+        try {
+            DestinationKeySet keySet = switch (keyType(destination, table, key)) {
+                case INTEGRAL -> loadLongs(destination, table, key, memoryBudgetBytes, fetchSize);
+                case EXACT -> loadBloom(destination, table, key, memoryBudgetBytes, fetchSize);
+                case COLLATED -> notLoaded("the key column compares by collation or type, not by value");
+            };
+            logger.info("{}.{}: {} in {} ms", table, keyColumn, keySet.describe(),
+                (System.nanoTime() - started) / 1_000_000);
+            return keySet;
+        } finally {
+            destination.commit();
+            destination.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Fallback when no key set is loaded: every key needs the exact lookup
+     */
+    static DestinationKeySet notLoaded(String reason) {
+        return new DestinationKeySet(reason, null, null, null);
+    }
+
+    /**
+     * Classifies the keys of a write batch; PRESENT is only returned for exact structures
+     */
+    Membership[] classify(List<Object[]> rows, int keyIndex) {
+        Membership[] result = new Membership[rows.size()];
+        if (longKeys == null && otherKeys == null) {
+            Arrays.fill(result, Membership.POSSIBLE);
+            return result;
+        }
+        long avoided = 0;
+        synchronized (this) {
+            for (int i = 0; i < result.length; i++) {
+                Object key = rows.get(i)[keyIndex];
+                if (longKeys != null) {
+                    Long value = asLong(key);
+                    result[i] = value == null ? Membership.POSSIBLE
+                        : longKeys.contains(value) ? Membership.PRESENT : Membership.ABSENT;
+                } else if (otherKeyType != null && !otherKeyType.isInstance(key)) {
+                    // e.g. a String key for a UUID column: equal keys need not hash alike
+                    result[i] = Membership.POSSIBLE;
+                } else {
+                    result[i] = otherKeys.mightContain(hash(key)) ? Membership.POSSIBLE : Membership.ABSENT;
+                }
+                if (result[i] != Membership.POSSIBLE) {
+                    avoided++;
+                }
+            }
+        }
+        lookupsAvoided.addAndGet(avoided);
+        return result;
+    }
+
+    /**
+     * Records keys that were committed to the destination during this run
+     */
+    void addAll(List<Object[]> rows, int keyIndex) {
+        if (longKeys == null && otherKeys == null) {
+            return;
+        }
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Object key = row[keyIndex];
+                Long value = longKeys == null ? null : asLong(key);
+                if (value != null) {
+                    longKeys.add(value);
+                } else if (otherKeys != null) {
+                    otherKeys.add(hash(key));
+                    if (otherKeyType == null) {
+                        otherKeyType = javaKeyType(key); // Destination was empty when loaded
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A possible hit that the exact lookup did not find
+     */
+    void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    synchronized long memoryBytes() {
+        return longKeys != null ? longKeys.memoryBytes() : otherKeys != null ? otherKeys.memoryBytes() : 0;
+    }
+
+    String describe() {
+        if (longKeys == null && otherKeys == null) {
+            return "Destination key set not loaded (" + description + "); keys checked with batched lookups";
+        }
+        return String.format("Destination key set: %s, %.1f MB; %d key lookups avoided, %d false positives",
+            description, memoryBytes() / (1024.0 * 1024.0), lookupsAvoided.get(), falsePositives.get());
+    }
+
+    /**
+     * PostgreSQL and Oracle compare VARCHAR keys binary by default; MySQL and
+     * SQL Server default to case-insensitive collations, and CHAR is
+     * blank-padded everywhere
+     */
+    private static KeyType keyType(Connection destination, String table, String key) throws SQLException {
+        String product = destination.getMetaData().getDatabaseProductName();
+        try (PreparedStatement statement = destination.prepareStatement(
+                "SELECT " + key + " FROM " + table + " WHERE 1 = 0");
+             ResultSet rs = statement.executeQuery()) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            return switch (metaData.getColumnType(1)) {
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> KeyType.INTEGRAL;
+                case Types.NUMERIC, Types.DECIMAL -> metaData.getScale(1) == 0
+                    && metaData.getPrecision(1) > 0 && metaData.getPrecision(1) <= 18 ? KeyType.INTEGRAL : KeyType.EXACT;
+                case Types.BINARY, Types.VARBINARY -> KeyType.EXACT;
+                case Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR ->
+                    "PostgreSQL".equals(product) || "Oracle".equals(product) ? KeyType.EXACT : KeyType.COLLATED;
+                case Types.OTHER -> "uuid".equalsIgnoreCase(metaData.getColumnTypeName(1)) ? KeyType.EXACT : KeyType.COLLATED;
+                default -> KeyType.COLLATED;
+            };
+        }
+    }
+
+    private static DestinationKeySet loadLongs(Connection destination, String table, String key,
+                                               long memoryBudgetBytes, int fetchSize) throws SQLException {
+        LongHashSet keys = new LongHashSet(1024);
+        try (PreparedStatement statement = destination.prepareStatement(
+                "SELECT " + key + " FROM " + table, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(StreamingMigrationExecutor.streamingFetchSize(destination, fetchSize));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    long value = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        keys.add(value);
+                    }
+                    if (keys.memoryBytes() > memoryBudgetBytes) {
+                        return notLoaded(String.format("more than %d keys exceed the %.0f MB budget",
+                            keys.size(), memoryBudgetBytes / (1024.0 * 1024.0)));
+                    }
+                }
+            }
+        }
+        return new DestinationKeySet(keys.size() + " integral keys in a long hash set", keys, null, null);
+    }
+
+    private static DestinationKeySet loadBloom(Connection destination, String table, String key,
+                                               long memoryBudgetBytes, int fetchSize) throws SQLException {
+        long rowCount;
+        try (PreparedStatement statement = destination.prepareStatement("SELECT COUNT(*) FROM " + table);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            rowCount = rs.getLong(1);
+        }
+        // Headroom for the rows this run inserts
+        long expectedKeys = rowCount + rowCount / 4 + 1024;
+        long bits = BloomFilter.optimalBits(expectedKeys, BLOOM_FALSE_POSITIVE_RATE);
+        if (bits / 8 > memoryBudgetBytes || bits > BloomFilter.MAX_BITS) {
+            return notLoaded(String.format("a Bloom filter for %d keys needs %.1f MB, budget is %.0f MB",
+                rowCount, bits / 8 / (1024.0 * 1024.0), memoryBudgetBytes / (1024.0 * 1024.0)));
+        }
+
+        BloomFilter keys = new BloomFilter(bits, BloomFilter.optimalHashes(bits, expectedKeys));
+        long loaded = 0;
+        Class<?> keyType = null;
+        try (PreparedStatement statement = destination.prepareStatement(
+                "SELECT " + key + " FROM " + table, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(StreamingMigrationExecutor.streamingFetchSize(destination, fetchSize));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Object value = rs.getObject(1);
+                    if (value != null) {
+                        keys.add(hash(value));
+                        keyType = keyType == null ? javaKeyType(value) : keyType;
+                        loaded++;
+                    }
+                }
+            }
+        }
+        return new DestinationKeySet(loaded + " keys in a Bloom filter", null, keys, keyType);
+    }
+
+    // hash() normalizes numbers, so any Number matches a numeric key column
+    private static Class<?> javaKeyType(Object key) {
+        return key instanceof Number ? Number.class : key.getClass();
+    }
+
+    // Integral values only; anything else goes to the exact lookup
+    private static Long asLong(Object key) {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        if (key instanceof BigDecimal decimal) {
+            try {
+                return decimal.longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Same value, same hash, whichever Number type or scale the driver returned
+    private static long hash(Object key) {
+        String text = key instanceof Number number
+            ? new BigDecimal(number.toString()).stripTrailingZeros().toPlainString()
+            : key instanceof byte[] bytes ? new String(bytes, StandardCharsets.ISO_8859_1) : key.toString();
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return LongHashSet.mix(hash);
+    }
+}
+
+/**
+ * Open-addressing set of longs (linear probing). Long.MIN_VALUE marks an
+ * empty slot and is tracked separately. Not thread-safe.
+ */
+final class LongHashSet {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean containsEmptyMarker;
+
+    LongHashSet(int expectedSize) {
+        long needed = Math.max(16, (long) Math.ceil(expectedSize / MAX_LOAD));
+        this.slots = new long[(int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1)];
+        Arrays.fill(slots, EMPTY);
+        this.mask = slots.length - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 8L * slots.length;
+    }
+
+    boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmptyMarker;
+        }
+        return slots[slot(key)] == key;
+    }
+
+    void add(long key) {
+        if (key == EMPTY) {
+            if (!containsEmptyMarker) {
+                containsEmptyMarker = true;
+                size++;
+            }
+            return;
+        }
+        int slot = slot(key);
+        if (slots[slot] == EMPTY) {
+            slots[slot] = key;
+            if (++size > slots.length * MAX_LOAD) {
+                grow();
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int slot = (int) mix(key) & mask;
+        while (slots[slot] != EMPTY && slots[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        Arrays.fill(slots, EMPTY);
+        mask = slots.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                slots[slot(key)] = key;
+            }
+        }
+    }
+
+    // Murmur3 finalizer; sequential keys would otherwise cluster in adjacent slots
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
+
+/**
+ * Bloom filter over pre-hashed 64-bit values; the k probe positions are
+ * derived from the two halves of the hash. Not thread-safe.
+ */
+final class BloomFilter {
+    static final long MAX_BITS = (long) Integer.MAX_VALUE * 64;
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long bits, int hashCount) {
+        this.words = new long[(int) ((bits + 63) >>> 6)];
+        this.bitCount = (long) words.length << 6;
+        this.hashCount = hashCount;
+    }
+
+    static long optimalBits(long expectedKeys, double falsePositiveRate) {
+        return Math.max(64, (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+    }
+
+    static int optimalHashes(long bits, long expectedKeys) {
+        return Math.max(1, (int) Math.round((double) bits / expectedKeys * Math.log(2)));
+    }
+
+    long memoryBytes() {
+        return 8L * words.length;
+    }
+
+    void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
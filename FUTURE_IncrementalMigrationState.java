@@ -0,0 +1,451 @@
+// FUTURE ENHANCEMENT: Incremental (Delta) Re-Runs of a Table Migration
+// Persists a watermark and a per-row content hash per source/destination table
+// pair so StreamingMigrationExecutor only extracts and writes what changed.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PERFORMANCE: Watermark + row-hash state for incremental migrations
+ *
+ * Per source/destination table pair two things are kept on disk:
+ * - A watermark: the largest value of an update-timestamp column, or of the
+ *   key column for append-only tables, that was fully migrated. A re-run
+ *   extracts rows at or above it and at or below the current maximum. The
+ *   watermark value itself is read again because rows committed after the
+ *   maximum was taken can carry that same value; rows already written are
+ *   then skipped by their hash.
+ * - A content hash per destination key: 64-bit key hash -> 64-bit hash of the
+ *   transformed destination row, 23 to 46 bytes per row in memory. A changed
+ *   row whose transformed values hash the same as last time is skipped without
+ *   reading the destination row; a known key with a different hash is updated
+ *   without the existence lookup. The index has a memory budget; a table
+ *   whose hashes would exceed it drops them and is compared against the
+ *   destination as on a first run.
+ *
+ * The watermark only advances after a fully successful run. Hashes of rows
+ * that did commit are always saved, so a re-run after a failure re-extracts
+ * the same range but skips what was already written.
+ *
+ * State is kept per table pair, key column and column mappings (the same
+ * fingerprint a checkpoint is resumed with), so changing a mapping starts
+ * from a full compare instead of trusting hashes of differently shaped rows.
+ *
+ * The state describes what this tool wrote. If the destination table is
+ * changed by something else (truncated, restored from a backup), call
+ * {@link #reset} so the next run compares against the destination again.
+ */
+@Component
+public class IncrementalMigrationState {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalMigrationState.class);
+
+    private static final int FILE_FORMAT_VERSION = 1;
+    private static final String STATE_SUFFIX = ".delta";
+
+    private final Path directory;
+    private final long hashMemoryBudgetBytes;
+
+    public IncrementalMigrationState(@Value("${migration.incremental.directory:./migration-state}") String directory,
+                                     @Value("${migration.incremental.memory-budget-mb:256}") long hashMemoryBudgetMb) {
+        this.directory = Paths.get(directory);
+        this.hashMemoryBudgetBytes = hashMemoryBudgetMb * 1024 * 1024;
+    }
+
+    /**
+     * How a re-run finds changed rows
+     *
+     * @param watermarkColumn Source update-timestamp (or version) column; null uses
+     *                        the key column, which only detects new rows
+     */
+    public record Options(String watermarkColumn) {
+
+        public static Options byKey() {
+            return new Options(null);
+        }
+
+        public static Options byColumn(String watermarkColumn) {
+            return new Options(watermarkColumn == null || watermarkColumn.isBlank() ? null : watermarkColumn);
+        }
+    }
+
+    /**
+     * Loads the state of a table pair, or an empty state for its first run
+     *
+     * @param fingerprint {@link MigrationCheckpointStore#fingerprint} of the tables, key and mappings
+     */
+    IncrementalTable open(String fingerprint, Options options) {
+        Path file = stateFile(fingerprint, options);
+        if (!Files.exists(file)) {
+            return new IncrementalTable(file, options.watermarkColumn(), null, emptyIndex());
+        }
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             DataInputStream in = new DataInputStream(raw)) {
+            if (in.readInt() != FILE_FORMAT_VERSION) {
+                logger.info("Ignoring incremental state {} written with another format; running a full compare", file);
+                return new IncrementalTable(file, options.watermarkColumn(), null, emptyIndex());
+            }
+            Object watermark = readValue(in);
+            RowHashIndex hashes = RowHashIndex.readFrom(in, hashMemoryBudgetBytes);
+            logger.debug("Loaded incremental state {}: watermark {}, {} row hashes",
+                file, watermark, hashes.size());
+            return new IncrementalTable(file, options.watermarkColumn(), watermark, hashes);
+        } catch (IOException e) {
+            // Losing the state only costs one full compare, never correctness
+            logger.warn("Failed to read incremental state {}: {}", file, e.getMessage());
+            return new IncrementalTable(file, options.watermarkColumn(), null, emptyIndex());
+        }
+    }
+
+    private RowHashIndex emptyIndex() {
+        return new RowHashIndex(1024, hashMemoryBudgetBytes);
+    }
+
+    /**
+     * Persists the row hashes, and the new watermark if the run completed
+     */
+    void save(IncrementalTable table, boolean runCompleted) {
+        Object watermark = runCompleted ? table.highWatermark : table.previousWatermark;
+        try {
+            Files.createDirectories(directory);
+            // Temp file + atomic move: a crash mid-write keeps the previous state
+            Path temp = Files.createTempFile(directory, table.file.getFileName().toString(), ".tmp");
+            try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16);
+                 DataOutputStream out = new DataOutputStream(raw)) {
+                out.writeInt(FILE_FORMAT_VERSION);
+                writeValue(out, watermark);
+                table.rowHashes.writeTo(out);
+            }
+            Files.move(temp, table.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist incremental state {}: {}", table.file, e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the watermark and hashes of a table pair; the next run is a full compare
+     *
+     * @param keyColumn Source key column the migration runs with
+     */
+    public void reset(DbConnectionParams sourceParams, String sourceTableName,
+                      DbConnectionParams destinationParams, String destinationTableName,
+                      List<ColumnMappingDto> columnMappings, String keyColumn,
+                      Options options) throws IOException {
+        String fingerprint = MigrationCheckpointStore.fingerprint(sourceParams, sourceTableName,
+            destinationParams, destinationTableName, columnMappings, keyColumn);
+        Files.deleteIfExists(stateFile(fingerprint, options));
+    }
+
+    private Path stateFile(String fingerprint, Options options) {
+        MessageDigest digest = sha256();
+        for (String part : new String[] {fingerprint, String.valueOf(options.watermarkColumn())}) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        String name = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        return directory.resolve(name + STATE_SUFFIX);
+    }
+
+    /**
+     * Hash of a transformed destination row; never 0 (0 marks "no hash" in the index)
+     */
+    static long rowHash(Object[] row) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (Object value : row) {
+            hash = mix(hash * 31 + valueHash(value));
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Hash of a destination key value; never 0
+     */
+    static long keyHash(Object key) {
+        long hash = mix(valueHash(key));
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long valueHash(Object value) {
+        if (value == null) {
+            return 0x5BD1E9955BD1E995L;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        if (value instanceof byte[] bytes) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : bytes) {
+                hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+            }
+            return hash;
+        }
+        // 1.50 and 1.5 are the same value
+        String text = value instanceof BigDecimal decimal ? decimal.stripTrailingZeros().toPlainString() : value.toString();
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Murmur3 finalizer: spreads every input bit over the whole word
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Typed JDBC value (watermark or key) for the state and checkpoint files.
+     * Types without a tag are stored as text; checkpoints also record the key
+     * column's JDBC type so such keys are rebound as that type on resume.
+     */
+    static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte('0');
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            out.writeByte('L');
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte('N');
+            out.writeUTF(decimal.toPlainString());
+        } else if (value instanceof Timestamp || value instanceof LocalDateTime) {
+            Timestamp timestamp = value instanceof LocalDateTime local ? Timestamp.valueOf(local) : (Timestamp) value;
+            out.writeByte('T');
+            out.writeUTF(timestamp.toString());
+        } else if (value instanceof Date || value instanceof LocalDate) {
+            Date date = value instanceof LocalDate local ? Date.valueOf(local) : (Date) value;
+            out.writeByte('D');
+            out.writeUTF(date.toString());
+        } else if (value instanceof UUID uuid) {
+            out.writeByte('U');
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte('B');
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            out.writeByte('S');
+            out.writeUTF(value.toString());
+        }
+    }
+
+    static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case '0' -> null;
+            case 'L' -> in.readLong();
+            case 'N' -> new BigDecimal(in.readUTF());
+            case 'T' -> Timestamp.valueOf(in.readUTF());
+            case 'D' -> Date.valueOf(in.readUTF());
+            case 'U' -> new UUID(in.readLong(), in.readLong());
+            case 'B' -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case 'S' -> in.readUTF();
+            default -> throw new IOException("Unknown value type");
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
+
+/**
+ * Incremental state of one table pair during a run
+ */
+final class IncrementalTable {
+    final Path file;
+    final String watermarkColumn; // null = key column
+    final Object previousWatermark;
+    volatile Object highWatermark; // MAX(watermark column) when the run started
+    final RowHashIndex rowHashes;
+    final AtomicLong rowsSkippedByHash = new AtomicLong();
+    final AtomicLong rowsWrittenWithoutLookup = new AtomicLong();
+
+    IncrementalTable(Path file, String watermarkColumn, Object previousWatermark, RowHashIndex rowHashes) {
+        this.file = file;
+        this.watermarkColumn = watermarkColumn;
+        this.previousWatermark = previousWatermark;
+        this.rowHashes = rowHashes;
+    }
+
+    String describe() {
+        String summary = String.format("Incremental run on %s >= %s (up to %s): %d unchanged rows skipped by hash, "
+                + "%d rows written without a destination lookup, %d row hashes (%.1f MB)",
+            watermarkColumn == null ? "key" : watermarkColumn,
+            previousWatermark == null ? "(first run)" : previousWatermark, highWatermark,
+            rowsSkippedByHash.get(), rowsWrittenWithoutLookup.get(), rowHashes.size(),
+            rowHashes.memoryBytes() / (1024.0 * 1024.0));
+        return rowHashes.isDropped()
+            ? summary + "; row hashes exceeded the memory budget and were dropped, rows were compared against the destination"
+            : summary;
+    }
+}
+
+/**
+ * Open-addressing long -> long map (linear probing, key 0 = empty slot).
+ * Shared by all partition workers of a run, so access is synchronized; it
+ * is taken once per write batch, not per row.
+ *
+ * When growing would exceed the memory budget or the maximum capacity, the
+ * map drops its content and stays empty: every key is unknown from then on,
+ * which sends rows through the destination lookup as if no state existed.
+ */
+final class RowHashIndex {
+    private static final double MAX_LOAD = 0.7;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final long memoryBudgetBytes;
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private boolean dropped;
+
+    RowHashIndex(int expectedSize, long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        long needed = Math.max(16, (long) Math.ceil(expectedSize / MAX_LOAD));
+        long capacity = Long.highestOneBit(needed - 1) << 1;
+        if (capacity > MAX_CAPACITY || 16 * capacity > memoryBudgetBytes) {
+            capacity = 16;
+            dropped = true;
+        }
+        this.keys = new long[(int) capacity];
+        this.values = new long[(int) capacity];
+        this.mask = (int) capacity - 1;
+    }
+
+    synchronized boolean isDropped() {
+        return dropped;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long memoryBytes() {
+        return 16L * keys.length;
+    }
+
+    /**
+     * Looks up {@code count} keys; 0 in {@code out} means unknown
+     */
+    synchronized void lookup(long[] keyHashes, int count, long[] out) {
+        for (int i = 0; i < count; i++) {
+            int slot = slot(keyHashes[i]);
+            out[i] = keys[slot] == 0 ? 0 : values[slot];
+        }
+    }
+
+    synchronized void putAll(long[] keyHashes, long[] contentHashes, int count) {
+        for (int i = 0; i < count && !dropped; i++) {
+            put(keyHashes[i], contentHashes[i]);
+        }
+    }
+
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                out.writeLong(keys[slot]);
+                out.writeLong(values[slot]);
+            }
+        }
+    }
+
+    static RowHashIndex readFrom(DataInputStream in, long memoryBudgetBytes) throws IOException {
+        int count = in.readInt();
+        RowHashIndex index = new RowHashIndex(count, memoryBudgetBytes);
+        for (int i = 0; i < count && !index.dropped; i++) {
+            index.put(in.readLong(), in.readLong());
+        }
+        return index;
+    }
+
+    private void put(long key, long value) {
+        int slot = slot(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            if (++size > keys.length * MAX_LOAD) {
+                values[slot] = value;
+                grow();
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    private int slot(long key) {
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        if (oldKeys.length >= MAX_CAPACITY || 32L * oldKeys.length > memoryBudgetBytes) {
+            keys = new long[16];
+            values = new long[16];
+            mask = 15;
+            size = 0;
+            dropped = true;
+            return;
+        }
+        keys = new long[oldKeys.length << 1];
+        values = new long[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,495 @@
+// FUTURE ENHANCEMENT: Non-blocking Client for the LLM Service
+// Replaces the blocking RestTemplate calls to /generate-transformation-code and
+// /feedback in LLMTransformationService.
+
+package com.example.dynamic_migration_engine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.LLMTransformationRequest;
+import com.example.dynamic_migration_engine.model.LLMTransformationResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PERFORMANCE: Asynchronous LLM calls with deadlines, retries, hedging and a circuit breaker
+ *
+ * Uses the JDK HttpClient (sendAsync), so waiting on the LLM backend holds no
+ * thread. Each {@link #generate} call gets:
+ * - A deadline of llm.client.deadline-ms covering all attempts, and a per-attempt timeout
+ * - Up to llm.client.max-retries retries of timeouts, I/O errors, 429 and 5xx,
+ *   with exponential backoff and full jitter so clients do not retry in lockstep
+ * - Optionally a hedged second request after llm.client.hedge-delay-ms; the first
+ *   successful answer wins and the other request is cancelled
+ * - A circuit breaker: after llm.client.breaker.failure-threshold consecutive failed
+ *   calls it opens and calls fail immediately (the service then uses template
+ *   generation) until a single trial call after llm.client.breaker.open-ms succeeds
+ * - A bound of llm.client.max-in-flight concurrent calls; further calls fail immediately
+ *
+ * Feedback is queued (llm.feedback.queue-capacity) and POSTed to /feedback as a
+ * JSON array of up to llm.feedback.batch-size items every llm.feedback.flush-ms.
+ * A failed batch is re-queued while there is room; feedback that does not fit
+ * is dropped and counted, it never blocks a caller.
+ *
+ * LLMStubServer serves both endpoints locally for offline load tests.
+ */
+@Component
+public class LLMServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(LLMServiceClient.class);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI generateUri;
+    private final URI feedbackUri;
+    private final long deadlineMs;
+    private final long attemptTimeoutMs;
+    private final int maxRetries;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final long hedgeDelayMs; // 0 = no hedged requests
+    private final int maxInFlight;
+    private final int feedbackBatchSize;
+    private final CircuitBreaker circuitBreaker;
+    private final BlockingQueue<LLMFeedbackRequest> feedbackQueue;
+    private final ScheduledExecutorService scheduler; // Retry backoff, hedge timers and feedback flushes
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private volatile CompletableFuture<Void> currentFlush = CompletableFuture.completedFuture(null);
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong feedbackSent = new AtomicLong();
+    private final AtomicLong feedbackDropped = new AtomicLong();
+
+    public LLMServiceClient(ObjectMapper objectMapper,
+                            @Value("${llm.service.url}") String llmServiceUrl,
+                            @Value("${llm.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+                            @Value("${llm.client.deadline-ms:60000}") long deadlineMs,
+                            @Value("${llm.client.attempt-timeout-ms:30000}") long attemptTimeoutMs,
+                            @Value("${llm.client.max-retries:2}") int maxRetries,
+                            @Value("${llm.client.retry-base-ms:250}") long retryBaseMs,
+                            @Value("${llm.client.retry-max-ms:4000}") long retryMaxMs,
+                            @Value("${llm.client.hedge-delay-ms:0}") long hedgeDelayMs,
+                            @Value("${llm.client.max-in-flight:64}") int maxInFlight,
+                            @Value("${llm.client.breaker.failure-threshold:5}") int breakerFailureThreshold,
+                            @Value("${llm.client.breaker.open-ms:30000}") long breakerOpenMs,
+                            @Value("${llm.feedback.batch-size:100}") int feedbackBatchSize,
+                            @Value("${llm.feedback.flush-ms:5000}") long feedbackFlushMs,
+                            @Value("${llm.feedback.queue-capacity:10000}") int feedbackQueueCapacity) {
+        this.objectMapper = objectMapper;
+        this.generateUri = URI.create(llmServiceUrl + "/generate-transformation-code");
+        this.feedbackUri = URI.create(llmServiceUrl + "/feedback");
+        this.deadlineMs = deadlineMs;
+        this.attemptTimeoutMs = Math.min(attemptTimeoutMs, deadlineMs);
+        this.maxRetries = maxRetries;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.maxInFlight = maxInFlight;
+        this.feedbackBatchSize = feedbackBatchSize;
+        this.circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMs);
+        this.feedbackQueue = new ArrayBlockingQueue<>(feedbackQueueCapacity);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llm-client-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> flushFeedback(), feedbackFlushMs, feedbackFlushMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests generated transformations; never blocks the caller.
+     * The future fails with LLMServiceException when the circuit is open, too
+     * many calls are in flight, or all attempts failed within the deadline.
+     */
+    public CompletableFuture<LLMTransformationResponse> generate(LLMTransformationRequest request) {
+        calls.incrementAndGet();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            failedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(new LLMServiceException("Could not serialize LLM request", e));
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            rejected.incrementAndGet();
+            failedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                new LLMServiceException("Too many LLM calls in flight (" + maxInFlight + ")", null));
+        }
+        // Checked last: an allowed half-open trial must always report its outcome
+        if (!circuitBreaker.allowRequest()) {
+            inFlight.decrementAndGet();
+            shortCircuited.incrementAndGet();
+            failedCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(new LLMServiceException("LLM service circuit is open", null));
+        }
+
+        CompletableFuture<LLMTransformationResponse> result = new CompletableFuture<>();
+        result.whenComplete((response, error) -> {
+            inFlight.decrementAndGet();
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                return;
+            }
+            failedCalls.incrementAndGet();
+            // A 4xx or an unparsable answer means the backend is up; only outages open the circuit
+            if (indicatesOutage(unwrap(error))) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        });
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        attempt(body, 0, deadlineNanos, result);
+        result.orTimeout(deadlineMs, TimeUnit.MILLISECONDS);
+        return result.handle((response, error) -> {
+            if (error == null) {
+                return response;
+            }
+            Throwable cause = unwrap(error);
+            throw cause instanceof LLMServiceException llmError ? llmError
+                : new LLMServiceException("LLM transformation generation failed", cause);
+        });
+    }
+
+    /**
+     * Queues feedback for the next batch; returns false if the queue is full and the feedback was dropped
+     */
+    public boolean submitFeedback(LLMFeedbackRequest feedback) {
+        if (!feedbackQueue.offer(feedback)) {
+            feedbackDropped.incrementAndGet();
+            return false;
+        }
+        if (feedbackQueue.size() >= feedbackBatchSize) {
+            scheduler.execute(() -> flushFeedback());
+        }
+        return true;
+    }
+
+    /**
+     * MONITORING: Call outcomes, retry/hedge effectiveness, breaker state and feedback backlog
+     */
+    public LLMClientStats getStats() {
+        return new LLMClientStats(
+            calls.get(), failedCalls.get(), retries.get(), hedgedRequests.get(), hedgeWins.get(),
+            shortCircuited.get(), rejected.get(), inFlight.get(), circuitBreaker.state().name(),
+            feedbackQueue.size(), feedbackSent.get(), feedbackDropped.get());
+    }
+
+    @PreDestroy
+    public void close() {
+        // Last flush is bounded so shutdown is not held up by an unreachable backend
+        try {
+            flushFeedback().get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Final LLM feedback flush did not complete: {}", e.getMessage());
+        }
+        scheduler.shutdownNow();
+        if (!feedbackQueue.isEmpty()) {
+            logger.warn("Dropping {} unsent LLM feedback items on shutdown", feedbackQueue.size());
+        }
+    }
+
+    private void attempt(byte[] body, int attemptNumber, long deadlineNanos,
+                         CompletableFuture<LLMTransformationResponse> result) {
+        if (result.isDone()) {
+            return; // Deadline passed while waiting for the backoff
+        }
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMs <= 0) {
+            result.completeExceptionally(new TimeoutException("LLM call deadline of " + deadlineMs + " ms exceeded"));
+            return;
+        }
+        Duration timeout = Duration.ofMillis(Math.min(attemptTimeoutMs, remainingMs));
+
+        hedgedAttempt(body, timeout, remainingMs).whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attemptNumber < maxRetries && isRetryable(cause)) {
+                // Full jitter: uniform in [0, min(max, base * 2^attempt)]
+                long ceiling = Math.min(retryMaxMs, retryBaseMs << Math.min(attemptNumber, 20));
+                long backoffMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) < deadlineNanos) {
+                    retries.incrementAndGet();
+                    logger.debug("LLM call attempt {} failed ({}), retrying in {} ms",
+                        attemptNumber + 1, cause.toString(), backoffMs);
+                    scheduler.schedule(() -> attempt(body, attemptNumber + 1, deadlineNanos, result),
+                        backoffMs, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            result.completeExceptionally(cause);
+        });
+    }
+
+    /**
+     * One attempt, optionally hedged: if the first request has not answered after
+     * hedgeDelayMs a second one is sent. Completes with the first success, or
+     * with the last failure once every request sent has failed.
+     */
+    private CompletableFuture<LLMTransformationResponse> hedgedAttempt(byte[] body, Duration timeout, long remainingMs) {
+        CompletableFuture<LLMTransformationResponse> outcome = new CompletableFuture<>();
+        // The sendAsync futures themselves: cancelling a dependent stage would not reach the exchange
+        List<CompletableFuture<?>> exchanges = new CopyOnWriteArrayList<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        CompletableFuture<LLMTransformationResponse> first = send(body, timeout, exchanges);
+        first.whenComplete((response, error) -> settle(outcome, pending, response, error, false));
+        if (hedgeDelayMs > 0 && hedgeDelayMs < remainingMs) {
+            scheduler.schedule(() -> {
+                // The increment keeps a concurrent failure of the first request from failing the outcome
+                if (!outcome.isDone() && pending.incrementAndGet() > 1) {
+                    hedgedRequests.incrementAndGet();
+                    CompletableFuture<LLMTransformationResponse> hedge = send(body, timeout, exchanges);
+                    hedge.whenComplete((response, error) -> settle(outcome, pending, response, error, true));
+                    if (outcome.isDone()) {
+                        exchanges.forEach(exchange -> exchange.cancel(true)); // Settled while the hedge was sent
+                    }
+                }
+            }, hedgeDelayMs, TimeUnit.MILLISECONDS);
+        }
+        // Best effort: cancelling the losing exchange aborts its request and releases the connection
+        outcome.whenComplete((response, error) -> exchanges.forEach(exchange -> exchange.cancel(true)));
+        return outcome;
+    }
+
+    private void settle(CompletableFuture<LLMTransformationResponse> outcome, AtomicInteger pending,
+                        LLMTransformationResponse response, Throwable error, boolean hedge) {
+        if (error == null) {
+            if (outcome.complete(response) && hedge) {
+                hedgeWins.incrementAndGet();
+            }
+        } else if (pending.decrementAndGet() == 0) {
+            outcome.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Sends one request; its sendAsync future is added to {@code exchanges} so the caller can cancel it
+     */
+    private CompletableFuture<LLMTransformationResponse> send(byte[] body, Duration timeout,
+                                                              List<CompletableFuture<?>> exchanges) {
+        HttpRequest request = HttpRequest.newBuilder(generateUri)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        exchanges.add(exchange);
+        return exchange
+            .thenApply(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    throw new HttpStatusException(response.statusCode());
+                }
+                try {
+                    return objectMapper.readValue(response.body(), LLMTransformationResponse.class);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+    }
+
+    private CompletableFuture<Void> flushFeedback() {
+        if (!flushing.compareAndSet(false, true)) {
+            return currentFlush;
+        }
+        CompletableFuture<Void> flush = sendFeedbackBatches().whenComplete((ignored, error) -> flushing.set(false));
+        currentFlush = flush;
+        return flush;
+    }
+
+    private CompletableFuture<Void> sendFeedbackBatches() {
+        if (feedbackQueue.isEmpty() || circuitBreaker.state() == CircuitBreaker.State.OPEN) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<LLMFeedbackRequest> batch = new ArrayList<>(feedbackBatchSize);
+        feedbackQueue.drainTo(batch, feedbackBatchSize);
+        return postFeedback(batch).thenCompose(sent -> {
+            if (!sent) {
+                requeue(batch);
+                return CompletableFuture.completedFuture(null); // Retried on the next scheduled flush
+            }
+            feedbackSent.addAndGet(batch.size());
+            logger.debug("Sent {} LLM feedback items", batch.size());
+            return sendFeedbackBatches();
+        });
+    }
+
+    /**
+     * Asynchronous like {@link #generate}, so a slow /feedback never delays retry or hedge timers
+     */
+    private CompletableFuture<Boolean> postFeedback(List<LLMFeedbackRequest> batch) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(batch);
+        } catch (JsonProcessingException e) {
+            logger.warn("Dropping LLM feedback batch of {} that cannot be serialized: {}", batch.size(), e.getMessage());
+            feedbackDropped.addAndGet(batch.size());
+            return CompletableFuture.completedFuture(true);
+        }
+        HttpRequest request = HttpRequest.newBuilder(feedbackUri)
+            .timeout(Duration.ofMillis(attemptTimeoutMs))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (error != null) {
+                    logger.warn("Could not send LLM feedback batch of {}: {}", batch.size(), unwrap(error).toString());
+                    return false;
+                }
+                if (response.statusCode() / 100 != 2) {
+                    logger.warn("LLM feedback batch of {} rejected with HTTP {}", batch.size(), response.statusCode());
+                    return false;
+                }
+                return true;
+            });
+    }
+
+    private void requeue(List<LLMFeedbackRequest> batch) {
+        for (LLMFeedbackRequest feedback : batch) {
+            if (!feedbackQueue.offer(feedback)) {
+                feedbackDropped.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof HttpStatusException status) {
+            return status.statusCode == 429 || status.statusCode >= 500;
+        }
+        // Unparsable responses are not retried; the same prompt would most likely fail again
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    private static boolean indicatesOutage(Throwable cause) {
+        return cause instanceof TimeoutException || isRetryable(cause);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static class HttpStatusException extends RuntimeException {
+        private final int statusCode;
+
+        HttpStatusException(int statusCode) {
+            super("LLM service answered HTTP " + statusCode);
+            this.statusCode = statusCode;
+        }
+    }
+}
+
+/**
+ * Consecutive-failure circuit breaker. OPEN rejects calls until the open
+ * period has passed, then HALF_OPEN lets exactly one trial call through;
+ * its success closes the circuit, its failure opens it again.
+ */
+final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+    }
+
+    synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos >= openNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                return false; // Trial call still running
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("LLM service circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
+
+record LLMClientStats(long calls,
+                      long failedCalls,
+                      long retries,
+                      long hedgedRequests,
+                      long hedgeWins,
+                      long shortCircuited,
+                      long rejected,
+                      int inFlight,
+                      String circuitState,
+                      int queuedFeedback,
+                      long feedbackSent,
+                      long feedbackDropped) {
+}
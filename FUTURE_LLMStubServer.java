@@ -0,0 +1,251 @@
+// FUTURE ENHANCEMENT: Local Stub of the LLM Service for Offline Load Tests
+// Kept at the repository root with the other FUTURE_ sketches; it belongs in a benchmark
+// source set of the backend (e.g. src/jmh/java), next to TransformationBenchmarks.
+// Run with: java -cp <backend classpath> ...service.LLMStubServer [port] [seconds] [callsPerSecond] [hedgeDelayMs]
+
+package com.example.dynamic_migration_engine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.example.dynamic_migration_engine.model.LLMTransformationRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * LOAD TESTING: Stands in for the Python LLM service on localhost
+ *
+ * POST /generate-transformation-code -> canned LLMTransformationResponse after a simulated delay
+ * POST /feedback                     -> accepts a feedback batch (JSON array), counts its items
+ * GET  /stub/config?key=value...     -> changes the behaviour while a test runs, e.g.
+ *      ?latencyMs=800&tailLatencyMs=8000&tailRatio=0.05&errorRate=0.1&down=true
+ *
+ * "down" answers 503 immediately, which is what opens the client's circuit
+ * breaker; "tailRatio" of the calls take tailLatencyMs instead of latencyMs,
+ * which is what hedged requests are for.
+ *
+ * main() starts the stub and drives an LLMServiceClient against it at a
+ * fixed call rate, takes the backend down for the middle third of the run
+ * and prints latency percentiles and client stats.
+ */
+public class LLMStubServer implements AutoCloseable {
+
+    private static final String CANNED_RESPONSE = """
+        {"generatedTransformations":[{"methodName":"transformCustomerName",\
+        "destinationColumnName":"customer_name",\
+        "javaCode":"public String transformCustomerName(String value) { return value == null ? null : value.trim(); }",\
+        "confidence":0.9,"llmModel":"stub"}]}""";
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private volatile long latencyMs = 200;
+    private volatile long tailLatencyMs = 5000;
+    private volatile double tailRatio = 0.0;
+    private volatile double errorRate = 0.0;
+    private volatile boolean down;
+    private final AtomicLong generateRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong feedbackBatches = new AtomicLong();
+    private final AtomicLong feedbackItems = new AtomicLong();
+
+    private LLMStubServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 512);
+        // Delays are simulated by sleeping, so every open request needs its own thread
+        this.handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "llm-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlers);
+        server.createContext("/generate-transformation-code", this::generate);
+        server.createContext("/feedback", this::feedback);
+        server.createContext("/stub/config", this::configure);
+    }
+
+    public static LLMStubServer start(int port) throws IOException {
+        LLMStubServer stub = new LLMStubServer(port);
+        stub.server.start();
+        return stub;
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void setLatency(long latencyMs, long tailLatencyMs, double tailRatio) {
+        this.latencyMs = latencyMs;
+        this.tailLatencyMs = tailLatencyMs;
+        this.tailRatio = tailRatio;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setDown(boolean down) {
+        this.down = down;
+    }
+
+    public String describe() {
+        return String.format("stub: %d generate requests (%d answered with an error), %d feedback items in %d batches",
+            generateRequests.get(), failedRequests.get(), feedbackItems.get(), feedbackBatches.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        generateRequests.incrementAndGet();
+        drain(exchange.getRequestBody());
+        if (down) {
+            failedRequests.incrementAndGet();
+            respond(exchange, 503, "{\"error\":\"stub is down\"}");
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(random.nextDouble() < tailRatio ? tailLatencyMs : latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        if (random.nextDouble() < errorRate) {
+            failedRequests.incrementAndGet();
+            respond(exchange, 500, "{\"error\":\"simulated failure\"}");
+            return;
+        }
+        respond(exchange, 200, CANNED_RESPONSE);
+    }
+
+    private void feedback(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (down) {
+            respond(exchange, 503, null);
+            return;
+        }
+        feedbackBatches.incrementAndGet();
+        // Each LLMFeedbackRequest carries exactly one transformationId
+        feedbackItems.addAndGet(body.split("\"transformationId\"", -1).length - 1);
+        respond(exchange, 204, null);
+    }
+
+    private void configure(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        Map<String, String> settings = query == null ? Map.of() : Arrays.stream(query.split("&"))
+            .map(pair -> pair.split("=", 2))
+            .filter(pair -> pair.length == 2)
+            .collect(Collectors.toMap(pair -> pair[0], pair -> pair[1]));
+        try {
+            setLatency(Long.parseLong(settings.getOrDefault("latencyMs", String.valueOf(latencyMs))),
+                Long.parseLong(settings.getOrDefault("tailLatencyMs", String.valueOf(tailLatencyMs))),
+                Double.parseDouble(settings.getOrDefault("tailRatio", String.valueOf(tailRatio))));
+            setErrorRate(Double.parseDouble(settings.getOrDefault("errorRate", String.valueOf(errorRate))));
+            setDown(Boolean.parseBoolean(settings.getOrDefault("down", String.valueOf(down))));
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, "{\"error\":\"" + e.getMessage() + "\"}");
+            return;
+        }
+        respond(exchange, 200, String.format(
+            "{\"latencyMs\":%d,\"tailLatencyMs\":%d,\"tailRatio\":%s,\"errorRate\":%s,\"down\":%s}",
+            latencyMs, tailLatencyMs, tailRatio, errorRate, down));
+    }
+
+    private static void drain(InputStream body) throws IOException {
+        body.transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Load test: [port] [seconds] [callsPerSecond] [hedgeDelayMs], defaults 0 (any free port), 30, 100, 0
+     *
+     * Calls arrive at a fixed rate whether or not earlier ones have finished,
+     * like migrations started from the UI, so fast-failing calls during the
+     * outage do not turn into a busy loop.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int callsPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        long hedgeDelayMs = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        try (LLMStubServer stub = LLMStubServer.start(port)) {
+            stub.setLatency(200, 3000, 0.02);
+            stub.setErrorRate(0.02);
+            LLMServiceClient client = new LLMServiceClient(new ObjectMapper(), stub.url(),
+                2000, 10000, 5000, 2, 100, 1000, hedgeDelayMs, 256, 5, 2000, 100, 1000, 10000);
+            System.out.println("LLM stub listening on " + stub.url());
+
+            List<CompletableFuture<?>> calls = new ArrayList<>();
+            List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+            AtomicLong failures = new AtomicLong();
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / callsPerSecond;
+            long startNanos = System.nanoTime();
+            long runNanos = TimeUnit.SECONDS.toNanos(seconds);
+            for (long callNumber = 0; callNumber * intervalNanos < runNanos; callNumber++) {
+                long arrival = startNanos + callNumber * intervalNanos;
+                LockSupport.parkNanos(arrival - System.nanoTime());
+                // Backend down for the middle third of the run
+                stub.setDown(arrival - startNanos >= runNanos / 3 && arrival - startNanos < runNanos * 2 / 3);
+
+                long callStart = System.nanoTime();
+                calls.add(client.generate(new LLMTransformationRequest()).whenComplete((response, error) -> {
+                    latenciesMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - callStart));
+                    if (error != null) {
+                        failures.incrementAndGet();
+                    }
+                }));
+                LLMFeedbackRequest feedback = new LLMFeedbackRequest();
+                feedback.setTransformationId("load-test-" + callNumber);
+                client.submitFeedback(feedback);
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> null).join();
+            client.close();
+
+            List<Long> sorted = latenciesMicros.stream().sorted().toList();
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("%d calls in %.1f s, %d failed or short-circuited (template fallback)%n",
+                sorted.size(), elapsedSeconds, failures.get());
+            System.out.printf("latency ms: p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+            System.out.println("client: " + client.getStats());
+            System.out.println(stub.describe());
+        }
+    }
+
+    private static double percentile(List<Long> sortedMicros, double quantile) {
+        if (sortedMicros.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedMicros.size()) - 1;
+        return sortedMicros.get(Math.max(0, index)) / 1000.0;
+    }
+}
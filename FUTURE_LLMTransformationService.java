@@ -5,16 +5,37 @@ package com.example.dynamic_migration_engine.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import com.example.dynamic_migration_engine.model.LLMTransformationRequest;
 import com.example.dynamic_migration_engine.model.LLMTransformationResponse;
 import com.example.dynamic_migration_engine.model.GeneratedTransformation;
+import com.example.dynamic_migration_engine.util.BatchCodeCompiler;
 import com.example.dynamic_migration_engine.util.CodeCompiler;
 import com.example.dynamic_migration_engine.util.SecurityScanner;
 
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDateTime;
 
 /**
@@ -33,8 +54,9 @@ import java.time.LocalDateTime;
 @Service
 public class LLMTransformationService {
 
-    @Value("${llm.service.url}")
-    private String llmServiceUrl; // http://localhost:5001
+    // Part of the transformation cache key: bump when buildSystemPrompt, buildUserPrompt or
+    // formatMappingForPrompt change, so code generated from the old prompts is not reused
+    static final int PROMPT_TEMPLATE_VERSION = 1;
 
     @Value("${llm.provider}")
     private String llmProvider; // "openai", "anthropic", "local"
@@ -42,19 +64,116 @@ public class LLMTransformationService {
     @Value("${llm.model}")
     private String llmModel; // "gpt-4-turbo", "claude-3-opus", "codellama-34b"
 
-    private final RestTemplate restTemplate;
+    @Value("${llm.validation.batch-compilation:true}")
+    private boolean batchCompilationEnabled; // false = one CodeCompiler call per transformation
+
+    @Value("${migration.streaming.enabled:true}")
+    private boolean streamingMigrationEnabled; // false = executeEnhancedMigration in one pass
+
+    @Value("${migration.update-existing:true}")
+    private boolean updateExistingRows; // false = rows with an existing key count as PK conflicts
+
+    @Value("${migration.parallel.degree:1}")
+    private int migrationParallelism; // > 1 splits the table into key ranges / hash buckets
+
+    @Value("${migration.incremental.enabled:false}")
+    private boolean incrementalMigrationEnabled; // true = re-runs only extract rows above the stored watermark
+
+    @Value("${migration.incremental.watermark-column:}")
+    private String incrementalWatermarkColumn; // e.g. "updated_at"; empty = key column (append-only tables)
+
+    @Value("${migration.batch-runtime.enabled:true}")
+    private boolean batchRuntimeEnabled; // false = every generated method is called once per row
+
+    @Value("${profiling.enabled:true}")
+    private boolean columnProfilingEnabled; // false = prompts and ML requests keep the raw sample data
+
+    @Value("${profiling.max-wait-ms:500}")
+    private long profileMaxWaitMs; // Longer scans finish in the background; this run keeps the raw sample data
+
+    private final LLMServiceClient llmServiceClient; // Non-blocking; deadlines, retries and circuit breaker
     private final CodeCompiler codeCompiler;
     private final SecurityScanner securityScanner;
     private final MlIntegrationService mlIntegrationService; // Existing ML service
+    private final TransformationCache transformationCache;
+    private final BatchCodeCompiler batchCodeCompiler;
+    private final StreamingMigrationExecutor streamingMigrationExecutor;
+    private final ExecutorService validationExecutor; // Security scan + performance checks
+    private final ThreadPoolExecutor llmExecutor; // Prompt building and validation, kept off the ForkJoin common pool
+    private final Executor llmContinuationExecutor; // llmExecutor for work whose LLM call is already paid for; never sheds
+    private final int shardConcurrency; // Prompt shard calls in flight per generation
+    private final PromptSharder promptSharder;
+    private final PipelineMetrics pipelineMetrics;
+    private final BatchTransformationRuntime batchTransformationRuntime;
+    private final BulkLoadExporter bulkLoadExporter;
+    private final ColumnProfiler columnProfiler;
+    private final ColumnCandidateGenerator columnCandidateGenerator; // Prunes the pairs sent to the ML service
+    private final Map<String, CompletableFuture<List<GeneratedTransformation>>> inFlightGenerations =
+        new ConcurrentHashMap<>();
+    private final AtomicLong coalescedGenerations = new AtomicLong();
+    private final AtomicLong shedGenerations = new AtomicLong();
 
-    public LLMTransformationService(RestTemplate restTemplate,
+    public LLMTransformationService(LLMServiceClient llmServiceClient,
                                     CodeCompiler codeCompiler,
                                     SecurityScanner securityScanner,
-                                    MlIntegrationService mlIntegrationService) {
-        this.restTemplate = restTemplate;
+                                    MlIntegrationService mlIntegrationService,
+                                    TransformationCache transformationCache,
+                                    BatchCodeCompiler batchCodeCompiler,
+                                    StreamingMigrationExecutor streamingMigrationExecutor,
+                                    PromptSharder promptSharder,
+                                    PipelineMetrics pipelineMetrics,
+                                    BatchTransformationRuntime batchTransformationRuntime,
+                                    BulkLoadExporter bulkLoadExporter,
+                                    ColumnProfiler columnProfiler,
+                                    ColumnCandidateGenerator columnCandidateGenerator,
+                                    @Value("${llm.validation.parallelism:4}") int validationParallelism,
+                                    @Value("${llm.executor.threads:8}") int llmThreads,
+                                    @Value("${llm.executor.queue-capacity:32}") int llmQueueCapacity,
+                                    @Value("${llm.sharding.concurrency:4}") int shardConcurrency) {
+        this.llmServiceClient = llmServiceClient;
         this.codeCompiler = codeCompiler;
         this.securityScanner = securityScanner;
         this.mlIntegrationService = mlIntegrationService;
+        this.transformationCache = transformationCache;
+        this.batchCodeCompiler = batchCodeCompiler;
+        this.streamingMigrationExecutor = streamingMigrationExecutor;
+        this.promptSharder = promptSharder;
+        this.pipelineMetrics = pipelineMetrics;
+        this.batchTransformationRuntime = batchTransformationRuntime;
+        this.bulkLoadExporter = bulkLoadExporter;
+        this.columnProfiler = columnProfiler;
+        this.columnCandidateGenerator = columnCandidateGenerator;
+        // Bounded queue; when it is full the validating thread scans the item itself
+        this.validationExecutor = new ThreadPoolExecutor(
+            validationParallelism, validationParallelism, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(256), new ThreadPoolExecutor.CallerRunsPolicy());
+        // Bounded queue; when it is full new generations are shed to template generation
+        AtomicInteger llmThreadNumber = new AtomicInteger();
+        this.llmExecutor = new ThreadPoolExecutor(
+            llmThreads, llmThreads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(llmQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "llm-generation-" + llmThreadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.llmExecutor.allowCoreThreadTimeOut(true);
+        // A response that already arrived is validated even when the queue is full: the completing thread runs it
+        this.llmContinuationExecutor = task -> {
+            try {
+                llmExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
+        this.shardConcurrency = Math.max(1, shardConcurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationExecutor.shutdown();
+        llmExecutor.shutdown();
     }
 
     /**
@@ -67,28 +186,120 @@ public class LLMTransformationService {
             List<MlMappingSuggestion> mlMappings,
             TransformationContext context) {
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Step 1: Prepare LLM request with ML suggestions and context
-                LLMTransformationRequest request = buildLLMRequest(mlMappings, context);
-                
-                // Step 2: Call LLM service to generate code
-                LLMTransformationResponse response = callLLMService(request);
-                
-                // Step 3: Validate and compile generated code
-                List<GeneratedTransformation> validatedTransformations = 
-                    validateGeneratedCode(response.getGeneratedTransformations());
-                
-                // Step 4: Generate unit tests for each transformation
-                enhanceWithUnitTests(validatedTransformations);
-                
-                return validatedTransformations;
-                
-            } catch (Exception e) {
+        // Equivalent mapping sets share one in-flight generation (single-flight)
+        String fingerprint = transformationCache.fingerprint(mlMappings, context, llmModel, PROMPT_TEMPLATE_VERSION);
+        CompletableFuture<List<GeneratedTransformation>> generation = new CompletableFuture<>();
+        CompletableFuture<List<GeneratedTransformation>> inFlight =
+            inFlightGenerations.putIfAbsent(fingerprint, generation);
+        if (inFlight != null) {
+            coalescedGenerations.incrementAndGet();
+            logger.debug("Joining in-flight transformation generation {}", fingerprint);
+            return inFlight.thenApply(ArrayList::new);
+        }
+        generation.whenComplete((result, error) -> inFlightGenerations.remove(fingerprint, generation));
+        
+        try {
+            llmExecutor.execute(() -> {
+                try {
+                    generateTransformations(fingerprint, mlMappings, context).whenComplete((result, error) -> {
+                        if (error == null) {
+                            generation.complete(result);
+                        } else {
+                            generation.completeExceptionally(error);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    generation.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Load shedding: LLM queue is full, answer from templates right away
+            shedGenerations.incrementAndGet();
+            logger.warn("LLM generation queue full, using template generation for {}", fingerprint);
+            generation.complete(fallbackToTemplateGeneration(mlMappings, context));
+        }
+        
+        // Every caller gets its own list; fallback columns are appended per caller
+        return generation.thenApply(ArrayList::new);
+    }
+
+    /**
+     * PERFORMANCE: No thread waits for the LLM; validation continues on llmExecutor
+     * once the response arrives. Only new generations are shed when its queue is
+     * full; validation of a paid-for response runs on the completing thread
+     * instead. Any failure, including an open circuit breaker in LLMServiceClient,
+     * falls back to template generation.
+     */
+    private CompletableFuture<List<GeneratedTransformation>> generateTransformations(
+            String fingerprint,
+            List<MlMappingSuggestion> mlMappings,
+            TransformationContext context) {
+        
+        // Step 0: Re-runs with identical mappings/schemas reuse validated code
+        Optional<List<GeneratedTransformation>> cached = transformationCache.get(fingerprint);
+        if (cached.isPresent()) {
+            logger.debug("Transformation cache hit for {}", fingerprint);
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        CompletableFuture<GenerationBatch> generated;
+        try {
+            // Step 1-2: Build the prompt(s) and call the LLM service, sharded if too large
+            generated = requestTransformations(mlMappings, context);
+        } catch (RuntimeException e) {
+            generated = CompletableFuture.failedFuture(e);
+        }
+        return generated
+            .thenApplyAsync(batch -> validateAndCache(fingerprint, batch), llmContinuationExecutor)
+            .exceptionally(e -> {
                 logger.error("LLM transformation generation failed", e);
                 return fallbackToTemplateGeneration(mlMappings, context);
-            }
+            });
+    }
+
+    private List<GeneratedTransformation> validateAndCache(String fingerprint, GenerationBatch generated) {
+        // Step 3: Validate and compile generated code
+        List<GeneratedTransformation> validatedTransformations = pipelineMetrics.time(
+            PipelineMetrics.VALIDATE_GENERATED_CODE, () -> validateGeneratedCode(generated.transformations()));
+        
+        // Step 4: Generate unit tests for each transformation
+        pipelineMetrics.time(PipelineMetrics.ENHANCE_WITH_UNIT_TESTS, () -> {
+            enhanceWithUnitTests(validatedTransformations);
+            return validatedTransformations;
         });
+        
+        // Step 5: Cache only complete LLM output, never the template fallback
+        if (!validatedTransformations.isEmpty() && generated.complete()) {
+            transformationCache.put(fingerprint, validatedTransformations);
+        }
+        
+        return validatedTransformations;
+    }
+
+    /**
+     * MONITORING: LLM executor saturation and single-flight effectiveness
+     */
+    public LLMGenerationStats getGenerationStats() {
+        return new LLMGenerationStats(
+            llmExecutor.getActiveCount(),
+            llmExecutor.getQueue().size(),
+            inFlightGenerations.size(),
+            coalescedGenerations.get(),
+            shedGenerations.get());
+    }
+
+    /**
+     * MONITORING: Hit/miss/eviction counters of the generated-code cache
+     */
+    public TransformationCacheStats getTransformationCacheStats() {
+        return transformationCache.getStats();
+    }
+
+    /**
+     * MONITORING: LLM call retries, hedges, circuit breaker state and feedback backlog
+     */
+    public LLMClientStats getLLMClientStats() {
+        return llmServiceClient.getStats();
     }
 
     /**
@@ -101,6 +312,18 @@ public class LLMTransformationService {
             List<MlMappingSuggestion> mlMappings, 
             TransformationContext context) {
         
+        return buildLLMRequest(mlMappings, context, context.getSampleData());
+    }
+
+    /**
+     * Same as above, but with only the sample data of the given mappings (one prompt shard)
+     */
+    private LLMTransformationRequest buildLLMRequest(
+            List<MlMappingSuggestion> mlMappings, 
+            TransformationContext context,
+            Map<String, ?> sampleData) {
+        
+        long startNanos = System.nanoTime();
         LLMTransformationRequest request = new LLMTransformationRequest();
         
         // Include ML analysis results
@@ -109,12 +332,12 @@ public class LLMTransformationService {
         // Add business context for better code generation
         request.setSourceSchema(context.getSourceSchema());
         request.setDestinationSchema(context.getDestinationSchema());
-        request.setSampleData(context.getSampleData());
+        request.setSampleData(sampleData);
         request.setBusinessRules(context.getBusinessRules());
         
         // LLM prompt engineering for code generation
         request.setSystemPrompt(buildSystemPrompt());
-        request.setUserPrompt(buildUserPrompt(mlMappings, context));
+        request.setUserPrompt(buildUserPrompt(mlMappings, context, sampleData));
         
         // Code generation preferences
         request.setTargetFramework("Spring Boot 3.x");
@@ -123,10 +346,11 @@ public class LLMTransformationService {
         request.setIncludeDocumentation(true);
         request.setSecurityScanRequired(true);
         
+        pipelineMetrics.recordStage(PipelineMetrics.BUILD_LLM_REQUEST, System.nanoTime() - startNanos, false);
         return request;
     }
 
-    private String buildSystemPrompt() {
+    private static String buildSystemPrompt() {
         return """
             You are an expert Java/Spring Boot developer specializing in data transformation.
             
@@ -149,24 +373,15 @@ public class LLMTransformationService {
             """;
     }
 
-    private String buildUserPrompt(List<MlMappingSuggestion> mappings, TransformationContext context) {
+    // Static and package-private so TransformationBenchmarks can call it without building the service
+    static String buildUserPrompt(List<MlMappingSuggestion> mappings, TransformationContext context,
+                                  Map<String, ?> sampleData) {
         StringBuilder prompt = new StringBuilder();
         
         prompt.append("Generate Spring Boot transformation methods for the following column mappings:\n\n");
         
         for (MlMappingSuggestion mapping : mappings) {
-            prompt.append(String.format("""
-                Mapping: %s -> %s
-                Confidence: %.2f
-                Suggested Type: %s
-                ML Reasoning: %s
-                
-                """, 
-                mapping.getSourceColumnName(),
-                mapping.getDestinationColumnName(),
-                mapping.getConfidence(),
-                mapping.getSuggestionType(),
-                mapping.getReasoning()));
+            prompt.append(formatMappingForPrompt(mapping));
         }
         
         prompt.append("\nAdditional Context:\n");
@@ -174,10 +389,11 @@ public class LLMTransformationService {
         prompt.append("Destination Database: ").append(context.getDestinationDatabaseType()).append("\n");
         prompt.append("Business Domain: ").append(context.getBusinessDomain()).append("\n");
         
-        if (context.getSampleData() != null && !context.getSampleData().isEmpty()) {
+        if (sampleData != null && !sampleData.isEmpty()) {
+            // One compact profile line per column instead of the raw sample values
             prompt.append("\nSample Data Analysis:\n");
-            context.getSampleData().forEach((column, samples) -> {
-                prompt.append(String.format("Column '%s': %s\n", column, samples.toString()));
+            sampleData.forEach((column, samples) -> {
+                prompt.append(String.format("Column '%s': %s\n", column, ColumnProfiler.promptText(column, samples)));
             });
         }
         
@@ -197,25 +413,112 @@ public class LLMTransformationService {
         return prompt.toString();
     }
 
+    private static String formatMappingForPrompt(MlMappingSuggestion mapping) {
+        return String.format("""
+            Mapping: %s -> %s
+            Confidence: %.2f
+            Suggested Type: %s
+            ML Reasoning: %s
+            
+            """, 
+            mapping.getSourceColumnName(),
+            mapping.getDestinationColumnName(),
+            mapping.getConfidence(),
+            mapping.getSuggestionType(),
+            mapping.getReasoning());
+    }
+
     /**
-     * EXAMPLE: What the LLM would generate for a complex transformation
+     * SCALABILITY: Calls the LLM once, or once per shard when the prompt is too big
+     * 
+     * Wide tables overflow the context window (see ML_vs_GPT_ARCHITECTURE_DECISION.md).
+     * Oversized prompts are split by PromptSharder into shards of related
+     * columns, sent concurrently, and the results merged with duplicates removed,
+     * so latency grows with shards / concurrency instead of with column count.
+     * At most llm.sharding.concurrency shard calls are in flight: shard i is
+     * sent when shard i - concurrency has finished.
      */
-    private LLMTransformationResponse callLLMService(LLMTransformationRequest request) {
-        try {
-            String endpoint = llmServiceUrl + "/generate-transformation-code";
-            
-            LLMTransformationResponse response = restTemplate.postForObject(
-                endpoint, request, LLMTransformationResponse.class);
-                
-            logger.info("LLM generated {} transformation methods", 
-                response.getGeneratedTransformations().size());
-                
-            return response;
-            
-        } catch (Exception e) {
-            logger.error("Failed to call LLM service: {}", e.getMessage());
-            throw new LLMServiceException("LLM transformation generation failed", e);
+    private CompletableFuture<GenerationBatch> requestTransformations(List<MlMappingSuggestion> mlMappings,
+                                                                      TransformationContext context) {
+        LLMTransformationRequest request = buildLLMRequest(mlMappings, context);
+        if (promptSharder.fits(request.getUserPrompt(), request.getSystemPrompt())) {
+            return callLLMService(request)
+                .thenApply(response -> new GenerationBatch(response.getGeneratedTransformations(), true));
+        }
+        
+        int fixedTokens = promptSharder.estimateTokens(buildSystemPrompt())
+            + promptSharder.estimateTokens(buildUserPrompt(List.of(), context, Map.of()));
+        List<PromptShard> shards = promptSharder.shard(mlMappings, context.getSampleData(),
+            context.getPrimaryKeyColumns(), LLMTransformationService::formatMappingForPrompt, fixedTokens);
+        logger.info("Prompt for {} mappings split into {} shards", mlMappings.size(), shards.size());
+        
+        List<CompletableFuture<List<GeneratedTransformation>>> calls = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            PromptShard shard = shards.get(i);
+            CompletableFuture<?> previousInLane = i < shardConcurrency
+                ? CompletableFuture.completedFuture(null) : calls.get(i - shardConcurrency);
+            calls.add(previousInLane
+                .handle((ignored, error) -> null) // A failed shard does not stop the next one
+                .thenCompose(ignored -> callLLMService(buildLLMRequest(shard.mappings(), context, shard.sampleData())))
+                .thenApply(LLMTransformationResponse::getGeneratedTransformations));
+        }
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]))
+            .handle((ignored, error) -> mergeShardResults(calls));
+    }
+
+    private GenerationBatch mergeShardResults(List<CompletableFuture<List<GeneratedTransformation>>> calls) {
+        // Merge in shard order; the same column from two shards keeps the most confident version
+        Map<String, GeneratedTransformation> merged = new LinkedHashMap<>();
+        int failedShards = 0;
+        for (CompletableFuture<List<GeneratedTransformation>> call : calls) {
+            List<GeneratedTransformation> generated;
+            try {
+                generated = call.join();
+            } catch (CompletionException e) {
+                failedShards++;
+                continue;
+            }
+            for (GeneratedTransformation transformation : generated) {
+                String key = transformation.getDestinationColumnName() != null
+                    ? transformation.getDestinationColumnName() : transformation.getMethodName();
+                merged.merge(key, transformation,
+                    (kept, candidate) -> candidate.getConfidence() > kept.getConfidence() ? candidate : kept);
+            }
         }
+        if (failedShards == calls.size()) {
+            throw new LLMServiceException("All " + calls.size() + " prompt shards failed", null);
+        }
+        if (failedShards > 0) {
+            logger.warn("{} of {} prompt shards failed; their columns fall back to templates",
+                failedShards, calls.size());
+        }
+        return new GenerationBatch(new ArrayList<>(merged.values()), failedShards == 0);
+    }
+
+    /**
+     * @param complete false if some shards failed; such results are not cached
+     */
+    private record GenerationBatch(List<GeneratedTransformation> transformations, boolean complete) {
+    }
+
+    /**
+     * EXAMPLE: What the LLM would generate for a complex transformation
+     * 
+     * Deadlines, retries, hedging and the circuit breaker live in LLMServiceClient;
+     * the future fails with LLMServiceException once those are exhausted.
+     */
+    private CompletableFuture<LLMTransformationResponse> callLLMService(LLMTransformationRequest request) {
+        long startNanos = System.nanoTime();
+        return llmServiceClient.generate(request).whenComplete((response, error) -> {
+            boolean failed = error != null;
+            pipelineMetrics.recordStage(PipelineMetrics.CALL_LLM_SERVICE, System.nanoTime() - startNanos, failed);
+            if (failed) {
+                logger.error("Failed to call LLM service: {}", error.getMessage());
+            } else {
+                logger.info("LLM generated {} transformation methods", 
+                    response.getGeneratedTransformations().size());
+            }
+        });
     }
 
     /**
@@ -224,6 +527,10 @@ public class LLMTransformationService {
     private List<GeneratedTransformation> validateGeneratedCode(
             List<GeneratedTransformation> transformations) {
         
+        if (batchCompilationEnabled && batchCodeCompiler.isAvailable()) {
+            return validateGeneratedCodeInBatch(transformations);
+        }
+        
         List<GeneratedTransformation> validated = new ArrayList<>();
         
         for (GeneratedTransformation transformation : transformations) {
@@ -234,46 +541,111 @@ public class LLMTransformationService {
                         transformation.getMethodName());
                     continue;
                 }
-                
-                // Step 2: Security scan
-                SecurityScanResult securityResult = securityScanner.scan(transformation.getJavaCode());
-                if (securityResult.hasCriticalVulnerabilities()) {
-                    logger.warn("Generated code has security vulnerabilities: {}", 
-                        transformation.getMethodName());
-                    continue;
-                }
-                
-                // Step 3: Performance analysis
-                if (!isPerformanceAcceptable(transformation)) {
-                    logger.warn("Generated code may have performance issues: {}", 
-                        transformation.getMethodName());
-                    // Still include but flag for review
-                }
-                
-                // Step 4: Business logic validation
-                if (validateBusinessLogic(transformation)) {
-                    transformation.setValidationStatus(ValidationStatus.APPROVED);
-                    transformation.setGeneratedAt(LocalDateTime.now());
-                    transformation.setLlmModel(llmModel);
-                    validated.add(transformation);
-                }
-                
             } catch (Exception e) {
                 logger.error("Validation failed for transformation: {}", 
                     transformation.getMethodName(), e);
+                continue;
+            }
+            
+            if (validateCompiledTransformation(transformation)) {
+                validated.add(transformation);
             }
         }
         
         return validated;
     }
 
+    /**
+     * PERFORMANCE: Batch variant of validateGeneratedCode
+     * 
+     * All sources are compiled in one in-memory javax.tools task, then the
+     * security scan and performance checks run in parallel on the bounded
+     * validation pool. Results are collected in input order, so the APPROVED
+     * list is identical to the sequential path.
+     */
+    private List<GeneratedTransformation> validateGeneratedCodeInBatch(
+            List<GeneratedTransformation> transformations) {
+        
+        List<String> sources = new ArrayList<>(transformations.size());
+        for (GeneratedTransformation transformation : transformations) {
+            sources.add(transformation.getJavaCode());
+        }
+        
+        // Step 1: Syntax validation for the whole batch at once
+        List<BatchCodeCompiler.CompilationOutcome> outcomes = batchCodeCompiler.compileAll(sources);
+        
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(transformations.size());
+        for (int i = 0; i < transformations.size(); i++) {
+            GeneratedTransformation transformation = transformations.get(i);
+            BatchCodeCompiler.CompilationOutcome outcome = outcomes.get(i);
+            if (!outcome.compiled()) {
+                logger.warn("Generated code fails compilation: {} {}", 
+                    transformation.getMethodName(), outcome.errors());
+                checks.add(CompletableFuture.completedFuture(false));
+                continue;
+            }
+            transformation.setCompiledBytecode(outcome.bytecode());
+            transformation.setHelperClasses(outcome.helperClasses());
+            
+            // Steps 2-4 fan out; each task only touches its own transformation
+            checks.add(CompletableFuture.supplyAsync(
+                () -> validateCompiledTransformation(transformation), validationExecutor));
+        }
+        
+        List<GeneratedTransformation> validated = new ArrayList<>();
+        for (int i = 0; i < transformations.size(); i++) {
+            if (checks.get(i).join()) {
+                validated.add(transformations.get(i));
+            }
+        }
+        
+        return validated;
+    }
+
+    /**
+     * Steps 2-4 of validation for code that already compiles.
+     * 
+     * @return true if the transformation was APPROVED
+     */
+    private boolean validateCompiledTransformation(GeneratedTransformation transformation) {
+        try {
+            // Step 2: Security scan
+            SecurityScanResult securityResult = securityScanner.scan(transformation.getJavaCode());
+            if (securityResult.hasCriticalVulnerabilities()) {
+                logger.warn("Generated code has security vulnerabilities: {}", 
+                    transformation.getMethodName());
+                return false;
+            }
+            
+            // Step 3: Performance analysis
+            if (!isPerformanceAcceptable(transformation)) {
+                logger.warn("Generated code may have performance issues: {}", 
+                    transformation.getMethodName());
+                // Still include but flag for review
+            }
+            
+            // Step 4: Business logic validation
+            if (validateBusinessLogic(transformation)) {
+                transformation.setValidationStatus(ValidationStatus.APPROVED);
+                transformation.setGeneratedAt(LocalDateTime.now());
+                transformation.setLlmModel(llmModel);
+                return true;
+            }
+            
+        } catch (Exception e) {
+            logger.error("Validation failed for transformation: {}", 
+                transformation.getMethodName(), e);
+        }
+        return false;
+    }
+
     /**
      * EXAMPLE: Generated transformation method that LLM would create
      * 
      * This shows what the system would automatically generate for
      * "customer_full_name" -> "first_name", "last_name" mapping
      */
-    public class ExampleLLMGeneratedTransformation {
+    public static class ExampleLLMGeneratedTransformation {
         
         /**
          * LLM-Generated transformation method
@@ -291,7 +663,7 @@ public class LLMTransformationService {
             generatedAt = "2025-07-30T10:30:00",
             reviewRequired = false
         )
-        public class CustomerNameTransformation {
+        public static class CustomerNameTransformation {
             
             private static final Logger logger = LoggerFactory.getLogger(CustomerNameTransformation.class);
             
@@ -361,8 +733,200 @@ public class LLMTransformationService {
                 }
             }
             
+            private NameComponents parseLastFirstFormat(String normalizedName) {
+                int comma = normalizedName.indexOf(',');
+                String lastName = normalizedName.substring(0, comma).trim();
+                String givenNames = normalizedName.substring(comma + 1).trim();
+                int space = givenNames.indexOf(' ');
+                String firstName = space < 0 ? givenNames : givenNames.substring(0, space);
+                return new NameComponents(firstName, lastName);
+            }
+            
+            private NameComponents parseFirstLastFormat(String normalizedName) {
+                String[] parts = normalizedName.split(" ");
+                String lastName = parts.length > 1 ? parts[parts.length - 1] : "";
+                return new NameComponents(parts[0], lastName);
+            }
+            
             // Additional helper methods generated by LLM...
             
+            /**
+             * PERFORMANCE: Batch variant of splitCustomerFullName for the migration row loop
+             * 
+             * Produces exactly the same first/last names as splitCustomerFullName,
+             * but with a single hand-written character scan instead of regexes,
+             * no per-row HashMap/NameComponents, and results written straight
+             * into the caller's column buffers. Timing is only taken for one in
+             * every {@code timingSampleRate} batches.
+             * 
+             * @param fullNames Source column values
+             * @param firstNames Destination buffer for "first_name"
+             * @param lastNames Destination buffer for "last_name"
+             * @param rowCount Number of rows to transform
+             */
+            public void splitCustomerFullNames(String[] fullNames, String[] firstNames,
+                                               String[] lastNames, int rowCount) {
+                int sampleRate = timingSampleRate;
+                boolean timed = sampleRate > 0 && batchCounter.getAndIncrement() % sampleRate == 0;
+                long startNanos = timed ? System.nanoTime() : 0L;
+                
+                // Scratch buffer is per batch, not per row
+                char[] scratch = new char[64];
+                for (int row = 0; row < rowCount; row++) {
+                    String fullName = fullNames[row];
+                    if (fullName == null) {
+                        firstNames[row] = "";
+                        lastNames[row] = "";
+                        continue;
+                    }
+                    if (scratch.length < fullName.length()) {
+                        scratch = new char[fullName.length()];
+                    }
+                    splitInto(fullName, scratch, firstNames, lastNames, row);
+                }
+                
+                if (timed) {
+                    logger.trace("Name splitting took {} ns for {} rows", System.nanoTime() - startNanos, rowCount);
+                }
+            }
+            
+            /**
+             * 0 disables timing, N times one in every N batches
+             */
+            public void setTimingSampleRate(int timingSampleRate) {
+                this.timingSampleRate = timingSampleRate;
+            }
+            
+            // The transformation is a shared bean, so batches from parallel partitions count concurrently
+            private volatile int timingSampleRate = 0;
+            private final AtomicLong batchCounter = new AtomicLong();
+            
+            private static final String[] NAME_TITLES = {"Dr", "Mr", "Mrs", "Ms", "Prof"};
+            private static final String[] NAME_SUFFIXES = {"Jr", "Sr", "II", "III", "IV"};
+            
+            private void splitInto(String fullName, char[] buf, String[] firstNames, String[] lastNames, int row) {
+                // String.trim() bounds
+                int begin = 0;
+                int end = fullName.length();
+                while (begin < end && fullName.charAt(begin) <= ' ') {
+                    begin++;
+                }
+                while (end > begin && fullName.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                if (begin == end) {
+                    firstNames[row] = "";
+                    lastNames[row] = "";
+                    return;
+                }
+                
+                // Collapse \s runs to one space; the trimmed ends are never \s
+                int len = 0;
+                boolean pendingSpace = false;
+                for (int i = begin; i < end; i++) {
+                    char c = fullName.charAt(i);
+                    if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                        pendingSpace = true;
+                    } else {
+                        if (pendingSpace) {
+                            buf[len++] = ' ';
+                            pendingSpace = false;
+                        }
+                        buf[len++] = c;
+                    }
+                }
+                
+                // Leading title, only when another word follows it
+                int start = 0;
+                int firstSpace = indexOf(buf, ' ', 0, len);
+                if (firstSpace > 0 && matchesWord(buf, 0, firstSpace, NAME_TITLES)) {
+                    start = firstSpace + 1;
+                }
+                
+                // Trailing suffix, only when another word precedes it
+                int stop = len;
+                int lastSpace = lastIndexOf(buf, ' ', start, len);
+                if (lastSpace >= start && matchesWord(buf, lastSpace + 1, len, NAME_SUFFIXES)) {
+                    stop = lastSpace;
+                }
+                
+                int comma = indexOf(buf, ',', start, stop);
+                if (comma < 0) {
+                    // "John Michael Doe" -> first word, last word
+                    int space = indexOf(buf, ' ', start, stop);
+                    if (space < 0) {
+                        firstNames[row] = new String(buf, start, stop - start);
+                        lastNames[row] = "";
+                    } else {
+                        int lastWord = lastIndexOf(buf, ' ', start, stop) + 1;
+                        firstNames[row] = new String(buf, start, space - start);
+                        lastNames[row] = new String(buf, lastWord, stop - lastWord);
+                    }
+                    return;
+                }
+                
+                // "Doe, John" -> trimmed text before the comma, first word after it
+                int lastBegin = start;
+                int lastEnd = comma;
+                while (lastBegin < lastEnd && buf[lastBegin] <= ' ') {
+                    lastBegin++;
+                }
+                while (lastEnd > lastBegin && buf[lastEnd - 1] <= ' ') {
+                    lastEnd--;
+                }
+                int givenBegin = comma + 1;
+                int givenEnd = stop;
+                while (givenBegin < givenEnd && buf[givenBegin] <= ' ') {
+                    givenBegin++;
+                }
+                while (givenEnd > givenBegin && buf[givenEnd - 1] <= ' ') {
+                    givenEnd--;
+                }
+                int givenSpace = indexOf(buf, ' ', givenBegin, givenEnd);
+                int firstEnd = givenSpace < 0 ? givenEnd : givenSpace;
+                firstNames[row] = new String(buf, givenBegin, firstEnd - givenBegin);
+                lastNames[row] = new String(buf, lastBegin, lastEnd - lastBegin);
+            }
+            
+            // Matches "Dr" and "Dr." style words exactly
+            private static boolean matchesWord(char[] buf, int from, int to, String[] words) {
+                int length = to - from;
+                if (length > 0 && buf[to - 1] == '.') {
+                    length--;
+                }
+                for (String word : words) {
+                    if (word.length() != length) {
+                        continue;
+                    }
+                    int i = 0;
+                    while (i < length && buf[from + i] == word.charAt(i)) {
+                        i++;
+                    }
+                    if (i == length) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            
+            private static int indexOf(char[] buf, char target, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    if (buf[i] == target) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            
+            private static int lastIndexOf(char[] buf, char target, int from, int to) {
+                for (int i = to - 1; i >= from; i--) {
+                    if (buf[i] == target) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            
             /**
              * LLM-Generated comprehensive unit tests
              */
@@ -393,30 +957,353 @@ public class LLMTransformationService {
 
     /**
      * INTEGRATION: How this enhances your current migration process
+     * 
+     * The id is generated here, so a caller that loses the process never learns
+     * it and cannot resume the run; /start-migration passes the client's id.
+     */
+    public MigrationReport performEnhancedMigration(
+            DbConnectionParams sourceParams, String sourceTableName,
+            DbConnectionParams destinationParams, String destinationTableName,
+            List<ColumnMappingDto> columnMappings) {
+        
+        return performEnhancedMigration(UUID.randomUUID().toString(),
+            sourceParams, sourceTableName, destinationParams, destinationTableName, columnMappings);
+    }
+
+    /**
+     * Same as above, with a caller-chosen id for {@link #getMigrationProgress(String)}
      */
     public MigrationReport performEnhancedMigration(
+            String migrationId,
             DbConnectionParams sourceParams, String sourceTableName,
             DbConnectionParams destinationParams, String destinationTableName,
             List<ColumnMappingDto> columnMappings) {
         
+        return performEnhancedMigration(migrationId, sourceParams, sourceTableName,
+            destinationParams, destinationTableName, columnMappings, false);
+    }
+
+    /**
+     * SCALABILITY: Resumable variant for /start-migration
+     * 
+     * With resume = true a streaming migration that failed or was interrupted
+     * (connection drop, JVM restart) continues after the last checkpointed key
+     * of every partition, with its report counters restored, instead of from
+     * row zero. Without a usable checkpoint it starts from the beginning.
+     * 
+     * The migrationId comes from the client, which generates it before the
+     * first request; a server-side id would be lost with the process it
+     * was meant to resume.
+     */
+    public MigrationReport performEnhancedMigration(
+            String migrationId,
+            DbConnectionParams sourceParams, String sourceTableName,
+            DbConnectionParams destinationParams, String destinationTableName,
+            List<ColumnMappingDto> columnMappings,
+            boolean resume) {
+        
+        if (migrationId == null || migrationId.isBlank()) {
+            throw new IllegalArgumentException("migrationId is required; the client generates it so the run can be resumed");
+        }
+        PipelineMetrics.MigrationMeter meter = pipelineMetrics.startMigration(migrationId);
+        
+        // Step 0: One profiling pass over the source table (cached), shared by the ML request and the prompt
+        ColumnProfiler.TableProfile sourceProfile = profileSourceTable(sourceParams, sourceTableName);
+        
         // Step 1: Use existing ML for initial mapping suggestions
-        List<MlMappingSuggestion> mlSuggestions = mlIntegrationService
-            .getMappingPredictions(buildMlRequest(sourceParams, destinationParams));
+        List<MlMappingSuggestion> mlSuggestions = fetchMlSuggestions(
+            sourceParams, sourceTableName, destinationParams, destinationTableName, sourceProfile);
         
         // Step 2: NEW - Generate transformation code using LLM
+        TransformationContext context = buildTransformationContext(sourceParams, destinationParams, sourceProfile);
         CompletableFuture<List<GeneratedTransformation>> llmTransformations = 
-            generateTransformationCode(mlSuggestions, buildTransformationContext(sourceParams, destinationParams));
+            generateTransformationCode(mlSuggestions, context);
         
         // Step 3: Execute migration with LLM-generated transformations
-        return executeEnhancedMigration(
+        if (streamingMigrationEnabled) {
+            // Extraction starts now; chunks are buffered only while generated code is still pending
+            PipelinedChunkTransformer transformer = new PipelinedChunkTransformer(
+                columnMappings, mlSuggestions, context, llmTransformations, meter);
+            
+            // Chunked read/transform/write; heap use does not grow with table size
+            MigrationReport report = streamingMigrationExecutor.executeParallel(
+                migrationId,
+                sourceParams, sourceTableName,
+                destinationParams, destinationTableName,
+                columnMappings, null, updateExistingRows,
+                transformer,
+                incrementalMigrationEnabled ? IncrementalMigrationState.Options.byColumn(incrementalWatermarkColumn) : null,
+                resume,
+                migrationParallelism
+            );
+            report.getMessages().add(transformer.describeOverlap());
+            report.setPipelineMetrics(meter.finish(report));
+            return report;
+        }
+        
+        MigrationReport report = executeEnhancedMigration(
             sourceParams, sourceTableName,
             destinationParams, destinationTableName,
             columnMappings, llmTransformations.get()
         );
+        report.setPipelineMetrics(meter.finish(report));
+        return report;
+    }
+
+    /**
+     * MONITORING: Live counters of a streaming migration that is still running
+     */
+    public Optional<MigrationReport> getMigrationProgress(String migrationId) {
+        return streamingMigrationExecutor.getProgress(migrationId);
+    }
+
+    /**
+     * SCALABILITY: Bulk-load script for /download-migration-queries
+     * 
+     * Reads the source table once and writes what the migration would write,
+     * transformed by the same generated code, as multi-row INSERT batches or
+     * COPY blocks. Nothing is materialized, so memory stays constant however
+     * large the table is.
+     * 
+     * @param format null picks COPY for PostgreSQL destinations, INSERT otherwise
+     * @return number of exported rows
+     */
+    public long exportMigrationScript(
+            DbConnectionParams sourceParams, String sourceTableName,
+            DbConnectionParams destinationParams, String destinationTableName,
+            List<ColumnMappingDto> columnMappings,
+            BulkLoadExporter.Format format, boolean gzip,
+            OutputStream out) throws IOException {
+        
+        ColumnProfiler.TableProfile sourceProfile = profileSourceTable(sourceParams, sourceTableName);
+        List<MlMappingSuggestion> mlSuggestions = fetchMlSuggestions(
+            sourceParams, sourceTableName, destinationParams, destinationTableName, sourceProfile);
+        TransformationContext context = buildTransformationContext(sourceParams, destinationParams, sourceProfile);
+        PipelinedChunkTransformer transformer = new PipelinedChunkTransformer(
+            columnMappings, mlSuggestions, context, generateTransformationCode(mlSuggestions, context),
+            pipelineMetrics.startMigration("export-" + UUID.randomUUID()));
+        
+        return bulkLoadExporter.export(
+            sourceParams, sourceTableName,
+            destinationParams.getDatabaseType(), destinationTableName,
+            columnMappings, transformer, format, gzip, out);
+    }
+
+    /**
+     * SCALABILITY: ML candidates for the table pair; LLM generation sees every one
+     * 
+     * Name matches are answered locally by ColumnCandidateGenerator and only
+     * the pruned candidate pairs go to the ML service. If the column lists
+     * cannot be read, the ML service scores all pairs as before.
+     * 
+     * @param sourceProfile sent with the ML request in place of raw sample values; null if unavailable
+     */
+    private List<MlMappingSuggestion> fetchMlSuggestions(DbConnectionParams sourceParams, String sourceTableName,
+                                                         DbConnectionParams destinationParams, String destinationTableName,
+                                                         ColumnProfiler.TableProfile sourceProfile) {
+        List<SchemaColumn> sourceColumns;
+        List<SchemaColumn> destinationColumns;
+        try {
+            sourceColumns = columnCandidateGenerator.tableColumns(sourceParams, sourceTableName);
+            destinationColumns = columnCandidateGenerator.tableColumns(destinationParams, destinationTableName);
+        } catch (SQLException e) {
+            logger.warn("Could not read columns of {} / {}, scoring all pairs: {}",
+                sourceTableName, destinationTableName, e.getMessage());
+            sourceColumns = List.of();
+            destinationColumns = List.of();
+        }
+        if (sourceColumns.isEmpty() || destinationColumns.isEmpty()) {
+            return mlIntegrationService.getMappingPredictions(
+                buildMlRequest(sourceParams, destinationParams, sourceProfile));
+        }
+        return columnCandidateGenerator.predict(sourceColumns, destinationColumns,
+            plan -> mlIntegrationService.getMappingPredictions(
+                buildMlRequest(sourceParams, destinationParams, sourceProfile, plan.remoteCandidates())));
+    }
+
+    /**
+     * PERFORMANCE: Profile of the source table for prompts and ML requests
+     * 
+     * A single bounded scan per table, cached by ColumnProfiler and run on its
+     * own threads. A cached profile is used at once; a scan is waited for at
+     * most profiling.max-wait-ms, so a large table never holds up extraction.
+     * Returns null if profiling is disabled, fails or is still running, in
+     * which case the context keeps its raw sample data; a scan that is still
+     * running completes in the background and serves the next run from cache.
+     */
+    private ColumnProfiler.TableProfile profileSourceTable(DbConnectionParams sourceParams, String sourceTableName) {
+        if (!columnProfilingEnabled) {
+            return null;
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<ColumnProfiler.TableProfile> profile = columnProfiler.profileAsync(sourceParams, sourceTableName);
+        profile.whenComplete((result, error) -> pipelineMetrics.recordStage(
+            PipelineMetrics.PROFILE_SOURCE_TABLE, System.nanoTime() - startNanos, error != null));
+        try {
+            return profile.get(profileMaxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.info("Profile of {} not ready after {} ms, using raw sample data; it is cached when the scan ends",
+                sourceTableName, profileMaxWaitMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            logger.warn("Profiling {} failed, using raw sample data: {}", sourceTableName, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private TransformationContext buildTransformationContext(DbConnectionParams sourceParams,
+                                                             DbConnectionParams destinationParams,
+                                                             ColumnProfiler.TableProfile sourceProfile) {
+        TransformationContext context = buildTransformationContext(sourceParams, destinationParams);
+        if (sourceProfile != null) {
+            // ColumnProfile.toString() is its prompt line, so PromptSharder sizes shards correctly
+            context.setSampleData(new LinkedHashMap<>(sourceProfile.columns()));
+        }
+        return context;
+    }
+
+    /**
+     * PIPELINING: Chunk transformer that does not block extraction on the LLM
+     * 
+     * Until generateTransformationCode completes, isReady() is false and the
+     * executor keeps extracting into its bounded buffer. If no mapping needs
+     * generated code, it is ready immediately. Columns the LLM produced nothing
+     * for (or all columns, if generation failed) fall back to
+     * fallbackToTemplateGeneration individually.
+     */
+    private class PipelinedChunkTransformer implements ChunkTransformer {
+        
+        private final List<ColumnMappingDto> columnMappings;
+        private final List<MlMappingSuggestion> mlSuggestions;
+        private final TransformationContext context;
+        private final CompletableFuture<List<GeneratedTransformation>> generation;
+        private final PipelineMetrics.MigrationMeter meter;
+        private final ChunkTransformer directCopy;
+        private final boolean needsGeneratedCode;
+        private final long startedAt = System.nanoTime();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private volatile long generationFinishedAt;
+        private volatile List<GeneratedTransformation> transformations;
+        private volatile BatchChunkPlan batchPlan;
+        
+        PipelinedChunkTransformer(List<ColumnMappingDto> columnMappings,
+                                  List<MlMappingSuggestion> mlSuggestions,
+                                  TransformationContext context,
+                                  CompletableFuture<List<GeneratedTransformation>> generation,
+                                  PipelineMetrics.MigrationMeter meter) {
+            this.columnMappings = columnMappings;
+            this.mlSuggestions = mlSuggestions;
+            this.context = context;
+            this.generation = generation;
+            this.meter = meter;
+            this.directCopy = ChunkTransformer.directCopy(columnMappings);
+            this.needsGeneratedCode = columnMappings.stream().anyMatch(this::needsGeneratedCode);
+            generation.whenComplete((result, error) -> generationFinishedAt = System.nanoTime());
+        }
+        
+        @Override
+        public boolean isReady() {
+            return !needsGeneratedCode || generation.isDone();
+        }
+        
+        @Override
+        public void awaitReady() {
+            if (!needsGeneratedCode || transformations != null) {
+                return;
+            }
+            long waitStart = System.nanoTime();
+            synchronized (this) {
+                if (transformations == null) {
+                    List<GeneratedTransformation> generated;
+                    try {
+                        generated = generation.join();
+                    } catch (CompletionException | CancellationException e) {
+                        logger.warn("LLM generation failed, using templates for all columns: {}", e.getMessage());
+                        generated = List.of();
+                    }
+                    List<GeneratedTransformation> complete = withTemplateFallbacks(generated);
+                    batchPlan = batchRuntimeEnabled
+                        ? batchTransformationRuntime.plan(columnMappings, complete)
+                        : null;
+                    transformations = complete;
+                }
+            }
+            blockedNanos.addAndGet(System.nanoTime() - waitStart);
+        }
+        
+        @Override
+        public void transform(Object[][] sourceRows, int rowCount, Object[][] destinationRows) {
+            directCopy.transform(sourceRows, rowCount, destinationRows);
+            if (!needsGeneratedCode) {
+                return;
+            }
+            awaitReady();
+            // Columnar path: loaded methods run over ColumnBatches, no per-row maps
+            List<GeneratedTransformation> rowAtATime = transformations;
+            if (batchPlan != null) {
+                batchPlan.execute(sourceRows, rowCount, destinationRows, meter);
+                rowAtATime = batchPlan.rowAtATime();
+            }
+            // One transformation at a time over the whole chunk, so each generated method gets its own timer
+            for (GeneratedTransformation transformation : rowAtATime) {
+                List<GeneratedTransformation> single = List.of(transformation);
+                long startNanos = System.nanoTime();
+                boolean failed = true;
+                try {
+                    for (int row = 0; row < rowCount; row++) {
+                        applyGeneratedTransformations(columnMappings, sourceRows[row], destinationRows[row], single);
+                    }
+                    failed = false;
+                } finally {
+                    meter.recordMethod(transformation.getMethodName(), System.nanoTime() - startNanos, rowCount, failed);
+                }
+            }
+        }
+        
+        String describeOverlap() {
+            if (!needsGeneratedCode) {
+                return "Pipeline: no mapping needed generated code; extraction never waited for the LLM";
+            }
+            long generationMillis = TimeUnit.NANOSECONDS.toMillis(generationFinishedAt - startedAt);
+            long blockedMillis = TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+            return String.format(
+                "Pipeline: LLM generation took %d ms, extraction was blocked %d ms, overlap saved %d ms",
+                generationMillis, blockedMillis, Math.max(0, generationMillis - blockedMillis));
+        }
+        
+        private boolean needsGeneratedCode(ColumnMappingDto mapping) {
+            return mapping.getTransformationType() != null && !"NONE".equals(mapping.getTransformationType());
+        }
+        
+        // Per-column fallback: only columns without generated code get a template
+        private List<GeneratedTransformation> withTemplateFallbacks(List<GeneratedTransformation> generated) {
+            List<GeneratedTransformation> complete = new ArrayList<>(generated);
+            for (ColumnMappingDto mapping : columnMappings) {
+                if (!needsGeneratedCode(mapping)) {
+                    continue;
+                }
+                String column = mapping.getDestinationColumnName();
+                boolean covered = generated.stream()
+                    .anyMatch(t -> column.equals(t.getDestinationColumnName()));
+                if (!covered) {
+                    List<MlMappingSuggestion> columnSuggestions = mlSuggestions.stream()
+                        .filter(suggestion -> column.equals(suggestion.getDestinationColumnName()))
+                        .toList();
+                    complete.addAll(fallbackToTemplateGeneration(columnSuggestions, context));
+                }
+            }
+            return complete;
+        }
     }
 
     /**
      * FUTURE CAPABILITIES: Self-improving transformation generation
+     * 
+     * Feedback is queued and sent to /feedback in batches by LLMServiceClient,
+     * so callers never wait for the LLM service.
      */
     public void learnFromTransformationFeedback(String transformationId, 
                                                 TransformationFeedback feedback) {
@@ -427,9 +1314,11 @@ public class LLMTransformationService {
         feedbackRequest.setUserCorrections(feedback.getUserCorrections());
         feedbackRequest.setPerformanceMetrics(feedback.getPerformanceMetrics());
         
-        restTemplate.postForObject(llmServiceUrl + "/feedback", feedbackRequest, Void.class);
-        
-        logger.info("Sent feedback for transformation {} to improve future generations", transformationId);
+        if (llmServiceClient.submitFeedback(feedbackRequest)) {
+            logger.debug("Queued feedback for transformation {} to improve future generations", transformationId);
+        } else {
+            logger.warn("LLM feedback queue full, dropped feedback for transformation {}", transformationId);
+        }
     }
 }
 
@@ -450,6 +1339,7 @@ class LLMTransformationRequest {
 
 class GeneratedTransformation {
     private String methodName;
+    private String destinationColumnName; // Column this transformation produces
     private String javaCode;
     private String testCode;
     private String documentation;
@@ -457,9 +1347,18 @@ class GeneratedTransformation {
     private String llmModel;
     private LocalDateTime generatedAt;
     private ValidationStatus validationStatus;
+    private byte[] compiledBytecode; // Persisted by TransformationCache alongside the source
+    private Map<String, byte[]> helperClasses; // Nested and helper classes of compiledBytecode, by binary name
     // ... getters and setters
 }
 
+record LLMGenerationStats(int activeGenerations,
+                          int queuedGenerations,
+                          int inFlightFingerprints,
+                          long coalescedRequests,
+                          long shedRequests) {
+}
+
 @Retention(RetentionPolicy.RUNTIME)
 @interface LLMGenerated {
     String model();
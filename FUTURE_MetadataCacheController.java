@@ -0,0 +1,46 @@
+// FUTURE ENHANCEMENT: Invalidation Endpoint for the /metadata Cache
+// Lets the UI force a fresh catalog scan after a schema change made outside the tool.
+
+package com.example.dynamic_migration_engine.controller;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.dynamic_migration_engine.service.SchemaMetadataCache;
+
+/**
+ * PERFORMANCE: Manages {@link SchemaMetadataCache}
+ *
+ * GET    /api/migration/metadata-cache                -> hit/miss counters
+ * DELETE /api/migration/metadata-cache/{databaseName} -> drop cached results that include this database
+ * DELETE /api/migration/metadata-cache                -> drop everything
+ */
+@RestController
+@RequestMapping("/api/migration")
+@CrossOrigin(origins = "http://localhost:4200")
+public class MetadataCacheController {
+
+    private final SchemaMetadataCache metadataCache;
+
+    public MetadataCacheController(SchemaMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    @GetMapping("/metadata-cache")
+    public SchemaMetadataCache.MetadataCacheStats getStats() {
+        return metadataCache.getStats();
+    }
+
+    @DeleteMapping("/metadata-cache/{databaseName}")
+    public int invalidate(@PathVariable String databaseName) {
+        return metadataCache.invalidate(databaseName);
+    }
+
+    @DeleteMapping("/metadata-cache")
+    public void invalidateAll() {
+        metadataCache.invalidateAll();
+    }
+}
@@ -0,0 +1,318 @@
+// FUTURE ENHANCEMENT: Crash-Safe Checkpoints for Long-Running Migrations
+// Lets /start-migration resume a failed or interrupted streaming migration
+// from its last durable checkpoint instead of row zero.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SCALABILITY: Durable progress of a streaming migration
+ *
+ * A checkpoint holds the migration's slices (whole table, key ranges or hash
+ * buckets) and, per slice, the last key whose chunk was committed together
+ * with the report counters at that moment and the key column's JDBC type,
+ * which rebinds keys that have no typed encoding of their own (see
+ * {@link StreamingMigrationExecutor#bindKey}). Key and counters are captured
+ * in the same step, so a resumed run neither re-counts nor re-writes the
+ * rows before that key.
+ *
+ * Writes go to a temp file that is fsync'd and atomically renamed, so a crash
+ * leaves either the previous or the new checkpoint, never a torn one. They are
+ * throttled to one per {@code migration.checkpoint.interval-ms}; a crash loses
+ * at most that much work per slice (see "Checkpointed Migrations" in
+ * DATA_ANALYSIS_TOOL_DOCUMENTATION.md for the trade-off).
+ *
+ * Resume is only possible with a key column: a keyless cursor has no position
+ * that survives a restart.
+ */
+@Component
+public class MigrationCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationCheckpointStore.class);
+
+    private static final int FILE_FORMAT_VERSION = 2;
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private final Path directory;
+    private final long intervalMillis;
+
+    public MigrationCheckpointStore(@Value("${migration.checkpoint.directory:./migration-checkpoints}") String directory,
+                                    @Value("${migration.checkpoint.interval-ms:10000}") long intervalMillis) {
+        this.directory = Paths.get(directory);
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Identifies what is being migrated; a checkpoint is only resumed for the same tables and mappings
+     */
+    static String fingerprint(DbConnectionParams sourceParams, String sourceTableName,
+                              DbConnectionParams destinationParams, String destinationTableName,
+                              List<ColumnMappingDto> columnMappings, String keyColumn) {
+        MessageDigest digest = sha256();
+        List<String> parts = new ArrayList<>(List.of(
+            describe(sourceParams), sourceTableName, describe(destinationParams), destinationTableName,
+            String.valueOf(keyColumn)));
+        for (ColumnMappingDto mapping : columnMappings) {
+            parts.add(mapping.getSourceColumnName() + "->" + mapping.getDestinationColumnName()
+                + ":" + mapping.getTransformationType());
+        }
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Starts a fresh checkpoint; the slice layout is written immediately so a
+     * resumed run uses the same ranges even if the table grew meanwhile
+     */
+    MigrationCheckpoint start(String migrationId, String fingerprint, List<SourceSlice> slices) {
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(this, migrationId, fingerprint, slices,
+            new Object[slices.size()], new long[slices.size()][], new boolean[slices.size()]);
+        checkpoint.flush();
+        return checkpoint;
+    }
+
+    /**
+     * Loads the last durable checkpoint of a migration, with every slice
+     * positioned after its last committed key
+     */
+    Optional<MigrationCheckpoint> resume(String migrationId, String fingerprint) {
+        Path file = checkpointFile(migrationId);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(raw)) {
+            if (in.readInt() != FILE_FORMAT_VERSION) {
+                logger.warn("Checkpoint {} was written with another format; not resuming", file);
+                return Optional.empty();
+            }
+            if (!in.readUTF().equals(fingerprint)) {
+                logger.warn("Checkpoint of migration {} belongs to other tables or mappings; not resuming", migrationId);
+                return Optional.empty();
+            }
+            int count = in.readInt();
+            List<SourceSlice> slices = new ArrayList<>(count);
+            Object[] keys = new Object[count];
+            long[][] counters = new long[count][];
+            boolean[] completed = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                String description = in.readUTF();
+                String predicate = in.readBoolean() ? in.readUTF() : null;
+                int parameterCount = in.readInt();
+                List<Object> parameters = new ArrayList<>(parameterCount);
+                for (int p = 0; p < parameterCount; p++) {
+                    parameters.add(IncrementalMigrationState.readValue(in));
+                }
+                boolean hashBucket = in.readBoolean();
+                completed[i] = in.readBoolean();
+                int keySqlType = in.readInt();
+                keys[i] = IncrementalMigrationState.readValue(in);
+                if (in.readBoolean()) {
+                    counters[i] = new long[MigrationProgress.COUNTER_COUNT];
+                    for (int c = 0; c < counters[i].length; c++) {
+                        counters[i][c] = in.readLong();
+                    }
+                }
+                SourceSlice slice = SourceSlice.restore(description, predicate, parameters, hashBucket);
+                slice.resumeAfterKey = keys[i];
+                slice.keySqlType = keySqlType;
+                slices.add(slice);
+            }
+            return Optional.of(new MigrationCheckpoint(this, migrationId, fingerprint, slices, keys, counters, completed));
+        } catch (IOException e) {
+            logger.warn("Failed to read checkpoint {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes the checkpoint of a migration that completed
+     */
+    void delete(String migrationId) {
+        try {
+            Files.deleteIfExists(checkpointFile(migrationId));
+        } catch (IOException e) {
+            logger.warn("Failed to delete checkpoint of migration {}: {}", migrationId, e.getMessage());
+        }
+    }
+
+    long intervalMillis() {
+        return intervalMillis;
+    }
+
+    void write(MigrationCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + 128 * checkpoint.slices.size());
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(FILE_FORMAT_VERSION);
+            out.writeUTF(checkpoint.fingerprint);
+            out.writeInt(checkpoint.slices.size());
+            for (int i = 0; i < checkpoint.slices.size(); i++) {
+                SourceSlice slice = checkpoint.slices.get(i);
+                out.writeUTF(slice.description);
+                out.writeBoolean(slice.predicate != null);
+                if (slice.predicate != null) {
+                    out.writeUTF(slice.predicate);
+                }
+                out.writeInt(slice.parameters.size());
+                for (Object parameter : slice.parameters) {
+                    IncrementalMigrationState.writeValue(out, parameter);
+                }
+                out.writeBoolean(slice.hashBucket);
+                out.writeBoolean(checkpoint.completed[i]);
+                out.writeInt(slice.keySqlType);
+                IncrementalMigrationState.writeValue(out, checkpoint.committedKeys[i]);
+                out.writeBoolean(checkpoint.committedCounters[i] != null);
+                if (checkpoint.committedCounters[i] != null) {
+                    for (long counter : checkpoint.committedCounters[i]) {
+                        out.writeLong(counter);
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(directory);
+        Path file = checkpointFile(checkpoint.migrationId);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true); // Data on disk before the rename makes it visible
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel parent = FileChannel.open(directory, StandardOpenOption.READ)) {
+            parent.force(true); // Makes the rename itself durable on Linux
+        } catch (IOException e) {
+            // Directories cannot be opened for fsync on every platform
+        }
+    }
+
+    private Path checkpointFile(String migrationId) {
+        return directory.resolve(migrationId.replaceAll("[^A-Za-z0-9._-]", "_") + CHECKPOINT_SUFFIX);
+    }
+
+    private static String describe(DbConnectionParams params) {
+        return params.getDatabaseType() + "://" + params.getHostname() + ":" + params.getPort()
+            + "/" + params.getDatabaseName();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
+
+/**
+ * Checkpoint of one running migration. Partition workers report commits
+ * concurrently; the file is rewritten at most once per interval.
+ */
+final class MigrationCheckpoint {
+    private static final Logger logger = LoggerFactory.getLogger(MigrationCheckpoint.class);
+
+    final String migrationId;
+    final String fingerprint;
+    final List<SourceSlice> slices;
+    final Object[] committedKeys;
+    final long[][] committedCounters; // MigrationProgress counters at committedKeys, null before the first commit
+    final boolean[] completed;
+    private final MigrationCheckpointStore store;
+    private long lastWriteMillis = System.currentTimeMillis();
+
+    MigrationCheckpoint(MigrationCheckpointStore store, String migrationId, String fingerprint,
+                        List<SourceSlice> slices, Object[] committedKeys, long[][] committedCounters,
+                        boolean[] completed) {
+        this.store = store;
+        this.migrationId = migrationId;
+        this.fingerprint = fingerprint;
+        this.slices = slices;
+        this.committedKeys = committedKeys;
+        this.committedCounters = committedCounters;
+        this.completed = completed;
+    }
+
+    /**
+     * Everything in {@code slice} up to and including {@code key} is committed
+     */
+    synchronized void committed(SourceSlice slice, Object key, MigrationProgress progress) {
+        int index = indexOf(slice);
+        committedKeys[index] = key;
+        committedCounters[index] = progress.counters();
+        if (System.currentTimeMillis() - lastWriteMillis >= store.intervalMillis()) {
+            flush();
+        }
+    }
+
+    synchronized void completed(SourceSlice slice, MigrationProgress progress) {
+        int index = indexOf(slice);
+        completed[index] = true;
+        committedCounters[index] = progress.counters();
+    }
+
+    synchronized boolean isCompleted(int index) {
+        return completed[index];
+    }
+
+    /**
+     * Counters to start slice {@code index} from; zero unless a commit was checkpointed
+     */
+    synchronized long[] counters(int index) {
+        return committedCounters[index] != null ? committedCounters[index].clone()
+            : new long[MigrationProgress.COUNTER_COUNT];
+    }
+
+    /**
+     * Writes the last committed positions now; called on the interval and when a run ends unfinished
+     */
+    synchronized void flush() {
+        try {
+            store.write(this);
+        } catch (IOException e) {
+            // The run continues; a crash resumes from the previous checkpoint
+            logger.warn("Failed to write checkpoint of migration {}: {}", migrationId, e.getMessage());
+        }
+        lastWriteMillis = System.currentTimeMillis();
+    }
+
+    private int indexOf(SourceSlice slice) {
+        for (int i = 0; i < slices.size(); i++) {
+            if (slices.get(i) == slice) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Slice " + slice.description + " is not part of this checkpoint");
+    }
+}
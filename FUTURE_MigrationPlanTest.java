@@ -0,0 +1,171 @@
+// FUTURE ENHANCEMENT: Tests for Identifier Quoting in the Streaming Migration SQL
+// Belongs in the backend's test source set (src/test/java) next to StreamingMigrationExecutor.
+// The JDBC objects are small dynamic proxies, so no database or mocking library is needed.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.junit.jupiter.api.Test;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MigrationPlanTest {
+
+    @Test
+    void quoteIdentifierDoublesEmbeddedQuotes() {
+        assertEquals("\"we\"\"ird\"", MigrationPlan.quoteIdentifier("\"", "we\"ird"));
+        assertEquals("`a``b`", MigrationPlan.quoteIdentifier("`", "a`b"));
+        assertEquals("plain", MigrationPlan.quoteIdentifier("", "plain"));
+    }
+
+    @Test
+    void schemaQualifiedNameIsQuotedPartByPart() throws SQLException {
+        FakeDatabase database = new FakeDatabase("\"", true).table("dbo", "customers");
+        assertEquals("\"dbo\".\"customers\"", MigrationPlan.qualifiedTableName(database.connection(), "dbo.customers"));
+        assertEquals("\"dbo\".\"customers\"", MigrationPlan.qualifiedTableName(database.connection(), "DBO.Customers"));
+    }
+
+    @Test
+    void resolvedNameIsInTheStoredCaseForMetadataLookups() throws SQLException {
+        FakeDatabase database = new FakeDatabase("\"", true).table("dbo", "customers");
+        MigrationPlan.TableName table = MigrationPlan.resolveTable(database.connection(), "DBO.Customers");
+        assertEquals("db", table.catalog());
+        assertEquals("dbo", table.schema());
+        assertEquals("customers", table.table());
+    }
+
+    @Test
+    void quotedNameHasItsQuotesDoubled() throws SQLException {
+        FakeDatabase database = new FakeDatabase("\"", false).table("public", "order\"lines");
+        assertEquals("\"order\"\"lines\"", MigrationPlan.qualifiedTableName(database.connection(), "order\"lines"));
+    }
+
+    @Test
+    void unknownTableIsRejectedBeforeAnySqlIsBuilt() {
+        FakeDatabase database = new FakeDatabase("\"", true).table("dbo", "customers");
+        assertThrows(SQLException.class,
+            () -> MigrationPlan.qualifiedTableName(database.connection(), "customers; DROP TABLE customers"));
+        assertEquals(List.of(), database.statements);
+    }
+
+    @Test
+    void partitionQueryUsesResolvedTableAndQuotedKey() throws SQLException {
+        FakeDatabase source = new FakeDatabase("\"", false).table("dbo", "customers");
+        FakeDatabase destination = new FakeDatabase("\"", false).table("crm", "client\"s");
+        MigrationPlan plan = MigrationPlan.of("dbo.customers", "client\"s",
+                List.of(mapping("customer\"id", "id")), "customer\"id")
+            .resolveTables(source.connection(), destination.connection());
+
+        SourceSlice.partition(source.connection(), plan, 4);
+
+        assertEquals("\"client\"\"s\"", plan.quotedDestinationTable);
+        assertEquals(List.of("SELECT MIN(\"customer\"\"id\"), MAX(\"customer\"\"id\") FROM \"dbo\".\"customers\""),
+            source.statements);
+    }
+
+    private static ColumnMappingDto mapping(String sourceColumn, String destinationColumn) {
+        ColumnMappingDto mapping = new ColumnMappingDto();
+        mapping.setSourceColumnName(sourceColumn);
+        mapping.setDestinationColumnName(destinationColumn);
+        return mapping;
+    }
+
+    /**
+     * Catalog of (schema, table) pairs behind a proxied Connection; records
+     * every statement it prepares and answers them with an empty aggregate row
+     */
+    private static final class FakeDatabase {
+        private final String quote;
+        private final boolean storesLowerCase;
+        private final List<String[]> tables = new ArrayList<>();
+        final List<String> statements = new ArrayList<>();
+
+        FakeDatabase(String quote, boolean storesLowerCase) {
+            this.quote = quote;
+            this.storesLowerCase = storesLowerCase;
+        }
+
+        FakeDatabase table(String schema, String table) {
+            tables.add(new String[] {schema, table});
+            return this;
+        }
+
+        Connection connection() {
+            DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) -> switch (method) {
+                case "getIdentifierQuoteString" -> quote;
+                case "getSearchStringEscape" -> "\\";
+                case "supportsSchemasInDataManipulation" -> true;
+                case "storesLowerCaseIdentifiers" -> storesLowerCase;
+                case "storesUpperCaseIdentifiers" -> false;
+                case "getDatabaseProductName" -> "PostgreSQL";
+                case "getTables" -> tablesMatching(unescape((String) args[1]), unescape((String) args[2]));
+                default -> throw new UnsupportedOperationException(method);
+            });
+            return proxy(Connection.class, (method, args) -> switch (method) {
+                case "getMetaData" -> metaData;
+                case "getCatalog" -> "db";
+                case "prepareStatement" -> {
+                    statements.add((String) args[0]);
+                    yield proxy(PreparedStatement.class, (statementMethod, statementArgs) -> switch (statementMethod) {
+                        case "executeQuery" -> resultSet(List.<Object[]>of(new Object[] {null, null}).iterator());
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(statementMethod);
+                    });
+                }
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        private ResultSet tablesMatching(String schema, String table) {
+            List<Object[]> rows = new ArrayList<>();
+            for (String[] entry : tables) {
+                if ((schema == null || schema.equals(entry[0])) && table.equals(entry[1])) {
+                    rows.add(new Object[] {"db", entry[0], entry[1]});
+                }
+            }
+            return resultSet(rows.iterator());
+        }
+
+        private static String unescape(String pattern) {
+            return pattern == null ? null : pattern.replace("\\_", "_").replace("\\%", "%").replace("\\\\", "\\");
+        }
+
+        private static ResultSet resultSet(Iterator<Object[]> rows) {
+            Object[][] current = new Object[1][];
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> {
+                    current[0] = rows.hasNext() ? rows.next() : null;
+                    yield current[0] != null;
+                }
+                case "getObject" -> current[0][(Integer) args[0] - 1];
+                case "getString" -> switch ((String) args[0]) {
+                    case "TABLE_CAT" -> current[0][0];
+                    case "TABLE_SCHEM" -> current[0][1];
+                    default -> current[0][2];
+                };
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        private interface Handler {
+            Object handle(String method, Object[] args) throws Exception;
+        }
+
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (self, method, args) -> handler.handle(method.getName(), args)));
+        }
+    }
+}
@@ -0,0 +1,322 @@
+// FUTURE ENHANCEMENT: Compact Columnar Store for ML Mapping Suggestions
+// For warehouse schemas the all-pairs candidate list from the ML service runs
+// into millions of MlMappingSuggestion objects. This keeps them in flat
+// primitive arrays and only builds MlMappingSuggestion objects for the
+// entries that are actually returned in the /metadata response.
+
+package com.example.dynamic_migration_engine.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PERFORMANCE: Primitive-specialized source x destination suggestion matrix
+ *
+ * Layout (one slot per candidate pair):
+ * - int source / destination column ids, interned through {@link Dictionary}
+ * - float confidence
+ * - short suggestion type id and int reasoning id (both interned; reasoning
+ *   text from the ML service is templated, so it repeats heavily)
+ *
+ * {@link #read(JsonParser)} fills the matrix straight from the ML service's
+ * JSON array, so the all-pairs list never exists as objects;
+ * {@link #fromSuggestions(List)} is for lists that are already materialized
+ * and only saves on what is kept afterwards.
+ *
+ * After {@link #index(int)} the top-k candidates of every source column are
+ * kept in a CSR-style array, so {@link #topK(String)} is an O(1) lookup plus
+ * an O(k) copy. Entries are ordered by confidence, then insertion order, so
+ * results are deterministic.
+ *
+ * Pairs without a source or destination column name cannot be mapped and
+ * are dropped on add.
+ *
+ * Not thread-safe while being filled; read-only use after index() is safe.
+ */
+public class MlSuggestionMatrix {
+
+    private final Dictionary sourceColumns = new Dictionary();
+    private final Dictionary destinationColumns = new Dictionary();
+    private final Dictionary suggestionTypes = new Dictionary();
+    private final Dictionary reasonings = new Dictionary();
+
+    private int[] source;
+    private int[] destination;
+    private float[] confidence;
+    private short[] suggestionType;
+    private int[] reasoning;
+    private int size;
+    private int skipped; // Pairs dropped for a missing column name
+
+    // Top-k index: entries of source column s are topEntries[topOffsets[s] .. topOffsets[s + 1])
+    private int[] topOffsets;
+    private int[] topEntries;
+    private int indexedK;
+
+    public MlSuggestionMatrix() {
+        this(1024);
+    }
+
+    public MlSuggestionMatrix(int expectedPairs) {
+        int capacity = Math.max(16, expectedPairs);
+        source = new int[capacity];
+        destination = new int[capacity];
+        confidence = new float[capacity];
+        suggestionType = new short[capacity];
+        reasoning = new int[capacity];
+    }
+
+    public static MlSuggestionMatrix fromSuggestions(List<MlMappingSuggestion> suggestions) {
+        MlSuggestionMatrix matrix = new MlSuggestionMatrix(suggestions.size());
+        for (MlMappingSuggestion suggestion : suggestions) {
+            matrix.add(suggestion.getSourceColumnName(), suggestion.getDestinationColumnName(),
+                suggestion.getConfidence() == null ? 0.0 : suggestion.getConfidence(),
+                suggestion.getSuggestionType(), suggestion.getReasoning());
+        }
+        return matrix;
+    }
+
+    /**
+     * Decodes a JSON array of suggestion objects (the MlMappingSuggestion
+     * field names) into a new matrix, one pair at a time. Unknown fields are
+     * skipped. The parser must be positioned before or at the array start.
+     */
+    public static MlSuggestionMatrix read(JsonParser parser) throws IOException {
+        MlSuggestionMatrix matrix = new MlSuggestionMatrix();
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of mapping suggestions, got " + token);
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String sourceColumnName = null;
+            String destinationColumnName = null;
+            double pairConfidence = 0.0;
+            String type = null;
+            String reasoningText = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                boolean isNull = value == JsonToken.VALUE_NULL;
+                switch (field) {
+                    case "sourceColumnName" -> sourceColumnName = isNull ? null : parser.getText();
+                    case "destinationColumnName" -> destinationColumnName = isNull ? null : parser.getText();
+                    case "confidence" -> pairConfidence = isNull ? 0.0 : parser.getValueAsDouble();
+                    case "suggestionType" -> type = isNull ? null : parser.getText();
+                    case "reasoning" -> reasoningText = isNull ? null : parser.getText();
+                    default -> parser.skipChildren();
+                }
+            }
+            matrix.add(sourceColumnName, destinationColumnName, pairConfidence, type, reasoningText);
+        }
+        return matrix;
+    }
+
+    /**
+     * Appends one candidate pair. Invalidates the top-k index. A pair with a
+     * null source or destination column name is dropped.
+     */
+    public void add(String sourceColumnName, String destinationColumnName, double pairConfidence,
+                    String type, String reasoningText) {
+        if (sourceColumnName == null || destinationColumnName == null) {
+            skipped++;
+            return;
+        }
+        if (size == source.length) {
+            int capacity = size + (size >> 1);
+            source = Arrays.copyOf(source, capacity);
+            destination = Arrays.copyOf(destination, capacity);
+            confidence = Arrays.copyOf(confidence, capacity);
+            suggestionType = Arrays.copyOf(suggestionType, capacity);
+            reasoning = Arrays.copyOf(reasoning, capacity);
+        }
+        int typeId = suggestionTypes.intern(type);
+        if (typeId > Short.MAX_VALUE) {
+            throw new IllegalStateException("More than " + Short.MAX_VALUE + " distinct suggestion types");
+        }
+        source[size] = sourceColumns.intern(sourceColumnName);
+        destination[size] = destinationColumns.intern(destinationColumnName);
+        confidence[size] = (float) pairConfidence;
+        suggestionType[size] = (short) typeId;
+        reasoning[size] = reasonings.intern(reasoningText);
+        size++;
+        topOffsets = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of pairs dropped because a column name was missing
+     */
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Builds the per-source top-k index. O(n * k) time, O(sources * k) memory.
+     */
+    public MlSuggestionMatrix index(int k) {
+        int sources = sourceColumns.size();
+        int[] offsets = new int[sources + 1];
+        int[] entries = new int[sources * k];
+        int[] counts = new int[sources];
+
+        // Keep each source's best k entries sorted by insertion (k is small, typically <= 10)
+        for (int entry = 0; entry < size; entry++) {
+            int s = source[entry];
+            int base = s * k;
+            int count = counts[s];
+            int position = count;
+            while (position > 0 && ranksBefore(entry, entries[base + position - 1])) {
+                position--;
+            }
+            if (position >= k) {
+                continue;
+            }
+            int last = Math.min(count, k - 1);
+            System.arraycopy(entries, base + position, entries, base + position + 1, last - position);
+            entries[base + position] = entry;
+            counts[s] = Math.min(count + 1, k);
+        }
+
+        // Compact into CSR form
+        int written = 0;
+        for (int s = 0; s < sources; s++) {
+            offsets[s] = written;
+            System.arraycopy(entries, s * k, entries, written, counts[s]);
+            written += counts[s];
+        }
+        offsets[sources] = written;
+
+        this.topOffsets = offsets;
+        this.topEntries = Arrays.copyOf(entries, written);
+        this.indexedK = k;
+        return this;
+    }
+
+    /**
+     * Entry ids of the best candidates for a source column, best first.
+     * Requires {@link #index(int)}.
+     */
+    public int[] topK(String sourceColumnName) {
+        requireIndex();
+        int s = sourceColumns.id(sourceColumnName);
+        if (s < 0) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(topEntries, topOffsets[s], topOffsets[s + 1]);
+    }
+
+    /**
+     * Entry ids with confidence >= threshold, in insertion order
+     */
+    public int[] filter(double minConfidence) {
+        float threshold = (float) minConfidence;
+        int[] matches = new int[size];
+        int count = 0;
+        for (int entry = 0; entry < size; entry++) {
+            if (confidence[entry] >= threshold) {
+                matches[count++] = entry;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Builds the /metadata payload: at most {@code k} suggestions per source
+     * column (k as passed to index()), each at or above {@code minConfidence}.
+     * Only these entries are materialized as MlMappingSuggestion objects.
+     */
+    public List<MlMappingSuggestion> toSuggestions(double minConfidence) {
+        requireIndex();
+        float threshold = (float) minConfidence;
+        List<MlMappingSuggestion> result = new ArrayList<>();
+        for (int i = 0; i < topEntries.length; i++) {
+            int entry = topEntries[i];
+            if (confidence[entry] >= threshold) {
+                result.add(toSuggestion(entry));
+            }
+        }
+        return result;
+    }
+
+    public MlMappingSuggestion toSuggestion(int entry) {
+        return new MlMappingSuggestion(
+            sourceColumns.name(source[entry]),
+            destinationColumns.name(destination[entry]),
+            // Round-trip through the float's decimal form so 0.87f is reported as 0.87
+            Double.valueOf(Float.toString(confidence[entry])),
+            suggestionTypes.name(suggestionType[entry]),
+            reasonings.name(reasoning[entry]));
+    }
+
+    public float confidence(int entry) {
+        return confidence[entry];
+    }
+
+    public String sourceColumnName(int entry) {
+        return sourceColumns.name(source[entry]);
+    }
+
+    public String destinationColumnName(int entry) {
+        return destinationColumns.name(destination[entry]);
+    }
+
+    public int indexedK() {
+        return indexedK;
+    }
+
+    private boolean ranksBefore(int candidate, int incumbent) {
+        // Higher confidence first; insertion order breaks ties (candidate is always later)
+        return confidence[candidate] > confidence[incumbent];
+    }
+
+    private void requireIndex() {
+        if (topOffsets == null) {
+            throw new IllegalStateException("Call index(k) after the last add()");
+        }
+    }
+
+    /**
+     * String <-> dense int id interning. Id -1 is reserved for null, which is
+     * only valid for suggestion types and reasoning: column ids index arrays.
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int intern(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = names.size();
+                ids.put(value, id);
+                names.add(value);
+            }
+            return id;
+        }
+
+        int id(String value) {
+            Integer id = value == null ? null : ids.get(value);
+            return id == null ? -1 : id;
+        }
+
+        String name(int id) {
+            return id < 0 ? null : names.get(id);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+// FUTURE ENHANCEMENT: Stage-Level Metrics and Latency Histograms
+// Replaces the TRACE-level StopWatch logging with always-on, low-overhead
+// timers for the LLM pipeline stages, generated transformation methods and
+// migration throughput. Exported on /api/migration/metrics and per migration
+// on MigrationReport.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.MigrationReport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * MONITORING: Where does generateTransformationCode spend its time?
+ *
+ * - Stage timers: profileSourceTable, buildLLMRequest, callLLMService, validateGeneratedCode, enhanceWithUnitTests
+ * - Method timers: one per generated transformation, recorded per chunk with row counts
+ * - Migration throughput: rows/sec and error count of recent migrations
+ *
+ * Recording is lock-free (one nanoTime pair, a few atomic increments), so the
+ * timers stay on in production. Percentiles come from log-linear histograms
+ * with ~3% relative error, in the spirit of HdrHistogram.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String PROFILE_SOURCE_TABLE = "profileSourceTable";
+    public static final String BUILD_LLM_REQUEST = "buildLLMRequest";
+    public static final String CALL_LLM_SERVICE = "callLLMService";
+    public static final String VALIDATE_GENERATED_CODE = "validateGeneratedCode";
+    public static final String ENHANCE_WITH_UNIT_TESTS = "enhanceWithUnitTests";
+
+    private static final int RECENT_MIGRATIONS = 20;
+
+    private final Map<String, TimerStats> stages = new ConcurrentHashMap<>();
+    private final Map<String, TimerStats> methods = new ConcurrentHashMap<>();
+    private final Deque<MigrationMetrics> recentMigrations = new ArrayDeque<>();
+    private final LongAdder migratedRows = new LongAdder();
+    private final LongAdder migrationErrors = new LongAdder();
+
+    /**
+     * Times one pipeline stage; an exception counts as a stage error and is rethrown
+     */
+    public <T> T time(String stage, Supplier<T> body) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = body.get();
+            failed = false;
+            return result;
+        } finally {
+            recordStage(stage, System.nanoTime() - start, failed);
+        }
+    }
+
+    public void recordStage(String stage, long nanos, boolean failed) {
+        timer(stages, stage).record(nanos, 0, failed);
+    }
+
+    /**
+     * @param nanos Time spent in the method for the whole chunk
+     * @param rows Rows of the chunk
+     */
+    public void recordMethod(String method, long nanos, int rows, boolean failed) {
+        timer(methods, method).record(nanos, rows, failed);
+    }
+
+    public MigrationMeter startMigration(String migrationId) {
+        return new MigrationMeter(migrationId);
+    }
+
+    public PipelineMetricsSnapshot snapshot() {
+        List<MigrationMetrics> migrations;
+        synchronized (recentMigrations) {
+            migrations = new ArrayList<>(recentMigrations);
+        }
+        return new PipelineMetricsSnapshot(
+            summarize(stages), summarize(methods), migrations, migratedRows.sum(), migrationErrors.sum());
+    }
+
+    /**
+     * Prometheus text exposition format, one summary per timer
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        appendPrometheus(out, "migration_pipeline_stage_seconds", "stage", stages);
+        appendPrometheus(out, "migration_transformation_method_seconds", "method", methods);
+        out.append("# TYPE migration_rows_total counter\n")
+            .append("migration_rows_total ").append(migratedRows.sum()).append('\n');
+        out.append("# TYPE migration_errors_total counter\n")
+            .append("migration_errors_total ").append(migrationErrors.sum()).append('\n');
+        return out.toString();
+    }
+
+    private static void appendPrometheus(StringBuilder out, String name, String label, Map<String, TimerStats> timers) {
+        Map<String, TimerStats> sorted = new TreeMap<>(timers);
+        out.append("# TYPE ").append(name).append(" summary\n");
+        for (Map.Entry<String, TimerStats> entry : sorted.entrySet()) {
+            LatencyHistogram histogram = entry.getValue().histogram;
+            String tag = prometheusLabel(label, entry.getKey());
+            for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+                out.append(name).append('{').append(tag).append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(histogram.valueAtPercentile(quantile * 100))).append('\n');
+            }
+            out.append(name).append("_count{").append(tag).append("} ").append(histogram.count()).append('\n');
+            out.append(name).append("_sum{").append(tag).append("} ").append(seconds(histogram.totalNanos())).append('\n');
+        }
+        String errorsName = name.replace("_seconds", "_errors_total");
+        out.append("# TYPE ").append(errorsName).append(" counter\n");
+        for (Map.Entry<String, TimerStats> entry : sorted.entrySet()) {
+            out.append(errorsName).append('{').append(prometheusLabel(label, entry.getKey())).append("} ")
+                .append(entry.getValue().errors.sum()).append('\n');
+        }
+    }
+
+    private static String prometheusLabel(String label, String value) {
+        return label + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static TimerStats timer(Map<String, TimerStats> timers, String name) {
+        TimerStats stats = timers.get(name);
+        return stats != null ? stats : timers.computeIfAbsent(name, k -> new TimerStats());
+    }
+
+    private static Map<String, LatencySummary> summarize(Map<String, TimerStats> timers) {
+        Map<String, LatencySummary> summaries = new TreeMap<>();
+        timers.forEach((name, stats) -> summaries.put(name, stats.summarize()));
+        return summaries;
+    }
+
+    /**
+     * Per-migration view: method timers of this migration only, plus throughput.
+     * Records into the global method timers as well.
+     */
+    public final class MigrationMeter {
+        private final String migrationId;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, TimerStats> migrationMethods = new ConcurrentHashMap<>();
+
+        private MigrationMeter(String migrationId) {
+            this.migrationId = migrationId;
+        }
+
+        public void recordMethod(String method, long nanos, int rows, boolean failed) {
+            PipelineMetrics.this.recordMethod(method, nanos, rows, failed);
+            timer(migrationMethods, method).record(nanos, rows, failed);
+        }
+
+        /**
+         * Closes the meter and returns what gets attached to the report
+         */
+        public MigrationMetrics finish(MigrationReport report) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long rows = report.getTotalSourceRowsProcessed();
+            long errors = report.getErrors() == null ? 0 : report.getErrors().size();
+            MigrationMetrics metrics = new MigrationMetrics(
+                migrationId,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                rows,
+                elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0.0,
+                errors,
+                summarize(migrationMethods));
+
+            migratedRows.add(rows);
+            migrationErrors.add(errors);
+            synchronized (recentMigrations) {
+                if (recentMigrations.size() == RECENT_MIGRATIONS) {
+                    recentMigrations.removeFirst();
+                }
+                recentMigrations.addLast(metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Latency distribution of one timer, in milliseconds
+     *
+     * @param rowsPerSecond Rows per second of time spent in the timer (method timers only)
+     */
+    public record LatencySummary(long count,
+                                 double meanMillis,
+                                 double p50Millis,
+                                 double p90Millis,
+                                 double p99Millis,
+                                 double p999Millis,
+                                 double maxMillis,
+                                 long errors,
+                                 long rows,
+                                 double rowsPerSecond) {
+    }
+
+    /**
+     * Throughput and per-method latencies of one migration, attached to its MigrationReport
+     */
+    public record MigrationMetrics(String migrationId,
+                                   long elapsedMillis,
+                                   long rowsProcessed,
+                                   double rowsPerSecond,
+                                   long errors,
+                                   Map<String, LatencySummary> methodLatencies) {
+    }
+
+    /**
+     * Everything exported on the metrics endpoint
+     */
+    public record PipelineMetricsSnapshot(Map<String, LatencySummary> stages,
+                                          Map<String, LatencySummary> methods,
+                                          List<MigrationMetrics> recentMigrations,
+                                          long migratedRows,
+                                          long migrationErrors) {
+    }
+
+    private static final class TimerStats {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+
+        void record(long nanos, int rowCount, boolean failed) {
+            histogram.record(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        LatencySummary summarize() {
+            long totalNanos = histogram.totalNanos();
+            long rowCount = rows.sum();
+            return new LatencySummary(
+                histogram.count(),
+                millis(histogram.count() == 0 ? 0 : totalNanos / histogram.count()),
+                millis(histogram.valueAtPercentile(50)),
+                millis(histogram.valueAtPercentile(90)),
+                millis(histogram.valueAtPercentile(99)),
+                millis(histogram.valueAtPercentile(99.9)),
+                millis(histogram.max()),
+                errors.sum(),
+                rowCount,
+                totalNanos > 0 && rowCount > 0 ? rowCount * 1e9 / totalNanos : 0.0);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
+
+/**
+ * Lock-free log-linear histogram of nanosecond values.
+ *
+ * Values below 32 get their own bucket; above that every power of two is
+ * split into 32 linear sub-buckets, so any recorded value is reported within
+ * 1/32 (~3%) of its true value. 1,920 buckets cover the full positive long range.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        totalNanos.add(value);
+        max.accumulate(value);
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Highest value equivalent to the given percentile (0-100), capped at the recorded maximum
+     */
+    long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        int bucket = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        int shift = bucket - 1;
+        return ((((long) SUB_BUCKETS + subBucket) + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,38 @@
+// FUTURE ENHANCEMENT: Metrics Endpoint for the Transformation Pipeline
+// JSON for the UI and ad-hoc checks, Prometheus text for scraping.
+
+package com.example.dynamic_migration_engine.controller;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.example.dynamic_migration_engine.service.PipelineMetrics;
+
+/**
+ * MONITORING: Exposes {@link PipelineMetrics} next to the migration endpoints
+ *
+ * GET /api/migration/metrics            -> stage / method latency percentiles, recent migrations
+ * GET /api/migration/metrics/prometheus -> same timers as Prometheus summaries
+ */
+@RestController
+@RequestMapping("/api/migration")
+@CrossOrigin(origins = "http://localhost:4200")
+public class PipelineMetricsController {
+
+    private final PipelineMetrics pipelineMetrics;
+
+    public PipelineMetricsController(PipelineMetrics pipelineMetrics) {
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    @GetMapping("/metrics")
+    public PipelineMetrics.PipelineMetricsSnapshot getMetrics() {
+        return pipelineMetrics.snapshot();
+    }
+
+    @GetMapping(value = "/metrics/prometheus", produces = "text/plain; version=0.0.4")
+    public String getPrometheusMetrics() {
+        return pipelineMetrics.toPrometheus();
+    }
+}
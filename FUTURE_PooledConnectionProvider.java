@@ -0,0 +1,202 @@
+// FUTURE ENHANCEMENT: Pooled JDBC Connections per Database Login
+// Replaces one fresh DriverManager connection per request on the /metadata,
+// /data-preview, /test-connection and /execute-sql paths and in StreamingMigrationExecutor.
+
+package com.example.dynamic_migration_engine.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.util.CryptoUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PERFORMANCE: One small HikariCP pool per distinct database login
+ *
+ * Pools are keyed by {@link ConnectionKey}: normalized database type, host,
+ * port and database name, the user name and a SHA-256 digest of the decrypted
+ * password. The UI encrypts the password with a fresh salt on every request,
+ * so the ciphertext cannot be part of the key; the digest also keeps the plain
+ * password out of the map and makes a wrong password miss the pool.
+ *
+ * Idle eviction happens at two levels:
+ * - Connections idle longer than db.pool.idle-timeout-ms are closed by their pool (minimum idle is 0)
+ * - Pools with no borrowed connection for db.pool.idle-pool-timeout-ms are closed by a background sweep
+ *
+ * Closing a borrowed connection returns it to its pool; Hikari resets
+ * auto-commit and rolls back open transactions on return, which the
+ * streaming executor relies on.
+ */
+@Component
+@Primary
+public class PooledConnectionProvider implements MigrationConnectionProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledConnectionProvider.class);
+
+    private final int maxPoolSize;
+    private final long connectionIdleTimeoutMs;
+    private final long poolIdleTimeoutMs;
+    private final long connectionTimeoutMs;
+    private final Map<ConnectionKey, Pool> pools = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public PooledConnectionProvider(@Value("${db.pool.max-size:16}") int maxPoolSize,
+                                    @Value("${db.pool.idle-timeout-ms:60000}") long connectionIdleTimeoutMs,
+                                    @Value("${db.pool.idle-pool-timeout-ms:600000}") long poolIdleTimeoutMs,
+                                    @Value("${db.pool.connection-timeout-ms:10000}") long connectionTimeoutMs) {
+        this.maxPoolSize = maxPoolSize;
+        this.connectionIdleTimeoutMs = connectionIdleTimeoutMs;
+        this.poolIdleTimeoutMs = poolIdleTimeoutMs;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepInterval = Math.max(1000, poolIdleTimeoutMs / 4);
+        sweeper.scheduleWithFixedDelay(this::closeIdlePools, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection open(DbConnectionParams params) throws SQLException {
+        String password = CryptoUtil.decrypt(params.getPassword());
+        ConnectionKey key = ConnectionKey.of(params, password);
+        while (true) {
+            Pool pool = pools.computeIfAbsent(key, k -> createPool(k, params, password));
+            pool.lastBorrowMillis = System.currentTimeMillis();
+            try {
+                return pool.dataSource.getConnection();
+            } catch (SQLException e) {
+                if (!pool.dataSource.isClosed()) {
+                    throw e;
+                }
+                // Swept between lookup and borrow: the next iteration creates a fresh pool
+            }
+        }
+    }
+
+    /**
+     * Closes the pool of one login, e.g. after a failed /test-connection or a password change
+     */
+    public void evict(DbConnectionParams params) {
+        Pool pool = pools.remove(ConnectionKey.of(params, CryptoUtil.decrypt(params.getPassword())));
+        if (pool != null) {
+            pool.dataSource.close();
+        }
+    }
+
+    /**
+     * Number of open pools, for monitoring
+     */
+    public int poolCount() {
+        return pools.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+        pools.values().forEach(pool -> pool.dataSource.close());
+        pools.clear();
+    }
+
+    private Pool createPool(ConnectionKey key, DbConnectionParams params, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("db-" + key.describe());
+        config.setJdbcUrl(DriverManagerConnectionProvider.jdbcUrl(params));
+        config.setUsername(params.getUsername());
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setMinimumIdle(0); // Idle connections are closed after the idle timeout instead of kept warm
+        config.setIdleTimeout(connectionIdleTimeoutMs);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setInitializationFailTimeout(-1); // Connect lazily; a bad login fails on the first borrow
+        logger.info("Opening connection pool for {}", key.describe());
+        return new Pool(new HikariDataSource(config));
+    }
+
+    private void closeIdlePools() {
+        long now = System.currentTimeMillis();
+        pools.forEach((key, pool) -> {
+            // Idle time first: a borrow racing with this check updates it before taking a connection
+            if (now - pool.lastBorrowMillis > poolIdleTimeoutMs && !inUse(pool) && pools.remove(key, pool)) {
+                logger.info("Closing idle connection pool for {}", key.describe());
+                pool.dataSource.close();
+            }
+        });
+    }
+
+    private static boolean inUse(Pool pool) {
+        HikariPoolMXBean stats = pool.dataSource.getHikariPoolMXBean();
+        return stats != null && (stats.getActiveConnections() > 0 || stats.getThreadsAwaitingConnection() > 0);
+    }
+
+    private static final class Pool {
+        final HikariDataSource dataSource;
+        volatile long lastBorrowMillis = System.currentTimeMillis();
+
+        Pool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
+
+/**
+ * Normalized identity of a database login. Two requests for the same
+ * database and credentials map to the same key whatever the casing or
+ * whitespace of host and type, or the salt of the encrypted password.
+ */
+record ConnectionKey(String databaseType, String host, int port, String databaseName,
+                     String username, String passwordDigest) {
+
+    static ConnectionKey of(DbConnectionParams params, String decryptedPassword) {
+        return new ConnectionKey(
+            normalize(params.getDatabaseType()).toLowerCase(Locale.ROOT),
+            normalize(params.getHostname()).toLowerCase(Locale.ROOT),
+            params.getPort(),
+            normalize(params.getDatabaseName()),
+            normalize(params.getUsername()),
+            digest(decryptedPassword));
+    }
+
+    String describe() {
+        return databaseType + "://" + username + "@" + host + ":" + port + "/" + databaseName;
+    }
+
+    @Override
+    public String toString() {
+        return describe(); // Keeps the password digest out of logs
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static String digest(String password) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest((password == null ? "" : password).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
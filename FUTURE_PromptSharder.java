@@ -0,0 +1,229 @@
+// FUTURE ENHANCEMENT: Token-Budgeted Sharding of Wide-Schema LLM Prompts
+// Splits the mappings of a wide table into prompts that fit the model's context
+// window so LLMTransformationService can send them to the LLM concurrently.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.MlMappingSuggestion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * SCALABILITY: Packs ML mappings into prompt shards under a token budget
+ *
+ * Related columns stay in the same shard so the LLM sees them together:
+ * - columns sharing a name prefix ("customer_first_name", "customer_last_name")
+ * - sources feeding the same destination column (e.g. first + last -> full name)
+ * - members of a composite key
+ *
+ * Groups are packed first-fit-decreasing. A single group larger than the
+ * budget is split, since it cannot be sent in one request anyway.
+ *
+ * Token counts are estimated at ~4 characters per token, which is close
+ * enough for GPT/Claude tokenizers on English text and SQL identifiers.
+ */
+@Component
+public class PromptSharder {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Value("${llm.prompt.max-tokens:6000}")
+    private int maxPromptTokens; // Input budget per request, leaving room for the generated code
+
+    public int estimateTokens(CharSequence text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * @return true if the whole prompt fits the budget and needs no sharding
+     */
+    public boolean fits(String prompt, String systemPrompt) {
+        return estimateTokens(prompt) + estimateTokens(systemPrompt) <= maxPromptTokens;
+    }
+
+    /**
+     * Splits mappings (and their sample data) into shards.
+     *
+     * @param renderMapping Renders one mapping exactly as it appears in the prompt
+     * @param fixedTokens Tokens every shard pays regardless of mappings (system prompt, requirements)
+     * @param keyColumns Source columns of the (possibly composite) primary key
+     */
+    public List<PromptShard> shard(List<MlMappingSuggestion> mappings,
+                                   Map<String, ?> sampleData,
+                                   Set<String> keyColumns,
+                                   Function<MlMappingSuggestion, String> renderMapping,
+                                   int fixedTokens) {
+        int budget = Math.max(1, maxPromptTokens - fixedTokens);
+
+        // Union-find over mapping indexes
+        int[] parent = new int[mappings.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Map<String, Integer> firstByPrefix = new HashMap<>();
+        Map<String, Integer> firstByDestination = new HashMap<>();
+        int firstKeyMember = -1;
+        for (int i = 0; i < mappings.size(); i++) {
+            MlMappingSuggestion mapping = mappings.get(i);
+            int index = i;
+            String prefix = namePrefix(mapping.getSourceColumnName());
+            if (prefix != null) {
+                union(parent, i, firstByPrefix.computeIfAbsent(prefix, k -> index));
+            }
+            if (mapping.getDestinationColumnName() != null) {
+                union(parent, i, firstByDestination.computeIfAbsent(mapping.getDestinationColumnName(), k -> index));
+            }
+            if (keyColumns != null && keyColumns.contains(mapping.getSourceColumnName())) {
+                if (firstKeyMember < 0) {
+                    firstKeyMember = i;
+                }
+                union(parent, i, firstKeyMember);
+            }
+        }
+
+        // Collect groups in first-appearance order with their token cost
+        Map<Integer, Group> groups = new LinkedHashMap<>();
+        for (int i = 0; i < mappings.size(); i++) {
+            MlMappingSuggestion mapping = mappings.get(i);
+            int cost = estimateTokens(renderMapping.apply(mapping)) + sampleTokens(sampleData, mapping.getSourceColumnName());
+            groups.computeIfAbsent(find(parent, i), k -> new Group()).add(mapping, cost);
+        }
+
+        List<Group> ordered = new ArrayList<>();
+        for (Group group : groups.values()) {
+            if (group.tokens <= budget) {
+                ordered.add(group);
+            } else {
+                ordered.addAll(group.splitTo(budget));
+            }
+        }
+        ordered.sort(Comparator.comparingInt((Group g) -> g.tokens).reversed());
+
+        // First-fit decreasing bin packing
+        List<Group> bins = new ArrayList<>();
+        for (Group group : ordered) {
+            Group target = null;
+            for (Group bin : bins) {
+                if (bin.tokens + group.tokens <= budget) {
+                    target = bin;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Group();
+                bins.add(target);
+            }
+            target.addAll(group);
+        }
+
+        List<PromptShard> shards = new ArrayList<>(bins.size());
+        for (Group bin : bins) {
+            Map<String, Object> shardSamples = new LinkedHashMap<>();
+            if (sampleData != null) {
+                for (MlMappingSuggestion mapping : bin.mappings) {
+                    Object samples = sampleData.get(mapping.getSourceColumnName());
+                    if (samples != null) {
+                        shardSamples.put(mapping.getSourceColumnName(), samples);
+                    }
+                }
+            }
+            shards.add(new PromptShard(bin.mappings, shardSamples, bin.tokens + fixedTokens));
+        }
+        return shards;
+    }
+
+    private int sampleTokens(Map<String, ?> sampleData, String column) {
+        if (sampleData == null || column == null) {
+            return 0;
+        }
+        Object samples = sampleData.get(column);
+        if (samples == null) {
+            return 0;
+        }
+        // Mirrors "Column '%s': %s\n" in buildUserPrompt
+        return estimateTokens(ColumnProfiler.promptText(column, samples)) + estimateTokens(column) + 4;
+    }
+
+    /**
+     * "customer_first_name" -> "customer", "customerFirstName" -> "customer",
+     * null for single-word names (those are not grouped by prefix)
+     */
+    static String namePrefix(String columnName) {
+        if (columnName == null) {
+            return null;
+        }
+        for (int i = 1; i < columnName.length(); i++) {
+            char c = columnName.charAt(i);
+            if (c == '_' || c == '-' || Character.isUpperCase(c) && Character.isLowerCase(columnName.charAt(i - 1))) {
+                return columnName.substring(0, i).toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private static final class Group {
+        final List<MlMappingSuggestion> mappings = new ArrayList<>();
+        final List<Integer> costs = new ArrayList<>();
+        int tokens;
+
+        void add(MlMappingSuggestion mapping, int cost) {
+            mappings.add(mapping);
+            costs.add(cost);
+            tokens += cost;
+        }
+
+        void addAll(Group other) {
+            for (int i = 0; i < other.mappings.size(); i++) {
+                add(other.mappings.get(i), other.costs.get(i));
+            }
+        }
+
+        List<Group> splitTo(int budget) {
+            List<Group> pieces = new ArrayList<>();
+            Group current = new Group();
+            for (int i = 0; i < mappings.size(); i++) {
+                if (!current.mappings.isEmpty() && current.tokens + costs.get(i) > budget) {
+                    pieces.add(current);
+                    current = new Group();
+                }
+                current.add(mappings.get(i), costs.get(i));
+            }
+            pieces.add(current);
+            return pieces;
+        }
+    }
+}
+
+/**
+ * One LLM request worth of mappings plus the sample data for their source columns
+ */
+record PromptShard(List<MlMappingSuggestion> mappings,
+                   Map<String, Object> sampleData,
+                   int estimatedTokens) {
+}
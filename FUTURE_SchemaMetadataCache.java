@@ -0,0 +1,236 @@
+// FUTURE ENHANCEMENT: TTL Cache for /metadata Responses
+// Keeps the catalog scan and the ML suggestion call off repeated /metadata
+// requests for the same pair of database logins.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.DatabaseWithMlSuggestions;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.model.MlMappingSuggestion;
+import com.example.dynamic_migration_engine.model.MlSuggestionMatrix;
+import com.example.dynamic_migration_engine.util.CryptoUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * PERFORMANCE: Caches the complete /metadata result, ML suggestions included
+ *
+ * Entries are keyed by the {@link ConnectionKey} of the source and the
+ * destination login, so the same normalization as the connection pools
+ * applies and a wrong password never sees a cached catalog. The /metadata
+ * handler wraps its existing body:
+ *
+ *   metadataCache.getOrLoad(sourceParams, destinationParams,
+ *       () -> loadMetadataWithSuggestions(sourceParams, destinationParams));
+ *
+ * Concurrent misses for the same key share one load (the UI fires /metadata
+ * in bursts), failed loads are not cached, and entries expire after
+ * metadata.cache.ttl-seconds. Schema changes made through the tool should
+ * call {@link #invalidate(String)}; /execute-sql can use
+ * {@link #isSchemaChange(String)} to decide.
+ *
+ * Before caching, each database's ML suggestions are cut down to the
+ * ml.suggestions.top-k best candidates per source column at or above
+ * ml.suggestions.min-confidence, through {@link MlSuggestionMatrix}; a
+ * negative top-k keeps the full all-pairs list. The loader avoids building
+ * that list at all when it decodes the ML response with
+ * {@link MlSuggestionMatrix#read} and hands over
+ * {@code matrix.index(k).toSuggestions(min)}.
+ *
+ * The cached lists are shared between requests and must not be modified.
+ */
+@Component
+public class SchemaMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMetadataCache.class);
+
+    private static final Pattern SCHEMA_CHANGE = Pattern.compile(
+        "^\\s*(CREATE|ALTER|DROP|RENAME|COMMENT)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final int suggestionsPerSourceColumn;
+    private final double minSuggestionConfidence;
+    private final Map<MetadataKey, CompletableFuture<CachedMetadata>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SchemaMetadataCache(@Value("${metadata.cache.ttl-seconds:300}") long ttlSeconds,
+                               @Value("${metadata.cache.max-entries:64}") int maxEntries,
+                               @Value("${ml.suggestions.top-k:3}") int suggestionsPerSourceColumn,
+                               @Value("${ml.suggestions.min-confidence:0.0}") double minSuggestionConfidence) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.suggestionsPerSourceColumn = suggestionsPerSourceColumn;
+        this.minSuggestionConfidence = minSuggestionConfidence;
+    }
+
+    /**
+     * Returns the cached metadata of this source/destination pair, or runs
+     * {@code loader} once and caches its result
+     */
+    public List<DatabaseWithMlSuggestions> getOrLoad(DbConnectionParams sourceParams,
+                                                     DbConnectionParams destinationParams,
+                                                     Supplier<List<DatabaseWithMlSuggestions>> loader) {
+        if (ttlMillis <= 0) {
+            return compactSuggestions(loader.get());
+        }
+        MetadataKey key = new MetadataKey(
+            ConnectionKey.of(sourceParams, CryptoUtil.decrypt(sourceParams.getPassword())),
+            ConnectionKey.of(destinationParams, CryptoUtil.decrypt(destinationParams.getPassword())));
+
+        while (true) {
+            CompletableFuture<CachedMetadata> created = new CompletableFuture<>();
+            CompletableFuture<CachedMetadata> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                misses.incrementAndGet();
+                return load(key, created, loader);
+            }
+            CachedMetadata cached;
+            try {
+                cached = existing.join(); // Waits for a load already in flight
+            } catch (CompletionException e) {
+                entries.remove(key, existing);
+                continue; // The other request's load failed; this one tries its own
+            }
+            if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return cached.databases();
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Drops every cached result that includes this database as source or destination
+     */
+    public int invalidate(String databaseName) {
+        int removed = 0;
+        for (MetadataKey key : entries.keySet()) {
+            if (key.includes(databaseName) && entries.remove(key) != null) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            invalidations.addAndGet(removed);
+            logger.info("Invalidated {} cached metadata result(s) for database {}", removed, databaseName);
+        }
+        return removed;
+    }
+
+    public void invalidateAll() {
+        int removed = entries.size();
+        entries.clear();
+        invalidations.addAndGet(removed);
+    }
+
+    /**
+     * True for DDL statements after which cached catalogs are stale
+     */
+    public static boolean isSchemaChange(String sql) {
+        return sql != null && SCHEMA_CHANGE.matcher(sql).find();
+    }
+
+    public MetadataCacheStats getStats() {
+        return new MetadataCacheStats(hits.get(), misses.get(), invalidations.get(), entries.size());
+    }
+
+    private List<DatabaseWithMlSuggestions> load(MetadataKey key, CompletableFuture<CachedMetadata> future,
+                                                 Supplier<List<DatabaseWithMlSuggestions>> loader) {
+        List<DatabaseWithMlSuggestions> databases;
+        try {
+            long start = System.nanoTime();
+            databases = List.copyOf(compactSuggestions(loader.get()));
+            logger.debug("Loaded metadata for {} in {} ms", key, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(new CachedMetadata(databases, System.currentTimeMillis() + ttlMillis));
+        evictOverflow();
+        return databases;
+    }
+
+    /**
+     * Keeps the top-k candidates per source column of every database
+     */
+    private List<DatabaseWithMlSuggestions> compactSuggestions(List<DatabaseWithMlSuggestions> databases) {
+        if (suggestionsPerSourceColumn < 0) {
+            return databases;
+        }
+        for (DatabaseWithMlSuggestions database : databases) {
+            List<MlMappingSuggestion> suggestions = database.getMlSuggestions();
+            if (suggestions == null || suggestions.isEmpty()) {
+                continue;
+            }
+            MlSuggestionMatrix matrix = MlSuggestionMatrix.fromSuggestions(suggestions);
+            database.setMlSuggestions(new ArrayList<>(
+                matrix.index(suggestionsPerSourceColumn).toSuggestions(minSuggestionConfidence)));
+            if (matrix.skipped() > 0) {
+                logger.debug("Dropped {} ML suggestion(s) without a column name for {}",
+                    matrix.skipped(), database.getName());
+            }
+        }
+        return databases;
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            // Oldest completed entry first; loads still in flight are never evicted
+            MetadataKey oldest = entries.entrySet().stream()
+                .filter(entry -> entry.getValue().isDone() && !entry.getValue().isCompletedExceptionally())
+                .min(Comparator.comparingLong(entry -> entry.getValue().join().expiresAtMillis()))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    /**
+     * Hit/miss counters for monitoring
+     */
+    public record MetadataCacheStats(long hits, long misses, long invalidations, int entries) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
+
+/**
+ * Source and destination login of one /metadata request
+ */
+record MetadataKey(ConnectionKey source, ConnectionKey destination) {
+
+    boolean includes(String databaseName) {
+        return source.databaseName().equals(databaseName) || destination.databaseName().equals(databaseName);
+    }
+
+    @Override
+    public String toString() {
+        return source.describe() + " -> " + destination.describe();
+    }
+}
+
+record CachedMetadata(List<DatabaseWithMlSuggestions> databases, long expiresAtMillis) {
+}
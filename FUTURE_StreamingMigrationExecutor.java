@@ -0,0 +1,1463 @@
+// FUTURE ENHANCEMENT: Streaming, Bounded-Memory Table Migration
+// Used by LLMTransformationService.performEnhancedMigration so that a 100M-row
+// table is migrated with the same heap footprint as a 10K-row table.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.ColumnMappingDto;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.model.MigrationReport;
+import com.example.dynamic_migration_engine.util.CryptoUtil;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * PERFORMANCE: Chunked source-to-destination copy with flat heap usage
+ *
+ * Reading:
+ * - With a key column: keyset pagination (WHERE key > lastKey ORDER BY key),
+ *   one page of {@code fetchSize} rows at a time. Pages are independent
+ *   statements, so no long-running transaction is held on the source.
+ * - Without a key column: one server-side cursor with a bounded fetch size.
+ *
+ * Writing: each chunk is transformed and written with JDBC batches. Existing
+ * destination keys are looked up once per chunk (not per row) to decide
+ * between insert, update, identical-skip and primary-key-conflict skip. The
+ * SQL is plain ANSI so it works for PostgreSQL, MySQL, SQL Server and Oracle.
+ * When the destination keys fit the memory budget they are preloaded into a
+ * {@link DestinationKeySet}, and only keys that may exist are looked up.
+ *
+ * Counters live in a {@link MigrationProgress} that is updated after every
+ * chunk and can be read while the run is still going.
+ *
+ * Incremental runs ({@link IncrementalMigrationState}) narrow every slice to
+ * rows above the stored watermark and let the writer skip rows by content hash.
+ * Keyed full runs are checkpointed ({@link MigrationCheckpointStore}) and can
+ * be resumed after a crash from the last durable key of every slice.
+ */
+@Component
+public class StreamingMigrationExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingMigrationExecutor.class);
+
+    // Oracle caps IN lists at 1000 expressions, SQL Server at 2100 parameters
+    private static final int MAX_IN_LIST = 1000;
+
+    @Value("${migration.streaming.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${migration.streaming.write-batch-size:1000}")
+    private int writeBatchSize;
+
+    @Value("${migration.pipeline.max-buffered-rows:50000}")
+    private int maxBufferedRows; // Rows extracted ahead of a transformation that is still being generated
+
+    @Value("${migration.parallel.partitions-per-worker:4}")
+    private int partitionsPerWorker; // More partitions than workers evens out skewed ranges
+
+    @Value("${migration.parallel.max-retries:2}")
+    private int maxPartitionRetries;
+
+    @Value("${migration.checkpoint.enabled:true}")
+    private boolean checkpointsEnabled;
+
+    @Value("${migration.conflict-detection.preload-keys:true}")
+    private boolean preloadDestinationKeys;
+
+    @Value("${migration.conflict-detection.memory-budget-mb:256}")
+    private long keySetMemoryBudgetMb; // Above this the writer falls back to batched key lookups
+
+    private final MigrationConnectionProvider connectionProvider;
+    private final IncrementalMigrationState incrementalState;
+    private final MigrationCheckpointStore checkpointStore;
+    private final Map<String, Supplier<MigrationReport>> activeRuns = new ConcurrentHashMap<>();
+
+    public StreamingMigrationExecutor(MigrationConnectionProvider connectionProvider,
+                                      IncrementalMigrationState incrementalState,
+                                      MigrationCheckpointStore checkpointStore) {
+        this.connectionProvider = connectionProvider;
+        this.incrementalState = incrementalState;
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Streams the whole source table into the destination table.
+     *
+     * @param migrationId Id under which progress can be queried while running
+     * @param keyColumn Source key column for keyset pagination; null looks up a
+     *                  single-column primary key and falls back to a cursor without one
+     * @param updateExisting true to update rows whose key already exists, false to skip them
+     * @param incremental Delta mode for re-runs; null migrates and compares the whole table
+     * @param resume true to continue {@code migrationId} from its last checkpoint, if it has one
+     */
+    public MigrationReport execute(String migrationId,
+                                   DbConnectionParams sourceParams, String sourceTableName,
+                                   DbConnectionParams destinationParams, String destinationTableName,
+                                   List<ColumnMappingDto> columnMappings,
+                                   String keyColumn,
+                                   boolean updateExisting,
+                                   ChunkTransformer transformer,
+                                   IncrementalMigrationState.Options incremental,
+                                   boolean resume) {
+        MigrationProgress progress = new MigrationProgress();
+        activeRuns.put(migrationId, progress::toReport);
+
+        IncrementalTable delta = null;
+        MigrationCheckpoint checkpoint = null;
+        String status;
+        try (Connection source = connectionProvider.open(sourceParams);
+             Connection destination = connectionProvider.open(destinationParams)) {
+
+            String key = keyColumn != null ? keyColumn : findSingleColumnPrimaryKey(source, sourceTableName);
+            MigrationPlan plan = MigrationPlan.of(sourceTableName, destinationTableName, columnMappings, key)
+                .resolveTables(source, destination);
+            String fingerprint = MigrationCheckpointStore.fingerprint(sourceParams, sourceTableName,
+                destinationParams, destinationTableName, columnMappings, key);
+            List<String> notes = new ArrayList<>();
+            checkpoint = resume ? resumeCheckpoint(migrationId, fingerprint, plan, incremental, notes) : null;
+            if (checkpoint != null && checkpoint.slices.size() > 1) {
+                // Counters are kept per slice, this path has a single MigrationProgress
+                notes.add("Checkpoint of migration " + migrationId + " is partitioned and can only be "
+                    + "resumed by executeParallel; started from the beginning");
+                checkpoint = null;
+            }
+            notes.forEach(progress::addMessage);
+            List<SourceSlice> slices = List.of(SourceSlice.wholeTable());
+            if (checkpoint != null) {
+                slices = checkpoint.slices;
+                progress.restore(checkpoint.counters(0));
+            } else if (incremental != null) {
+                if (key == null && incremental.watermarkColumn() == null) {
+                    progress.addMessage("Incremental mode needs a key or watermark column; migrated the whole table");
+                } else {
+                    delta = incrementalState.open(fingerprint, incremental);
+                    slices = restrictToChanges(source, plan, delta, slices);
+                }
+            }
+            if (checkpoint == null) {
+                checkpoint = startCheckpoint(migrationId, fingerprint, plan, incremental, slices);
+            }
+            DestinationKeySet keySet = loadDestinationKeys(destination, plan);
+            destination.setAutoCommit(false);
+            ChunkWriter writer = new ChunkWriter(destination, plan, updateExisting, progress, delta, keySet);
+
+            for (int i = 0; i < slices.size(); i++) {
+                if (checkpoint != null && checkpoint.isCompleted(i)) {
+                    continue;
+                }
+                streamSlice(source, plan, slices.get(i), transformer, writer, progress, checkpoint);
+                if (checkpoint != null) {
+                    checkpoint.completed(slices.get(i), progress);
+                }
+            }
+            if (keySet != null) {
+                progress.addMessage(keySet.describe());
+            }
+
+            status = "SUCCESS";
+        } catch (SQLException | RuntimeException e) {
+            // RuntimeExceptions come from generated transformation code
+            logger.error("Streaming migration {} failed after {} rows", migrationId,
+                progress.totalSourceRowsProcessed.get(), e);
+            progress.addError("Migration failed: " + e.getMessage());
+            status = progress.totalSourceRowsProcessed.get() > 0 ? "PARTIAL_SUCCESS" : "FAILED";
+        } finally {
+            activeRuns.remove(migrationId);
+        }
+        if (delta != null) {
+            incrementalState.save(delta, "SUCCESS".equals(status));
+            progress.addMessage(delta.describe());
+        }
+        if (checkpoint != null) {
+            finishCheckpoint(checkpoint, status).ifPresent(progress::addMessage);
+        }
+        progress.setStatus(status);
+        return progress.toReport();
+    }
+
+    /**
+     * SCALABILITY: Partition-parallel variant of {@link #execute}
+     *
+     * The source table is split into primary-key ranges (numeric keys) or hash
+     * buckets (any other key type). Each partition is streamed by its own worker
+     * with its own source and destination connection. A failed partition is
+     * retried on its own, resuming after the last committed key, so
+     * one bad range never forces the whole table to re-run. Per-partition
+     * counters are merged into the returned report.
+     *
+     * Tables without a single-column key cannot be partitioned and are streamed
+     * with {@link #execute}.
+     *
+     * @param parallelism Number of concurrent partition workers
+     */
+    public MigrationReport executeParallel(String migrationId,
+                                           DbConnectionParams sourceParams, String sourceTableName,
+                                           DbConnectionParams destinationParams, String destinationTableName,
+                                           List<ColumnMappingDto> columnMappings,
+                                           String keyColumn,
+                                           boolean updateExisting,
+                                           ChunkTransformer transformer,
+                                           IncrementalMigrationState.Options incremental,
+                                           boolean resume,
+                                           int parallelism) {
+        MigrationPlan plan;
+        List<SourceSlice> partitions;
+        IncrementalTable delta = null;
+        MigrationCheckpoint checkpoint;
+        List<String> notes = new ArrayList<>();
+        DestinationKeySet keySet;
+        try (Connection source = connectionProvider.open(sourceParams);
+             Connection destination = connectionProvider.open(destinationParams)) {
+            String key = keyColumn != null ? keyColumn : findSingleColumnPrimaryKey(source, sourceTableName);
+            plan = MigrationPlan.of(sourceTableName, destinationTableName, columnMappings, key)
+                .resolveTables(source, destination);
+            String fingerprint = MigrationCheckpointStore.fingerprint(sourceParams, sourceTableName,
+                destinationParams, destinationTableName, columnMappings, key);
+            checkpoint = resume && key != null ? resumeCheckpoint(migrationId, fingerprint, plan, incremental, notes) : null;
+            // A partitioned checkpoint keeps its partitions even when resumed with one worker
+            if (key == null || parallelism <= 1 && (checkpoint == null || checkpoint.slices.size() == 1)) {
+                return execute(migrationId, sourceParams, sourceTableName, destinationParams,
+                    destinationTableName, columnMappings, key, updateExisting, transformer, incremental, resume);
+            }
+            if (checkpoint != null) {
+                partitions = checkpoint.slices; // Same ranges as the interrupted run
+            } else {
+                partitions = SourceSlice.partition(source, plan, parallelism * partitionsPerWorker);
+                if (incremental != null) {
+                    delta = incrementalState.open(fingerprint, incremental);
+                    partitions = restrictToChanges(source, plan, delta, partitions);
+                }
+                checkpoint = startCheckpoint(migrationId, fingerprint, plan, incremental, partitions);
+            }
+            keySet = loadDestinationKeys(destination, plan); // One key set shared by all partition writers
+        } catch (SQLException e) {
+            logger.error("Could not partition {} for migration {}", sourceTableName, migrationId, e);
+            MigrationProgress failed = new MigrationProgress();
+            failed.addError("Could not partition source table: " + e.getMessage());
+            failed.setStatus("FAILED");
+            return failed.toReport();
+        }
+
+        // Workers replace their entry on a retry while progress readers iterate
+        List<MigrationProgress> partitionProgress = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            MigrationProgress progress = new MigrationProgress();
+            if (checkpoint != null) {
+                progress.restore(checkpoint.counters(i));
+            }
+            partitionProgress.add(progress);
+        }
+        activeRuns.put(migrationId, () -> MigrationProgress.merge(partitionProgress, "IN_PROGRESS"));
+        logger.info("Migration {}: {} partitions of {} on {} workers", migrationId,
+            partitions.size(), sourceTableName, parallelism);
+
+        IncrementalTable partitionDelta = delta;
+        MigrationCheckpoint partitionCheckpoint = checkpoint;
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            int succeeded = 0;
+            List<Future<Boolean>> results = new ArrayList<>(partitions.size());
+            for (int i = 0; i < partitions.size(); i++) {
+                if (checkpoint != null && checkpoint.isCompleted(i)) {
+                    partitionProgress.get(i).setStatus("SUCCESS");
+                    succeeded++;
+                    continue;
+                }
+                SourceSlice partition = partitions.get(i);
+                int index = i;
+                results.add(workers.submit(() -> migratePartition(migrationId, sourceParams, destinationParams,
+                    plan, partition, updateExisting, transformer, partitionDelta, keySet, partitionCheckpoint,
+                    partitionProgress, index)));
+            }
+
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        succeeded++;
+                    }
+                } catch (ExecutionException e) {
+                    logger.error("Partition worker crashed in migration {}", migrationId, e.getCause());
+                }
+            }
+
+            String status = succeeded == partitions.size() ? "SUCCESS"
+                : succeeded > 0 ? "PARTIAL_SUCCESS" : "FAILED";
+            MigrationReport report = MigrationProgress.merge(partitionProgress, status);
+            report.getMessages().addAll(notes);
+            report.getMessages().add(String.format("Migrated %d of %d partitions with %d workers",
+                succeeded, partitions.size(), parallelism));
+            if (keySet != null) {
+                report.getMessages().add(keySet.describe());
+            }
+            if (delta != null) {
+                incrementalState.save(delta, "SUCCESS".equals(status));
+                report.getMessages().add(delta.describe());
+            }
+            if (checkpoint != null) {
+                finishCheckpoint(checkpoint, status).ifPresent(report.getMessages()::add);
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (delta != null) {
+                incrementalState.save(delta, false);
+            }
+            if (checkpoint != null) {
+                checkpoint.flush();
+            }
+            return MigrationProgress.merge(partitionProgress, "PARTIAL_SUCCESS");
+        } finally {
+            workers.shutdownNow();
+            activeRuns.remove(migrationId);
+        }
+    }
+
+    /**
+     * Snapshot of a run that is still in progress
+     */
+    public Optional<MigrationReport> getProgress(String migrationId) {
+        Supplier<MigrationReport> progress = activeRuns.get(migrationId);
+        return progress == null ? Optional.empty() : Optional.of(progress.get());
+    }
+
+    private boolean migratePartition(String migrationId,
+                                     DbConnectionParams sourceParams, DbConnectionParams destinationParams,
+                                     MigrationPlan plan, SourceSlice partition, boolean updateExisting,
+                                     ChunkTransformer transformer, IncrementalTable delta, DestinationKeySet keySet,
+                                     MigrationCheckpoint checkpoint, List<MigrationProgress> partitionProgress,
+                                     int index) {
+        long[] initialCounters = partitionProgress.get(index).counters(); // Zero, or restored from a checkpoint
+        for (int attempt = 0; attempt <= maxPartitionRetries; attempt++) {
+            if (attempt > 0) {
+                // Back to the counters of the last committed key; the rows after it are read and counted again
+                MigrationProgress retry = new MigrationProgress();
+                retry.restore(partition.countersAtResumeKey != null ? partition.countersAtResumeKey : initialCounters);
+                partitionProgress.set(index, retry);
+            }
+            MigrationProgress progress = partitionProgress.get(index);
+            try (Connection source = connectionProvider.open(sourceParams);
+                 Connection destination = connectionProvider.open(destinationParams)) {
+                destination.setAutoCommit(false);
+                ChunkWriter writer = new ChunkWriter(destination, plan, updateExisting, progress, delta, keySet);
+                streamSlice(source, plan, partition, transformer, writer, progress, checkpoint);
+                if (checkpoint != null) {
+                    checkpoint.completed(partition, progress);
+                }
+                progress.setStatus("SUCCESS");
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                // RuntimeExceptions come from generated transformation code
+                logger.warn("Migration {} partition {} failed (attempt {} of {}): {}", migrationId,
+                    partition.description, attempt + 1, maxPartitionRetries + 1, e.getMessage());
+                if (attempt == maxPartitionRetries) {
+                    progress.addError("Partition " + partition.description + " failed: " + e.getMessage());
+                    progress.setStatus("FAILED");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The table name is resolved to the case the database stores (upper case
+     * on Oracle), otherwise getPrimaryKeys finds nothing for unquoted names
+     */
+    private static String findSingleColumnPrimaryKey(Connection connection, String tableName) throws SQLException {
+        MigrationPlan.TableName table = MigrationPlan.resolveTable(connection, tableName);
+        List<String> keyColumns = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getPrimaryKeys(table.catalog(), table.schema(), table.table())) {
+            while (rs.next()) {
+                keyColumns.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (keyColumns.size() != 1) {
+            logger.warn("{} has {} primary key columns; keyset paging, partitioning and checkpoints are off "
+                + "unless a key column is given", tableName, keyColumns.isEmpty() ? "no" : keyColumns.size());
+            return null;
+        }
+        return keyColumns.get(0);
+    }
+
+    /**
+     * Checkpoints need a key to resume from. Incremental runs are not
+     * checkpointed: after a failure they re-extract the same delta and skip
+     * the committed rows by hash.
+     */
+    private boolean checkpointable(MigrationPlan plan, IncrementalMigrationState.Options incremental) {
+        return checkpointsEnabled && plan.sourceKeyIndex >= 0 && incremental == null;
+    }
+
+    private MigrationCheckpoint resumeCheckpoint(String migrationId, String fingerprint, MigrationPlan plan,
+                                                 IncrementalMigrationState.Options incremental, List<String> notes) {
+        if (!checkpointable(plan, incremental)) {
+            notes.add("Migration " + migrationId + " cannot be resumed without a key column or in incremental mode; "
+                + "started from the beginning");
+            return null;
+        }
+        Optional<MigrationCheckpoint> checkpoint = checkpointStore.resume(migrationId, fingerprint);
+        if (checkpoint.isEmpty()) {
+            notes.add("No usable checkpoint for migration " + migrationId + "; started from the beginning");
+            return null;
+        }
+        int completed = 0;
+        for (int i = 0; i < checkpoint.get().slices.size(); i++) {
+            completed += checkpoint.get().isCompleted(i) ? 1 : 0;
+        }
+        notes.add(String.format("Resumed migration %s from its last checkpoint (%d of %d slices already complete)",
+            migrationId, completed, checkpoint.get().slices.size()));
+        return checkpoint.get();
+    }
+
+    private MigrationCheckpoint startCheckpoint(String migrationId, String fingerprint, MigrationPlan plan,
+                                                IncrementalMigrationState.Options incremental,
+                                                List<SourceSlice> slices) {
+        return checkpointable(plan, incremental) ? checkpointStore.start(migrationId, fingerprint, slices) : null;
+    }
+
+    /**
+     * Drops the checkpoint of a completed run; otherwise makes the last
+     * committed position durable and tells the caller how to resume
+     */
+    private Optional<String> finishCheckpoint(MigrationCheckpoint checkpoint, String status) {
+        if ("SUCCESS".equals(status)) {
+            checkpointStore.delete(checkpoint.migrationId);
+            return Optional.empty();
+        }
+        checkpoint.flush();
+        return Optional.of("Progress is checkpointed; start migration " + checkpoint.migrationId
+            + " again with resume to continue after the last committed rows");
+    }
+
+    /**
+     * Streams the destination keys into memory once; null when the writer has
+     * no key column or preloading is turned off
+     */
+    private DestinationKeySet loadDestinationKeys(Connection destination, MigrationPlan plan) throws SQLException {
+        if (!preloadDestinationKeys || plan.destinationKeyIndex < 0) {
+            return null;
+        }
+        return DestinationKeySet.load(destination, plan.quotedDestinationTable,
+            plan.destinationColumns.get(plan.destinationKeyIndex), keySetMemoryBudgetMb * 1024 * 1024, fetchSize);
+    }
+
+    /**
+     * Narrows slices to rows at or above the stored watermark and at or below
+     * the current maximum, which becomes the new watermark if the run succeeds.
+     * Rows equal to the stored watermark may have committed after the previous
+     * run read its maximum, so they are read again; the row hashes skip the
+     * ones already written.
+     */
+    private static List<SourceSlice> restrictToChanges(Connection source, MigrationPlan plan, IncrementalTable delta,
+                                                       List<SourceSlice> slices) throws SQLException {
+        String quote = source.getMetaData().getIdentifierQuoteString().trim();
+        String column = MigrationPlan.quoteIdentifier(quote,
+            delta.watermarkColumn != null ? delta.watermarkColumn : plan.keyColumn);
+        try (PreparedStatement statement = source.prepareStatement(
+                "SELECT MAX(" + column + ") FROM " + plan.quotedSourceTable);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            delta.highWatermark = rs.getObject(1);
+        }
+        if (delta.highWatermark == null) {
+            delta.highWatermark = delta.previousWatermark;
+            return List.of(); // Empty table (or no row has a watermark value yet)
+        }
+
+        String filter = column + " <= ?";
+        List<Object> parameters = List.of(delta.highWatermark);
+        if (delta.previousWatermark != null) {
+            filter = column + " >= ? AND " + filter;
+            parameters = List.of(delta.previousWatermark, delta.highWatermark);
+        }
+        List<SourceSlice> restricted = new ArrayList<>(slices.size());
+        for (SourceSlice slice : slices) {
+            restricted.add(slice.restrict(filter, parameters));
+        }
+        return restricted;
+    }
+
+    private void streamSlice(Connection source, MigrationPlan plan, SourceSlice slice, ChunkTransformer transformer,
+                             ChunkWriter writer, MigrationProgress progress,
+                             MigrationCheckpoint checkpoint) throws SQLException {
+        // Hash buckets are not index-friendly, so they are read with one cursor instead of keyset pages
+        if (plan.sourceKeyIndex >= 0 && !slice.hashBucket) {
+            streamByKeyset(source, plan, slice, transformer, writer, progress, checkpoint);
+        } else {
+            streamByCursor(source, plan, slice, transformer, writer, progress, checkpoint);
+        }
+    }
+
+    private void streamByKeyset(Connection source, MigrationPlan plan, SourceSlice slice, ChunkTransformer transformer,
+                                ChunkWriter writer, MigrationProgress progress,
+                                MigrationCheckpoint checkpoint) throws SQLException {
+        String quote = source.getMetaData().getIdentifierQuoteString().trim();
+        String key = MigrationPlan.quoteIdentifier(quote, plan.keyColumn);
+        String select = "SELECT " + plan.sourceColumnList(quote) + " FROM " + plan.quotedSourceTable;
+        String range = slice.predicate == null ? "" : slice.predicate.replace("{key}", key);
+        String firstPage = select + (range.isEmpty() ? "" : " WHERE " + range) + " ORDER BY " + key;
+        String nextPage = select + " WHERE " + (range.isEmpty() ? "" : range + " AND ") + key + " > ? ORDER BY " + key;
+
+        Object lastKey = slice.resumeAfterKey;
+        Object[][] chunk = new Object[fetchSize][];
+        PendingChunks pending = new PendingChunks();
+        while (true) {
+            int rowCount;
+            try (PreparedStatement statement = source.prepareStatement(lastKey == null ? firstPage : nextPage)) {
+                statement.setMaxRows(fetchSize); // Portable LIMIT
+                statement.setFetchSize(streamingFetchSize(source, fetchSize));
+                int parameter = 1;
+                for (Object value : slice.parameters) {
+                    statement.setObject(parameter++, value);
+                }
+                if (lastKey != null) {
+                    bindKey(statement, parameter, lastKey, slice.keySqlType);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (slice.keySqlType == Types.NULL) {
+                        slice.keySqlType = rs.getMetaData().getColumnType(plan.sourceKeyIndex + 1);
+                    }
+                    rowCount = readRows(rs, plan, chunk);
+                }
+            }
+            if (rowCount > 0) {
+                lastKey = chunk[rowCount - 1][plan.sourceKeyIndex];
+                if (processChunk(chunk, rowCount, transformer, writer, progress, pending)) {
+                    slice.committed(lastKey, progress); // This and every buffered chunk committed
+                    if (checkpoint != null) {
+                        checkpoint.committed(slice, lastKey, progress);
+                    }
+                }
+            }
+            if (rowCount < fetchSize) {
+                if (flushPending(transformer, writer, progress, pending)) {
+                    slice.committed(lastKey, progress);
+                    if (checkpoint != null) {
+                        checkpoint.committed(slice, lastKey, progress);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * One cursor over the slice. With a key column (hash buckets) the rows
+     * come in key order and committed chunks are recorded on the slice like
+     * keyset pages, so a retry or a resumed run continues after the last
+     * committed key instead of re-reading rows that are already written.
+     */
+    private void streamByCursor(Connection source, MigrationPlan plan, SourceSlice slice, ChunkTransformer transformer,
+                                ChunkWriter writer, MigrationProgress progress,
+                                MigrationCheckpoint checkpoint) throws SQLException {
+        String quote = source.getMetaData().getIdentifierQuoteString().trim();
+        boolean keyed = plan.sourceKeyIndex >= 0;
+        String key = keyed ? MigrationPlan.quoteIdentifier(quote, plan.keyColumn) : null;
+        List<String> conditions = new ArrayList<>(2);
+        if (slice.predicate != null) {
+            conditions.add(keyed ? slice.predicate.replace("{key}", key) : slice.predicate);
+        }
+        Object resumeKey = keyed ? slice.resumeAfterKey : null;
+        if (resumeKey != null) {
+            conditions.add(key + " > ?");
+        }
+        String select = "SELECT " + plan.sourceColumnList(quote) + " FROM " + plan.quotedSourceTable
+            + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+            + (keyed ? " ORDER BY " + key : "");
+
+        // PostgreSQL only honours the fetch size inside a transaction
+        boolean autoCommit = source.getAutoCommit();
+        source.setAutoCommit(false);
+        try (PreparedStatement statement = source.prepareStatement(
+                select, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(streamingFetchSize(source, fetchSize));
+            int parameter = 1;
+            for (Object value : slice.parameters) {
+                statement.setObject(parameter++, value);
+            }
+            if (resumeKey != null) {
+                bindKey(statement, parameter, resumeKey, slice.keySqlType);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                if (keyed && slice.keySqlType == Types.NULL) {
+                    slice.keySqlType = rs.getMetaData().getColumnType(plan.sourceKeyIndex + 1);
+                }
+                Object[][] chunk = new Object[fetchSize][];
+                PendingChunks pending = new PendingChunks();
+                Object lastKey = resumeKey;
+                int rowCount;
+                while ((rowCount = readRows(rs, plan, chunk)) > 0) {
+                    if (keyed) {
+                        lastKey = chunk[rowCount - 1][plan.sourceKeyIndex];
+                    }
+                    if (processChunk(chunk, rowCount, transformer, writer, progress, pending) && keyed) {
+                        slice.committed(lastKey, progress); // This and every buffered chunk committed
+                        if (checkpoint != null) {
+                            checkpoint.committed(slice, lastKey, progress);
+                        }
+                    }
+                }
+                if (flushPending(transformer, writer, progress, pending) && keyed && lastKey != null) {
+                    slice.committed(lastKey, progress);
+                    if (checkpoint != null) {
+                        checkpoint.committed(slice, lastKey, progress);
+                    }
+                }
+            }
+        } finally {
+            source.commit();
+            source.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Binds a keyset position. A key read back from a checkpoint as text (a
+     * driver-specific type without its own encoding there) is bound with the
+     * key column's JDBC type, so e.g. a PostgreSQL uuid column is not
+     * compared with a varchar parameter.
+     */
+    static void bindKey(PreparedStatement statement, int index, Object key, int sqlType) throws SQLException {
+        if (key instanceof String && sqlType != Types.NULL && !isCharacterType(sqlType)) {
+            statement.setObject(index, key, sqlType);
+        } else {
+            statement.setObject(index, key);
+        }
+    }
+
+    private static boolean isCharacterType(int sqlType) {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                 Types.CLOB, Types.NCLOB -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * MySQL Connector/J only streams with Integer.MIN_VALUE; any other fetch
+     * size reads the whole result into memory unless useCursorFetch is set
+     */
+    static int streamingFetchSize(Connection connection, int fetchSize) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    private int readRows(ResultSet rs, MigrationPlan plan, Object[][] chunk) throws SQLException {
+        int columnCount = plan.sourceColumns.size();
+        int rowCount = 0;
+        while (rowCount < chunk.length && rs.next()) {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            chunk[rowCount++] = row;
+        }
+        return rowCount;
+    }
+
+    /**
+     * Transforms and writes a chunk, or buffers it while the transformer is
+     * still waiting for generated code. Extraction keeps going until
+     * {@code maxBufferedRows} are buffered, then blocks until the transformer is ready.
+     *
+     * @return true if this chunk (and everything buffered before it) is committed
+     */
+    private boolean processChunk(Object[][] sourceRows, int rowCount, ChunkTransformer transformer,
+                                 ChunkWriter writer, MigrationProgress progress,
+                                 PendingChunks pending) throws SQLException {
+        if (!transformer.isReady()) {
+            pending.add(Arrays.copyOf(sourceRows, rowCount));
+            Arrays.fill(sourceRows, 0, rowCount, null);
+            if (pending.rowCount < maxBufferedRows) {
+                return false;
+            }
+            // Buffer full: back-pressure on extraction. This chunk is already in the buffer.
+            transformer.awaitReady();
+            return flushPending(transformer, writer, progress, pending);
+        }
+        flushPending(transformer, writer, progress, pending);
+        writeChunk(sourceRows, rowCount, transformer, writer, progress);
+        return true;
+    }
+
+    private boolean flushPending(ChunkTransformer transformer, ChunkWriter writer, MigrationProgress progress,
+                                 PendingChunks pending) throws SQLException {
+        if (pending.chunks.isEmpty()) {
+            return false;
+        }
+        transformer.awaitReady();
+        for (Object[][] buffered : pending.chunks) {
+            writeChunk(buffered, buffered.length, transformer, writer, progress);
+        }
+        pending.chunks.clear();
+        pending.rowCount = 0;
+        return true;
+    }
+
+    private void writeChunk(Object[][] sourceRows, int rowCount, ChunkTransformer transformer,
+                            ChunkWriter writer, MigrationProgress progress) throws SQLException {
+        Object[][] destinationRows = new Object[rowCount][];
+        transformer.transform(sourceRows, rowCount, destinationRows);
+        for (int start = 0; start < rowCount; start += writeBatchSize) {
+            writer.write(destinationRows, start, Math.min(rowCount, start + writeBatchSize));
+        }
+        progress.totalSourceRowsProcessed.addAndGet(rowCount);
+        // Drop references so the previous chunk can be collected before the next read
+        Arrays.fill(sourceRows, 0, rowCount, null);
+    }
+
+    /**
+     * Chunks extracted before the transformer was ready, in read order
+     */
+    private static final class PendingChunks {
+        final List<Object[][]> chunks = new ArrayList<>();
+        int rowCount;
+
+        void add(Object[][] chunk) {
+            chunks.add(chunk);
+            rowCount += chunk.length;
+        }
+    }
+
+    /**
+     * Key and content hashes of one write batch in an incremental run. Rows
+     * that end up skipped as key conflicts are discarded, so the index only
+     * records content that is actually in the destination.
+     */
+    private static final class RowHashes {
+        final Object[][] rows;
+        final long[] keyHashes;
+        final long[] contentHashes;
+        int count;
+
+        RowHashes(int capacity) {
+            this.rows = new Object[capacity][];
+            this.keyHashes = new long[capacity];
+            this.contentHashes = new long[capacity];
+        }
+
+        void add(Object[] row, int keyIndex) {
+            rows[count] = row;
+            keyHashes[count] = IncrementalMigrationState.keyHash(row[keyIndex]);
+            contentHashes[count] = IncrementalMigrationState.rowHash(row);
+            count++;
+        }
+
+        void discard(int index) {
+            contentHashes[index] = 0;
+        }
+
+        void recordCommitted(RowHashIndex index) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (contentHashes[i] != 0) {
+                    keyHashes[kept] = keyHashes[i];
+                    contentHashes[kept++] = contentHashes[i];
+                }
+            }
+            index.putAll(keyHashes, contentHashes, kept);
+        }
+    }
+
+    /**
+     * Batch writer for one destination table. Commits once per batch.
+     */
+    private static final class ChunkWriter {
+        private final Connection connection;
+        private final MigrationPlan plan;
+        private final boolean updateExisting;
+        private final MigrationProgress progress;
+        private final IncrementalTable delta; // null outside incremental runs
+        private final DestinationKeySet keySet; // null = every key is looked up
+        private final String insertSql;
+        private final String updateSql;
+        private final String existingSqlPrefix;
+
+        ChunkWriter(Connection connection, MigrationPlan plan, boolean updateExisting,
+                    MigrationProgress progress, IncrementalTable delta,
+                    DestinationKeySet keySet) throws SQLException {
+            this.connection = connection;
+            this.plan = plan;
+            this.updateExisting = updateExisting;
+            this.progress = progress;
+            this.delta = plan.destinationKeyIndex >= 0 ? delta : null;
+            this.keySet = plan.destinationKeyIndex >= 0 ? keySet : null;
+
+            String quote = connection.getMetaData().getIdentifierQuoteString().trim();
+            String table = plan.quotedDestinationTable;
+            List<String> columns = new ArrayList<>();
+            for (String column : plan.destinationColumns) {
+                columns.add(MigrationPlan.quoteIdentifier(quote, column));
+            }
+            this.insertSql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+
+            if (plan.destinationKeyIndex >= 0) {
+                String key = columns.get(plan.destinationKeyIndex);
+                List<String> assignments = new ArrayList<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i != plan.destinationKeyIndex) {
+                        assignments.add(columns.get(i) + " = ?");
+                    }
+                }
+                this.updateSql = "UPDATE " + table + " SET " + String.join(", ", assignments) + " WHERE " + key + " = ?";
+                this.existingSqlPrefix = "SELECT " + String.join(", ", columns) + " FROM " + table + " WHERE " + key + " IN (";
+            } else {
+                this.updateSql = null;
+                this.existingSqlPrefix = null;
+            }
+        }
+
+        void write(Object[][] rows, int from, int to) throws SQLException {
+            List<Object[]> inserts = new ArrayList<>(to - from);
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> unknown = new ArrayList<>(to - from);
+            int[] unknownSlots = new int[to - from]; // Position in 'hashes' of each unknown row
+            RowHashes hashes = delta == null ? null : new RowHashes(to - from);
+            for (int i = from; i < to; i++) {
+                if (rows[i] == null) {
+                    progress.rowsSkippedDueToNoMapping.incrementAndGet();
+                } else if (hashes == null) {
+                    unknown.add(rows[i]);
+                } else {
+                    hashes.add(rows[i], plan.destinationKeyIndex);
+                }
+            }
+            if (hashes != null) {
+                // Keys this tool wrote before are classified by hash, without reading the destination
+                long[] previous = new long[hashes.count];
+                delta.rowHashes.lookup(hashes.keyHashes, hashes.count, previous);
+                for (int i = 0; i < hashes.count; i++) {
+                    if (previous[i] == 0) {
+                        unknownSlots[unknown.size()] = i;
+                        unknown.add(hashes.rows[i]);
+                    } else if (previous[i] == hashes.contentHashes[i]) {
+                        progress.rowsSkippedDueToIdenticalData.incrementAndGet();
+                        delta.rowsSkippedByHash.incrementAndGet();
+                    } else if (!updateExisting) {
+                        progress.rowsSkippedDueToPrimaryKeyConflict.incrementAndGet();
+                        hashes.discard(i);
+                    } else {
+                        updates.add(hashes.rows[i]);
+                        delta.rowsWrittenWithoutLookup.incrementAndGet();
+                    }
+                }
+            }
+
+            // The preloaded key set settles certain inserts and conflicts; the rest is looked up
+            List<Object[]> lookups = new ArrayList<>(unknown.size());
+            int[] lookupSlots = new int[unknown.size()];
+            DestinationKeySet.Membership[] membership = keySet == null ? null
+                : keySet.classify(unknown, plan.destinationKeyIndex);
+            for (int u = 0; u < unknown.size(); u++) {
+                DestinationKeySet.Membership member = membership == null
+                    ? DestinationKeySet.Membership.POSSIBLE : membership[u];
+                if (member == DestinationKeySet.Membership.ABSENT) {
+                    inserts.add(unknown.get(u));
+                } else if (member == DestinationKeySet.Membership.PRESENT && !updateExisting) {
+                    progress.rowsSkippedDueToPrimaryKeyConflict.incrementAndGet();
+                    if (hashes != null) {
+                        hashes.discard(unknownSlots[u]);
+                    }
+                } else {
+                    lookupSlots[lookups.size()] = unknownSlots[u];
+                    lookups.add(unknown.get(u));
+                }
+            }
+
+            Map<Object, Object[]> existing = existingSqlPrefix == null || lookups.isEmpty()
+                ? Map.of() : loadExisting(lookups);
+            for (int l = 0; l < lookups.size(); l++) {
+                Object[] row = lookups.get(l);
+                Object[] current = plan.destinationKeyIndex < 0 ? null : existing.get(normalize(row[plan.destinationKeyIndex]));
+                if (current == null) {
+                    inserts.add(row);
+                    if (keySet != null) {
+                        keySet.recordFalsePositive();
+                    }
+                } else if (!updateExisting) {
+                    progress.rowsSkippedDueToPrimaryKeyConflict.incrementAndGet();
+                    if (hashes != null) {
+                        hashes.discard(lookupSlots[l]);
+                    }
+                } else if (sameValues(current, row)) {
+                    progress.rowsSkippedDueToIdenticalData.incrementAndGet();
+                } else {
+                    updates.add(row);
+                }
+            }
+
+            if (!inserts.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                    for (Object[] row : inserts) {
+                        for (int c = 0; c < row.length; c++) {
+                            statement.setObject(c + 1, row[c]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            if (!updates.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                    for (Object[] row : updates) {
+                        int parameter = 1;
+                        for (int c = 0; c < row.length; c++) {
+                            if (c != plan.destinationKeyIndex) {
+                                statement.setObject(parameter++, row[c]);
+                            }
+                        }
+                        statement.setObject(parameter, row[plan.destinationKeyIndex]);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            connection.commit();
+            if (hashes != null) {
+                hashes.recordCommitted(delta.rowHashes); // Only after commit, so a rollback never poisons the index
+            }
+            if (keySet != null && !inserts.isEmpty()) {
+                keySet.addAll(inserts, plan.destinationKeyIndex);
+            }
+
+            progress.rowsMigratedInserted.addAndGet(inserts.size());
+            progress.rowsMigratedUpdated.addAndGet(updates.size());
+        }
+
+        // One round trip per batch instead of one per row
+        private Map<Object, Object[]> loadExisting(List<Object[]> rows) throws SQLException {
+            Map<Object, Object[]> existing = new HashMap<>();
+            List<Object> keys = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                keys.add(row[plan.destinationKeyIndex]);
+            }
+            for (int start = 0; start < keys.size(); start += MAX_IN_LIST) {
+                List<Object> slice = keys.subList(start, Math.min(keys.size(), start + MAX_IN_LIST));
+                String sql = existingSqlPrefix + String.join(", ", Collections.nCopies(slice.size(), "?")) + ")";
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < slice.size(); i++) {
+                        statement.setObject(i + 1, slice.get(i));
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        int columnCount = plan.destinationColumns.size();
+                        while (rs.next()) {
+                            Object[] row = new Object[columnCount];
+                            for (int c = 0; c < columnCount; c++) {
+                                row[c] = rs.getObject(c + 1);
+                            }
+                            existing.put(normalize(row[plan.destinationKeyIndex]), row);
+                        }
+                    }
+                }
+            }
+            return existing;
+        }
+
+        private static boolean sameValues(Object[] current, Object[] incoming) {
+            for (int c = 0; c < incoming.length; c++) {
+                if (!Objects.equals(normalize(current[c]), normalize(incoming[c]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Source and destination drivers may return different Number types for the same value
+        private static Object normalize(Object value) {
+            if (value instanceof Number number && !(value instanceof BigDecimal)) {
+                return new BigDecimal(number.toString()).stripTrailingZeros();
+            }
+            return value instanceof BigDecimal decimal ? decimal.stripTrailingZeros() : value;
+        }
+    }
+}
+
+/**
+ * Transforms a chunk of source rows (in MigrationPlan source-column order)
+ * into destination rows (in destination-column order). A null destination
+ * row means the source row has nothing to migrate.
+ */
+@FunctionalInterface
+interface ChunkTransformer {
+
+    void transform(Object[][] sourceRows, int rowCount, Object[][] destinationRows);
+
+    /**
+     * False while the transformer still waits for something (e.g. LLM-generated
+     * code); the executor then buffers extracted chunks instead of transforming them.
+     */
+    default boolean isReady() {
+        return true;
+    }
+
+    /**
+     * Blocks until {@link #isReady()} is true
+     */
+    default void awaitReady() {
+    }
+
+    /**
+     * Plain column-to-column copy following the ColumnMappingDto list
+     */
+    static ChunkTransformer directCopy(List<ColumnMappingDto> columnMappings) {
+        MigrationPlan plan = MigrationPlan.of(null, null, columnMappings, null);
+        int[] sourceIndexes = plan.destinationToSourceIndex;
+        return (sourceRows, rowCount, destinationRows) -> {
+            for (int row = 0; row < rowCount; row++) {
+                Object[] source = sourceRows[row];
+                Object[] destination = new Object[sourceIndexes.length];
+                for (int c = 0; c < sourceIndexes.length; c++) {
+                    destination[c] = source[sourceIndexes[c]];
+                }
+                destinationRows[row] = destination;
+            }
+        };
+    }
+}
+
+/**
+ * Column layout shared by the reader, transformer and writer
+ */
+final class MigrationPlan {
+    final String sourceTable;
+    final String destinationTable;
+    final String quotedSourceTable;      // Checked and quoted for SQL; null until resolveTables
+    final String quotedDestinationTable;
+    final String keyColumn;
+    final List<String> sourceColumns;
+    final List<String> destinationColumns;
+    final int[] destinationToSourceIndex;
+    final int sourceKeyIndex;
+    final int destinationKeyIndex;
+
+    private MigrationPlan(String sourceTable, String destinationTable,
+                          String quotedSourceTable, String quotedDestinationTable, String keyColumn,
+                          List<String> sourceColumns, List<String> destinationColumns,
+                          int[] destinationToSourceIndex, int sourceKeyIndex, int destinationKeyIndex) {
+        this.sourceTable = sourceTable;
+        this.destinationTable = destinationTable;
+        this.quotedSourceTable = quotedSourceTable;
+        this.quotedDestinationTable = quotedDestinationTable;
+        this.keyColumn = keyColumn;
+        this.sourceColumns = sourceColumns;
+        this.destinationColumns = destinationColumns;
+        this.destinationToSourceIndex = destinationToSourceIndex;
+        this.sourceKeyIndex = sourceKeyIndex;
+        this.destinationKeyIndex = destinationKeyIndex;
+    }
+
+    static MigrationPlan of(String sourceTable, String destinationTable,
+                            List<ColumnMappingDto> columnMappings, String keyColumn) {
+        LinkedHashSet<String> sourceColumns = new LinkedHashSet<>();
+        List<String> destinationColumns = new ArrayList<>();
+        for (ColumnMappingDto mapping : columnMappings) {
+            if (mapping.getSourceColumnName() == null || mapping.getDestinationColumnName() == null) {
+                continue;
+            }
+            sourceColumns.add(mapping.getSourceColumnName());
+            if (mapping.getSecondarySourceColumnName() != null) {
+                sourceColumns.add(mapping.getSecondarySourceColumnName());
+            }
+            destinationColumns.add(mapping.getDestinationColumnName());
+        }
+        if (keyColumn != null) {
+            sourceColumns.add(keyColumn);
+        }
+
+        List<String> orderedSource = new ArrayList<>(sourceColumns);
+        int[] destinationToSource = new int[destinationColumns.size()];
+        int destinationKey = -1;
+        int d = 0;
+        for (ColumnMappingDto mapping : columnMappings) {
+            if (mapping.getSourceColumnName() == null || mapping.getDestinationColumnName() == null) {
+                continue;
+            }
+            destinationToSource[d] = orderedSource.indexOf(mapping.getSourceColumnName());
+            if (Objects.equals(mapping.getSourceColumnName(), keyColumn)) {
+                destinationKey = d;
+            }
+            d++;
+        }
+        int sourceKey = keyColumn == null ? -1 : orderedSource.indexOf(keyColumn);
+        return new MigrationPlan(sourceTable, destinationTable, null, null, keyColumn, orderedSource,
+            destinationColumns, destinationToSource, sourceKey, destinationKey);
+    }
+
+    /**
+     * Same plan with both table names checked against their catalogs and
+     * quoted part by part (see {@link #qualifiedTableName})
+     */
+    MigrationPlan resolveTables(Connection source, Connection destination) throws SQLException {
+        return new MigrationPlan(sourceTable, destinationTable,
+            qualifiedTableName(source, sourceTable), qualifiedTableName(destination, destinationTable),
+            keyColumn, sourceColumns, destinationColumns, destinationToSourceIndex, sourceKeyIndex, destinationKeyIndex);
+    }
+
+    String sourceColumnList(String quote) {
+        List<String> quoted = new ArrayList<>(sourceColumns.size());
+        for (String column : sourceColumns) {
+            quoted.add(quoteIdentifier(quote, column));
+        }
+        return String.join(", ", quoted);
+    }
+
+    /**
+     * Quotes an identifier with the driver's quote string, doubling embedded
+     * quotes; {@code quote} is empty when the database does not quote
+     */
+    static String quoteIdentifier(String quote, String identifier) {
+        return quote.isEmpty() ? identifier : quote + identifier.replace(quote, quote + quote) + quote;
+    }
+
+    /**
+     * Quoted name of an existing table, for table names that come from a
+     * request. The name is read as [catalog.][schema.]table (MySQL's
+     * "database.table" as catalog and table) and looked up with
+     * DatabaseMetaData.getTables, as given and then in the case the database
+     * stores unquoted identifiers; each part is quoted on its own. A name
+     * with dots that only exists as one identifier is quoted whole.
+     *
+     * @throws SQLException if the table does not exist
+     */
+    static String qualifiedTableName(Connection connection, String tableName) throws SQLException {
+        return resolveTable(connection, tableName).quoted();
+    }
+
+    /**
+     * Catalog, schema and table name of an existing table as the database
+     * stores them, for metadata lookups; see {@link #qualifiedTableName}
+     */
+    static TableName resolveTable(Connection connection, String tableName) throws SQLException {
+        if (tableName == null || tableName.isBlank()) {
+            throw new SQLException("Table name is required");
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        String quote = metaData.getIdentifierQuoteString().trim();
+        String[] parts = tableName.split("\\.", -1);
+        List<String[]> names = new ArrayList<>();
+        if (parts.length <= 3 && Arrays.stream(parts).noneMatch(String::isBlank)) {
+            names.add(parts);
+        }
+        if (parts.length > 1) {
+            names.add(new String[] {tableName});
+        }
+        boolean qualifierIsCatalog = !metaData.supportsSchemasInDataManipulation();
+
+        for (String[] name : names) {
+            List<String[]> variants = new ArrayList<>();
+            variants.add(name);
+            if (metaData.storesUpperCaseIdentifiers()) {
+                variants.add(Arrays.stream(name).map(part -> part.toUpperCase(Locale.ROOT)).toArray(String[]::new));
+            } else if (metaData.storesLowerCaseIdentifiers()) {
+                variants.add(Arrays.stream(name).map(part -> part.toLowerCase(Locale.ROOT)).toArray(String[]::new));
+            }
+            for (String[] variant : variants) {
+                String table = variant[variant.length - 1];
+                String catalog = variant.length == 3 || (variant.length == 2 && qualifierIsCatalog) ? variant[0] : null;
+                String schema = variant.length == 3 ? variant[1]
+                    : variant.length == 2 && !qualifierIsCatalog ? variant[0] : null;
+                String lookupCatalog = catalog != null ? catalog : connection.getCatalog();
+                if (tableExists(metaData, lookupCatalog, schema, table)) {
+                    List<String> quoted = new ArrayList<>(3);
+                    for (String part : variant) {
+                        quoted.add(quoteIdentifier(quote, part));
+                    }
+                    return new TableName(lookupCatalog, schema, table, String.join(".", quoted));
+                }
+            }
+        }
+        throw new SQLException("Table not found: " + tableName);
+    }
+
+    private static boolean tableExists(DatabaseMetaData metaData, String catalog, String schema, String table)
+            throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        try (ResultSet rs = metaData.getTables(catalog, searchPattern(schema, escape), searchPattern(table, escape), null)) {
+            while (rs.next()) {
+                // Patterns match more than the name when the driver has no escape string
+                if (table.equals(rs.getString("TABLE_NAME"))
+                        && (schema == null || schema.equals(rs.getString("TABLE_SCHEM")))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param schema null when the name was not schema-qualified
+     * @param quoted SQL form of the name, quoted part by part
+     */
+    record TableName(String catalog, String schema, String table, String quoted) {
+    }
+
+    private static String searchPattern(String name, String escape) {
+        if (name == null || escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+}
+
+/**
+ * One unit of source rows: the whole table, a key range or a hash bucket.
+ * {@code {key}} in the predicate is replaced with the quoted key column.
+ */
+final class SourceSlice {
+    final String description;
+    final String predicate;
+    final List<Object> parameters;
+    final boolean hashBucket;
+    volatile Object resumeAfterKey; // Last key whose chunk was fully committed
+    volatile long[] countersAtResumeKey; // Progress counters when resumeAfterKey was committed
+    volatile int keySqlType = Types.NULL; // JDBC type of the key column, checkpointed to rebind resumeAfterKey
+
+    private SourceSlice(String description, String predicate, List<Object> parameters, boolean hashBucket) {
+        this.description = description;
+        this.predicate = predicate;
+        this.parameters = parameters;
+        this.hashBucket = hashBucket;
+    }
+
+    /**
+     * A new slice per run: resumeAfterKey is per-run state
+     */
+    static SourceSlice wholeTable() {
+        return new SourceSlice("whole table", null, List.of(), false);
+    }
+
+    /**
+     * Rebuilds a slice read back from a checkpoint
+     */
+    static SourceSlice restore(String description, String predicate, List<Object> parameters, boolean hashBucket) {
+        return new SourceSlice(description, predicate, parameters, hashBucket);
+    }
+
+    /**
+     * Records a committed position and the counters a retry restarts from
+     */
+    void committed(Object key, MigrationProgress progress) {
+        countersAtResumeKey = progress.counters();
+        resumeAfterKey = key;
+    }
+
+    /**
+     * Same slice, limited to rows that also match {@code filter}
+     */
+    SourceSlice restrict(String filter, List<Object> filterParameters) {
+        List<Object> combined = new ArrayList<>(parameters);
+        combined.addAll(filterParameters);
+        return new SourceSlice(description, predicate == null ? filter : "(" + predicate + ") AND " + filter,
+            combined, hashBucket);
+    }
+
+    /**
+     * Splits the key space into roughly {@code count} partitions
+     */
+    static List<SourceSlice> partition(Connection source, MigrationPlan plan, int count) throws SQLException {
+        String quote = source.getMetaData().getIdentifierQuoteString().trim();
+        String key = MigrationPlan.quoteIdentifier(quote, plan.keyColumn);
+        Object min;
+        Object max;
+        try (PreparedStatement statement = source.prepareStatement(
+                "SELECT MIN(" + key + "), MAX(" + key + ") FROM " + plan.quotedSourceTable);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            min = rs.getObject(1);
+            max = rs.getObject(2);
+        }
+        if (min == null) {
+            return List.of(wholeTable()); // Empty table
+        }
+        if (isIntegral(min) && isIntegral(max)) {
+            long low = ((Number) min).longValue();
+            long high = ((Number) max).longValue();
+            if (high - low >= 0) { // Negative means the span overflowed a long
+                return keyRanges(low, high, count);
+            }
+        }
+        return hashBuckets(source.getMetaData().getDatabaseProductName(), count);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short
+            || (value instanceof BigDecimal decimal && decimal.scale() <= 0 && decimal.toBigInteger().bitLength() < 64);
+    }
+
+    private static List<SourceSlice> keyRanges(long min, long max, int count) {
+        long step = Math.max(1, (max - min) / count + 1);
+        List<SourceSlice> ranges = new ArrayList<>(count);
+        long low = min;
+        while (max - low >= step) {
+            long high = low + step;
+            ranges.add(new SourceSlice("[" + low + ", " + high + ")",
+                "{key} >= ? AND {key} < ?", List.of(low, high), false));
+            low = high;
+        }
+        // Open-ended last range also picks up rows inserted above MAX since partitioning
+        ranges.add(new SourceSlice("[" + low + ", ...)", "{key} >= ?", List.of(low), false));
+        return ranges;
+    }
+
+    private static List<SourceSlice> hashBuckets(String databaseProduct, int count) {
+        List<SourceSlice> buckets = new ArrayList<>(count);
+        for (int bucket = 0; bucket < count; bucket++) {
+            String predicate = switch (databaseProduct) {
+                case "PostgreSQL" -> "MOD(CAST(HASHTEXT(CAST({key} AS TEXT)) AS BIGINT) + 2147483648, " + count + ") = " + bucket;
+                case "MySQL" -> "MOD(CRC32({key}), " + count + ") = " + bucket;
+                case "Microsoft SQL Server" -> "ABS(CAST(CHECKSUM({key}) AS BIGINT)) % " + count + " = " + bucket;
+                case "Oracle" -> "ORA_HASH({key}, " + (count - 1) + ") = " + bucket;
+                default -> null;
+            };
+            if (predicate == null) {
+                return List.of(wholeTable()); // Unknown dialect: no parallelism, but still correct
+            }
+            buckets.add(new SourceSlice("hash bucket " + bucket + "/" + count, predicate, List.of(), true));
+        }
+        return buckets;
+    }
+}
+
+/**
+ * Live, thread-safe counters behind a MigrationReport
+ */
+final class MigrationProgress {
+    static final int COUNTER_COUNT = 6;
+
+    final AtomicLong totalSourceRowsProcessed = new AtomicLong();
+    final AtomicLong rowsMigratedInserted = new AtomicLong();
+    final AtomicLong rowsMigratedUpdated = new AtomicLong();
+    final AtomicLong rowsSkippedDueToPrimaryKeyConflict = new AtomicLong();
+    final AtomicLong rowsSkippedDueToNoMapping = new AtomicLong();
+    final AtomicLong rowsSkippedDueToIdenticalData = new AtomicLong();
+    private final List<String> messages = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private volatile String status = "IN_PROGRESS";
+
+    void setStatus(String status) {
+        this.status = status;
+    }
+
+    synchronized void addMessage(String message) {
+        messages.add(message);
+    }
+
+    synchronized void addError(String error) {
+        errors.add(error);
+    }
+
+    /**
+     * Counter values in a fixed order, for checkpoints
+     */
+    long[] counters() {
+        return new long[] {
+            totalSourceRowsProcessed.get(), rowsMigratedInserted.get(), rowsMigratedUpdated.get(),
+            rowsSkippedDueToPrimaryKeyConflict.get(), rowsSkippedDueToNoMapping.get(),
+            rowsSkippedDueToIdenticalData.get()
+        };
+    }
+
+    void restore(long[] counters) {
+        totalSourceRowsProcessed.set(counters[0]);
+        rowsMigratedInserted.set(counters[1]);
+        rowsMigratedUpdated.set(counters[2]);
+        rowsSkippedDueToPrimaryKeyConflict.set(counters[3]);
+        rowsSkippedDueToNoMapping.set(counters[4]);
+        rowsSkippedDueToIdenticalData.set(counters[5]);
+    }
+
+    /**
+     * Sums the counters of several partitions into one report
+     */
+    static MigrationReport merge(List<MigrationProgress> partitions, String status) {
+        MigrationProgress total = new MigrationProgress();
+        for (MigrationProgress partition : partitions) {
+            total.totalSourceRowsProcessed.addAndGet(partition.totalSourceRowsProcessed.get());
+            total.rowsMigratedInserted.addAndGet(partition.rowsMigratedInserted.get());
+            total.rowsMigratedUpdated.addAndGet(partition.rowsMigratedUpdated.get());
+            total.rowsSkippedDueToPrimaryKeyConflict.addAndGet(partition.rowsSkippedDueToPrimaryKeyConflict.get());
+            total.rowsSkippedDueToNoMapping.addAndGet(partition.rowsSkippedDueToNoMapping.get());
+            total.rowsSkippedDueToIdenticalData.addAndGet(partition.rowsSkippedDueToIdenticalData.get());
+            synchronized (partition) {
+                total.messages.addAll(partition.messages);
+                total.errors.addAll(partition.errors);
+            }
+        }
+        total.setStatus(status);
+        return total.toReport();
+    }
+
+    synchronized MigrationReport toReport() {
+        MigrationReport report = new MigrationReport();
+        report.setStatus(status);
+        report.setTotalSourceRowsProcessed(totalSourceRowsProcessed.get());
+        report.setRowsMigratedInserted(rowsMigratedInserted.get());
+        report.setRowsMigratedUpdated(rowsMigratedUpdated.get());
+        report.setRowsSkippedDueToPrimaryKeyConflict(rowsSkippedDueToPrimaryKeyConflict.get());
+        report.setRowsSkippedDueToNoMapping(rowsSkippedDueToNoMapping.get());
+        report.setRowsSkippedDueToIdenticalData(rowsSkippedDueToIdenticalData.get());
+        report.setMessages(new ArrayList<>(messages));
+        report.setErrors(new ArrayList<>(errors));
+        return report;
+    }
+}
+
+/**
+ * Opens JDBC connections for a set of DbConnectionParams
+ */
+interface MigrationConnectionProvider {
+    Connection open(DbConnectionParams params) throws SQLException;
+}
+
+/**
+ * Default provider: one new DriverManager connection per call
+ */
+@Component
+class DriverManagerConnectionProvider implements MigrationConnectionProvider {
+
+    @Override
+    public Connection open(DbConnectionParams params) throws SQLException {
+        return DriverManager.getConnection(jdbcUrl(params), params.getUsername(),
+            CryptoUtil.decrypt(params.getPassword()));
+    }
+
+    static String jdbcUrl(DbConnectionParams params) {
+        String host = params.getHostname();
+        int port = params.getPort();
+        String database = params.getDatabaseName();
+        return switch (params.getDatabaseType()) {
+            case "PostgreSQL" -> "jdbc:postgresql://" + host + ":" + port + "/" + database;
+            case "MySQL" -> "jdbc:mysql://" + host + ":" + port + "/" + database + "?rewriteBatchedStatements=true";
+            case "SQLServer" -> "jdbc:sqlserver://" + host + ":" + port + ";databaseName=" + database;
+            case "Oracle" -> "jdbc:oracle:thin:@//" + host + ":" + port + "/" + database;
+            default -> throw new IllegalArgumentException("Unsupported database type: " + params.getDatabaseType());
+        };
+    }
+}
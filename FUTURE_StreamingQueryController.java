@@ -0,0 +1,63 @@
+// FUTURE ENHANCEMENT: NDJSON Variants of /execute-sql and /data-preview
+// Same inputs as the existing endpoints; the response is streamed by StreamingQueryService.
+
+package com.example.dynamic_migration_engine.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+import com.example.dynamic_migration_engine.model.SqlExecutionRequest;
+import com.example.dynamic_migration_engine.service.ConnectionProfileResolver;
+import com.example.dynamic_migration_engine.service.StreamingQueryService;
+
+/**
+ * SCALABILITY: Streaming query endpoints
+ *
+ * POST /api/migration/execute-sql/stream?maxRows=                        -> body: SqlExecutionRequest
+ * POST /api/migration/data-preview/{databaseName}/{tableName}/stream?maxRows= -> body: DbConnectionParams
+ *
+ * Responses are application/x-ndjson (see {@link StreamingQueryService} for
+ * the event format). StreamingResponseBody runs on the MVC async executor,
+ * so the servlet thread is released while rows are streamed; closing the
+ * connection on the client side cancels the query.
+ */
+@RestController
+@RequestMapping("/api/migration")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StreamingQueryController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final StreamingQueryService streamingQueryService;
+    private final ConnectionProfileResolver connectionProfileResolver;
+
+    public StreamingQueryController(StreamingQueryService streamingQueryService,
+                                    ConnectionProfileResolver connectionProfileResolver) {
+        this.streamingQueryService = streamingQueryService;
+        this.connectionProfileResolver = connectionProfileResolver;
+    }
+
+    @PostMapping(value = "/execute-sql/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> executeSql(@RequestBody SqlExecutionRequest request,
+                                                            @RequestParam(defaultValue = "0") int maxRows) {
+        return connectionProfileResolver.resolve(request.getDatabaseName())
+            .map(params -> ResponseEntity.ok((StreamingResponseBody) out ->
+                streamingQueryService.streamQuery(params, request.getSqlQuery(), maxRows, out)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/data-preview/{databaseName}/{tableName}/stream", produces = NDJSON)
+    public StreamingResponseBody previewTable(@PathVariable String databaseName,
+                                              @PathVariable String tableName,
+                                              @RequestBody DbConnectionParams params,
+                                              @RequestParam(defaultValue = "0") int maxRows) {
+        return out -> streamingQueryService.streamTablePreview(params, tableName, maxRows, out);
+    }
+}
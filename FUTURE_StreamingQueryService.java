@@ -0,0 +1,418 @@
+// FUTURE ENHANCEMENT: Streaming Result Sets for /execute-sql and /data-preview
+// Rows go to the client as NDJSON while the database cursor advances, instead of
+// being collected into one SqlExecutionResponse / TableDataResponse document.
+
+package com.example.dynamic_migration_engine.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.example.dynamic_migration_engine.model.DbConnectionParams;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SCALABILITY: Bounded-memory query results
+ *
+ * The query runs on a forward-only, read-only cursor with a fixed fetch size,
+ * and every row is serialized to the response as soon as it is read. Heap
+ * use is one fetch batch plus the JSON generator's buffer, whatever the
+ * result size, and the first row reaches the client after the first fetch.
+ *
+ * One JSON object per line:
+ *   {"type":"columns","columns":[{"name":"id","dataType":"int4"}, ...]}
+ *   {"type":"row","values":[1,"Alice", ...]}            (repeated)
+ *   {"type":"update","rowCount":3}                      (statements without a result set)
+ *   {"type":"heartbeat"}                                (while the database produces nothing)
+ *   {"type":"end","rowCount":1000,"truncated":"MAX_ROWS","elapsedMillis":42}
+ *   {"type":"error","message":"..."}
+ *
+ * Hard caps: sql.stream.max-rows (also sent to the driver as maxRows) and
+ * sql.stream.max-bytes of response body. A request may ask for less, never
+ * for more. When a write to the client fails, i.e. the client went away,
+ * the statement is cancelled and its transaction rolled back at once, so the
+ * database session is freed instead of running the query to completion.
+ * Heartbeats make such a disconnect visible while the database is still
+ * executing (sorting, hashing) and nothing else is being written.
+ */
+@Service
+public class StreamingQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingQueryService.class);
+
+    private final MigrationConnectionProvider connectionProvider;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int maxRows;
+    private final long maxBytes;
+    private final int queryTimeoutSeconds;
+    private final long heartbeatMillis;
+    private final ScheduledExecutorService heartbeats;
+
+    public StreamingQueryService(MigrationConnectionProvider connectionProvider,
+                                 ObjectMapper objectMapper,
+                                 @Value("${sql.stream.fetch-size:500}") int fetchSize,
+                                 @Value("${sql.stream.max-rows:100000}") int maxRows,
+                                 @Value("${sql.stream.max-bytes:67108864}") long maxBytes,
+                                 @Value("${sql.stream.query-timeout-seconds:300}") int queryTimeoutSeconds,
+                                 @Value("${sql.stream.heartbeat-ms:5000}") long heartbeatMillis) {
+        this.connectionProvider = connectionProvider;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.heartbeatMillis = heartbeatMillis;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sql-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Streams the result of an arbitrary statement from the SQL executor
+     *
+     * @param requestedMaxRows row limit asked for by the client; 0 or less means the configured cap
+     */
+    public void streamQuery(DbConnectionParams params, String sql, int requestedMaxRows,
+                            OutputStream out) throws IOException {
+        stream(params, connection -> sql, requestedMaxRows, out);
+    }
+
+    /**
+     * Streams the rows of one table for the data preview. The table must
+     * exist; a schema-qualified name is quoted part by part.
+     */
+    public void streamTablePreview(DbConnectionParams params, String tableName, int requestedMaxRows,
+                                   OutputStream out) throws IOException {
+        stream(params, connection -> "SELECT * FROM " + MigrationPlan.qualifiedTableName(connection, tableName),
+            requestedMaxRows, out);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    private void stream(DbConnectionParams params, SqlSource sqlSource, int requestedMaxRows,
+                        OutputStream out) throws IOException {
+        int rowLimit = requestedMaxRows > 0 ? Math.min(requestedMaxRows, maxRows) : maxRows;
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+        long start = System.currentTimeMillis();
+
+        try (Connection connection = connectionProvider.open(params)) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false); // PostgreSQL only uses a cursor inside a transaction
+            try (Statement statement = connection.createStatement(
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(streamingFetchSize(params.getDatabaseType()));
+                statement.setMaxRows(rowLimit + 1); // One extra row tells "exactly at the limit" from "truncated"
+                statement.setQueryTimeout(queryTimeoutSeconds);
+
+                StreamResult result;
+                try {
+                    result = execute(statement, sqlSource.sql(connection), params.getDatabaseType(), rowLimit, writer);
+                } catch (IOException e) {
+                    logger.info("Client disconnected after {} ms, query cancelled", System.currentTimeMillis() - start);
+                    connection.rollback();
+                    return;
+                }
+                connection.commit();
+                writer.end(result.rowCount(), result.truncated(), System.currentTimeMillis() - start);
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                if (writer.clientGone()) {
+                    logger.info("Client disconnected after {} ms, query cancelled", System.currentTimeMillis() - start);
+                    return;
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.warn("Streaming query failed: {}", e.getMessage());
+            writer.error(e.getMessage());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private StreamResult execute(Statement statement, String sql, String databaseType, int rowLimit,
+                                 NdjsonWriter writer) throws SQLException, IOException {
+        // Covers the execution and every later fetch; rows written in between suppress it
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(
+            () -> writer.heartbeat(statement, heartbeatMillis), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        try {
+            return executeAndWrite(statement, sql, databaseType, rowLimit, writer);
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private StreamResult executeAndWrite(Statement statement, String sql, String databaseType, int rowLimit,
+                                         NdjsonWriter writer) throws SQLException, IOException {
+        boolean hasResultSet = statement.execute(sql);
+        writer.checkClient();
+        if (!hasResultSet) {
+            long updateCount = statement.getLargeUpdateCount();
+            writer.update(updateCount);
+            return new StreamResult(updateCount, null);
+        }
+
+        try (ResultSet rs = statement.getResultSet()) {
+            StreamResult result;
+            try {
+                result = writeRows(rs, rowLimit, writer);
+            } catch (IOException e) {
+                // Client disconnected: stop the query before the result set is closed, so neither
+                // the server nor MySQL's streaming result set keeps producing rows nobody reads
+                cancel(statement);
+                throw e;
+            }
+            if (result.truncated() != null && "MySQL".equals(databaseType)) {
+                cancel(statement); // MySQL drains every remaining row when a streaming result set is closed
+            }
+            return result;
+        }
+    }
+
+    private StreamResult writeRows(ResultSet rs, int rowLimit, NdjsonWriter writer) throws SQLException, IOException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        writer.columns(metaData);
+        writer.flush();
+
+        long rowCount = 0;
+        while (rs.next()) {
+            if (rowCount == rowLimit) {
+                return new StreamResult(rowCount, "MAX_ROWS");
+            }
+            if (writer.bytesWritten() >= maxBytes) {
+                return new StreamResult(rowCount, "MAX_BYTES");
+            }
+            writer.row(rs, columnCount);
+            rowCount++;
+            if (rowCount == 1 || rowCount % fetchSize == 0) {
+                writer.flush(); // First row right away, then once per fetched batch
+            }
+        }
+        return new StreamResult(rowCount, null);
+    }
+
+    /**
+     * MySQL Connector/J only streams with Integer.MIN_VALUE; any other fetch
+     * size reads the whole result into memory unless useCursorFetch is set
+     */
+    private int streamingFetchSize(String databaseType) {
+        return "MySQL".equals(databaseType) ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    static void cancel(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            logger.debug("Failed to cancel statement: {}", e.getMessage());
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.debug("Rollback failed: {}", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlSource {
+        String sql(Connection connection) throws SQLException;
+    }
+
+    private record StreamResult(long rowCount, String truncated) {
+    }
+}
+
+/**
+ * NDJSON event writer over the response stream. Calls are serialized because
+ * the heartbeat thread writes while the request thread waits for the database.
+ */
+final class NdjsonWriter {
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonWriter.class);
+
+    private final CountingOutputStream counter;
+    private final JsonGenerator generator;
+    private long lastWriteMillis = System.currentTimeMillis();
+    private IOException clientError;
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.counter = new CountingOutputStream(out);
+        this.generator = objectMapper.getFactory().createGenerator(counter);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // The servlet container owns the stream
+    }
+
+    synchronized void columns(ResultSetMetaData metaData) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "columns");
+        generator.writeFieldName("columns");
+        generator.writeStartArray();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            generator.writeStartObject();
+            generator.writeStringField("name", metaData.getColumnLabel(i));
+            generator.writeStringField("dataType", metaData.getColumnTypeName(i));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        endEvent();
+    }
+
+    synchronized void row(ResultSet rs, int columnCount) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "row");
+        generator.writeFieldName("values");
+        generator.writeStartArray();
+        for (int i = 1; i <= columnCount; i++) {
+            writeValue(rs, i);
+        }
+        generator.writeEndArray();
+        endEvent();
+    }
+
+    synchronized void update(long rowCount) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "update");
+        generator.writeNumberField("rowCount", rowCount);
+        endEvent();
+    }
+
+    synchronized void end(long rowCount, String truncated, long elapsedMillis) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "end");
+        generator.writeNumberField("rowCount", rowCount);
+        generator.writeStringField("truncated", truncated);
+        generator.writeNumberField("elapsedMillis", elapsedMillis);
+        endEvent();
+    }
+
+    /**
+     * Reports a failure in-band; the status line was already sent. A client
+     * that is gone cannot be told, so write errors are ignored here.
+     */
+    synchronized void error(String message) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "error");
+            generator.writeStringField("message", message);
+            endEvent();
+            generator.flush();
+        } catch (IOException e) {
+            logger.debug("Could not report error to client: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs on the heartbeat thread: proves the client is still there, or
+     * cancels the statement it is waiting for
+     */
+    synchronized void heartbeat(Statement statement, long intervalMillis) {
+        if (clientError != null || System.currentTimeMillis() - lastWriteMillis < intervalMillis) {
+            return;
+        }
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", "heartbeat");
+            endEvent();
+            generator.flush();
+        } catch (IOException e) {
+            clientError = e;
+            StreamingQueryService.cancel(statement);
+        }
+    }
+
+    /**
+     * Rethrows a disconnect seen by the heartbeat, so the request thread does
+     * not mistake the cancelled statement for a database error
+     */
+    synchronized void checkClient() throws IOException {
+        if (clientError != null) {
+            throw clientError;
+        }
+    }
+
+    synchronized boolean clientGone() {
+        return clientError != null;
+    }
+
+    synchronized void flush() throws IOException {
+        generator.flush();
+    }
+
+    synchronized long bytesWritten() {
+        return counter.count + generator.getOutputBuffered();
+    }
+
+    synchronized void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeValue(ResultSet rs, int column) throws SQLException, IOException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Number || value instanceof String || value instanceof Boolean
+                || value instanceof Date || value instanceof Temporal) {
+            generator.writeObject(value); // Same representation as the non-streaming responses
+        } else if (value instanceof byte[] bytes) {
+            generator.writeBinary(bytes);
+        } else if (value instanceof Clob || value instanceof SQLXML) {
+            generator.writeString(rs.getString(column));
+        } else {
+            generator.writeString(value.toString()); // Driver types (PGobject, arrays, intervals)
+        }
+    }
+
+    private void endEvent() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        lastWriteMillis = System.currentTimeMillis();
+    }
+}
+
+final class CountingOutputStream extends FilterOutputStream {
+    long count;
+
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+}
@@ -0,0 +1,260 @@
+// FUTURE ENHANCEMENT: JMH Benchmarks for Transformation and Prompt-Building Hot Paths
+// Kept at the repository root with the other FUTURE_ sketches; it belongs in a benchmark
+// source set of the backend (e.g. src/jmh/java), which is not part of this tree.
+// Run with: java -cp <backend classpath + jmh-core> ...service.TransformationBenchmarks
+// Results are written as JMH JSON (jmh-result.json) so releases can be compared.
+
+package com.example.dynamic_migration_engine.service;
+
+import com.example.dynamic_migration_engine.model.MlMappingSuggestion;
+import com.example.dynamic_migration_engine.model.MlSuggestionMatrix;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BENCHMARKS: Puts numbers on the "Max 100ms execution time" style claims
+ *
+ * Three groups:
+ * - Name splitting: splitCustomerFullName vs. the batch splitCustomerFullNames
+ * - Prompt building: buildUserPrompt with 10 / 100 / 1,000 mappings plus sample data
+ * - /metadata serialization: Jackson encoding of the same all-pairs
+ *   List<MlMappingSuggestion>, as-is and after top-k selection in
+ *   MlSuggestionMatrix (what SchemaMetadataCache keeps), for 10 / 100 / 300-column tables
+ *
+ * All inputs come from a fixed seed so runs are comparable across releases.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TransformationBenchmarks {
+
+    private static final long SEED = 20250730L;
+    private static final int NAME_BATCH_SIZE = 4096;
+
+    private static final String[] FIRST_NAMES = {
+        "John", "Maria", "Wei", "Fatima", "Lukas", "Priya", "Olga", "Carlos", "Aiko", "Kwame",
+        "Anne-Marie", "Jean", "Siobhan", "Mohammed", "Elena", "Raj", "Sofia", "Liam", "Noah", "Chloe"
+    };
+    private static final String[] LAST_NAMES = {
+        "Doe", "Müller", "Zhang", "Khan", "Rossi", "Patel", "Ivanova", "García", "Tanaka", "Mensah",
+        "O'Brien", "van der Berg", "Smith-Jones", "Nguyen", "Schmidt", "Kowalski", "Dubois", "Silva", "Brown", "Lee"
+    };
+    private static final String[] TITLES = {"Dr.", "Mr.", "Mrs.", "Ms.", "Prof."};
+    private static final String[] SUFFIXES = {"Jr.", "Sr.", "II", "III"};
+
+    /**
+     * Customer names in roughly the proportions seen in the policyholder tables
+     */
+    @State(Scope.Benchmark)
+    public static class NameState {
+        String[] fullNames;
+        String[] firstNames;
+        String[] lastNames;
+        LLMTransformationService.ExampleLLMGeneratedTransformation.CustomerNameTransformation transformation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            fullNames = new String[NAME_BATCH_SIZE];
+            for (int i = 0; i < NAME_BATCH_SIZE; i++) {
+                fullNames[i] = randomName(random);
+            }
+            firstNames = new String[NAME_BATCH_SIZE];
+            lastNames = new String[NAME_BATCH_SIZE];
+            transformation = new LLMTransformationService.ExampleLLMGeneratedTransformation.CustomerNameTransformation();
+        }
+
+        private static String randomName(Random random) {
+            String first = pick(random, FIRST_NAMES);
+            String last = pick(random, LAST_NAMES);
+            int shape = random.nextInt(100);
+            if (shape < 55) {
+                return first + " " + last;                                       // "John Doe"
+            } else if (shape < 70) {
+                return last + ", " + first;                                      // "Doe, John"
+            } else if (shape < 80) {
+                return first + " " + pick(random, FIRST_NAMES) + " " + last;     // middle name
+            } else if (shape < 88) {
+                return pick(random, TITLES) + " " + first + " " + last;          // "Dr. John Doe"
+            } else if (shape < 94) {
+                return first + " " + last + " " + pick(random, SUFFIXES);        // "John Doe Jr."
+            } else if (shape < 98) {
+                return "  " + first + "\t " + last + "  ";                        // messy whitespace
+            }
+            return random.nextBoolean() ? "" : null;                             // missing data
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PromptState {
+        @Param({"10", "100", "1000"})
+        int mappingCount;
+
+        List<MlMappingSuggestion> mappings;
+        TransformationContext context;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            mappings = randomMappings(random, mappingCount);
+
+            Map<String, List<Object>> sampleData = new LinkedHashMap<>();
+            for (MlMappingSuggestion mapping : mappings) {
+                List<Object> samples = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    samples.add(NameState.randomName(random));
+                }
+                sampleData.put(mapping.getSourceColumnName(), samples);
+            }
+
+            context = new TransformationContext();
+            context.setSourceDatabaseType("PostgreSQL");
+            context.setDestinationDatabaseType("PostgreSQL");
+            context.setBusinessDomain("Reinsurance");
+            context.setSampleData(sampleData);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MetadataState {
+        // Source x destination columns; 300 is already 90,000 suggestions, which fits the 1g heap
+        @Param({"10", "100", "300"})
+        int mappingCount;
+
+        List<MlMappingSuggestion> allPairs;
+        MlSuggestionMatrix matrix;
+        ObjectMapper objectMapper;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            allPairs = allPairsMappings(new Random(SEED), mappingCount);
+            // Spring's defaults, which Boot's message converter starts from before spring.jackson.* properties
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            matrix = MlSuggestionMatrix.fromSuggestions(allPairs).index(3);
+        }
+    }
+
+    // ---- Name splitting ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(NAME_BATCH_SIZE)
+    public void splitCustomerFullName(NameState state, Blackhole blackhole) {
+        for (String fullName : state.fullNames) {
+            blackhole.consume(state.transformation.splitCustomerFullName(fullName));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(NAME_BATCH_SIZE)
+    public void splitCustomerFullNamesBatch(NameState state, Blackhole blackhole) {
+        state.transformation.splitCustomerFullNames(
+            state.fullNames, state.firstNames, state.lastNames, NAME_BATCH_SIZE);
+        blackhole.consume(state.firstNames);
+        blackhole.consume(state.lastNames);
+    }
+
+    // ---- Prompt building ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String buildUserPrompt(PromptState state) {
+        return LLMTransformationService.buildUserPrompt(state.mappings, state.context, state.context.getSampleData());
+    }
+
+    // ---- /metadata serialization ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializeMlSuggestions(MetadataState state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(state.allPairs);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializeTopKMlSuggestions(MetadataState state) throws Exception {
+        return state.objectMapper.writeValueAsBytes(state.matrix.toSuggestions(0.0));
+    }
+
+    private static List<MlMappingSuggestion> randomMappings(Random random, int count) {
+        String[] types = {"DIRECT", "TRANSFORM", "CONCAT", "SPLIT", "TYPE_CONVERSION"};
+        List<MlMappingSuggestion> mappings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mappings.add(new MlMappingSuggestion(
+                "source_column_" + i,
+                "destination_column_" + i,
+                0.5 + random.nextDouble() / 2,
+                pick(random, types),
+                "Name similarity and matching data type for column " + i));
+        }
+        return mappings;
+    }
+
+    // Every source x destination pair of a count-wide table, as the ML service returns them
+    private static List<MlMappingSuggestion> allPairsMappings(Random random, int count) {
+        String[] types = {"DIRECT", "TRANSFORM", "CONCAT", "SPLIT", "TYPE_CONVERSION"};
+        List<MlMappingSuggestion> mappings = new ArrayList<>(count * count);
+        for (int source = 0; source < count; source++) {
+            for (int destination = 0; destination < count; destination++) {
+                mappings.add(new MlMappingSuggestion(
+                    "source_column_" + source,
+                    "destination_column_" + destination,
+                    random.nextDouble(),
+                    pick(random, types),
+                    "Name similarity and matching data type"));
+            }
+        }
+        return mappings;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Runs every benchmark and writes machine-readable results.
+     *
+     * @param args optional output path, defaults to jmh-result.json
+     */
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+        Options options = new OptionsBuilder()
+            .include(TransformationBenchmarks.class.getSimpleName())
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,512 @@
+// FUTURE ENHANCEMENT: Content-Addressed Cache for LLM-Generated Transformations
+// Lets LLMTransformationService skip the LLM round trip, compilation and security
+// scan when a migration is re-run with the same mappings and schemas.
+
+package com.example.dynamic_migration_engine.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.dynamic_migration_engine.model.GeneratedTransformation;
+import com.example.dynamic_migration_engine.model.MlMappingSuggestion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * PERFORMANCE: Two-tier cache of validated transformations
+ *
+ * Tier 1 is an in-memory LRU, tier 2 an on-disk store that survives restarts.
+ * Entries are keyed by a SHA-256 fingerprint of the ML mappings, both schemas,
+ * the business domain and rules, the LLM model and the prompt-template
+ * version. Sample data and column profiles are left out: they change on every
+ * run against live data, and keying on them would make every re-run a miss.
+ * Only transformations that already passed compilation and the security scan
+ * are stored, so a hit can be used without re-validation.
+ *
+ * The disk tier keeps at most llm.cache.disk.max-entries files; the least
+ * recently used are deleted after each write, and entries not used for
+ * llm.cache.disk.max-age-days are deleted when they are next seen.
+ *
+ * SECURITY: A disk entry carries bytecode that is loaded and executed, so
+ * every file is signed with HMAC-SHA256 over its fingerprint and content.
+ * Entries whose signature does not verify are ignored and regenerated.
+ * The disk tier refuses to start without llm.cache.signing-key; set
+ * llm.cache.disk.enabled=false to run with the memory tier only.
+ */
+@Component
+public class TransformationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformationCache.class);
+
+    private static final int DISK_FORMAT_VERSION = 4;
+    private static final String ENTRY_SUFFIX = ".llmcache";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int MIN_SIGNING_KEY_BYTES = 32;
+
+    private final Map<String, List<CachedTransformation>> memoryTier;
+    private final Path diskDirectory; // null when the disk tier is disabled
+    private final SecretKeySpec signingKey;
+    private final int diskMaxEntries;
+    private final Duration diskMaxAge;
+    private final ReentrantLock pruneLock = new ReentrantLock();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    public TransformationCache(@Value("${llm.cache.max-entries:512}") int maxEntries,
+                               @Value("${llm.cache.disk.enabled:true}") boolean diskEnabled,
+                               @Value("${llm.cache.directory:./llm-cache}") String diskDirectory,
+                               @Value("${llm.cache.disk.max-entries:2048}") int diskMaxEntries,
+                               @Value("${llm.cache.disk.max-age-days:30}") int diskMaxAgeDays,
+                               @Value("${llm.cache.signing-key:}") String signingKey) {
+        byte[] keyBytes = signingKey.getBytes(StandardCharsets.UTF_8);
+        if (diskEnabled && keyBytes.length < MIN_SIGNING_KEY_BYTES) {
+            // Cached bytecode is executed, so an unsigned or weakly signed disk tier is never used
+            throw new IllegalStateException("llm.cache.signing-key must be set to at least " + MIN_SIGNING_KEY_BYTES
+                + " bytes when llm.cache.disk.enabled is true; set llm.cache.disk.enabled=false to cache in memory only");
+        }
+        this.diskDirectory = diskEnabled ? Paths.get(diskDirectory) : null;
+        this.diskMaxEntries = Math.max(1, diskMaxEntries);
+        this.diskMaxAge = Duration.ofDays(Math.max(1, diskMaxAgeDays));
+        // Nothing is signed without the disk tier; the key only keeps the field non-null
+        this.signingKey = new SecretKeySpec(diskEnabled ? keyBytes : new byte[MIN_SIGNING_KEY_BYTES], SIGNATURE_ALGORITHM);
+        // Access-ordered LinkedHashMap gives us LRU semantics; guarded by 'this'
+        this.memoryTier = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CachedTransformation>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Builds a stable fingerprint for a generation request.
+     *
+     * Mappings are sorted first so that the order the ML service returned
+     * them in does not change the key.
+     *
+     * @param promptTemplateVersion Version of the system and user prompt templates;
+     *                              bumping it retires everything generated from older prompts
+     */
+    public String fingerprint(List<MlMappingSuggestion> mlMappings,
+                              TransformationContext context,
+                              String llmModel,
+                              int promptTemplateVersion) {
+        List<MlMappingSuggestion> sorted = new ArrayList<>(mlMappings);
+        sorted.sort(Comparator
+            .comparing(MlMappingSuggestion::getSourceColumnName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MlMappingSuggestion::getDestinationColumnName, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        MessageDigest digest = sha256();
+        for (MlMappingSuggestion mapping : sorted) {
+            update(digest, "mapping");
+            update(digest, mapping.getSourceColumnName());
+            update(digest, mapping.getDestinationColumnName());
+            update(digest, Objects.toString(mapping.getConfidence()));
+            update(digest, mapping.getSuggestionType());
+            update(digest, mapping.getReasoning());
+        }
+        update(digest, "source");
+        update(digest, context.getSourceDatabaseType());
+        update(digest, Objects.toString(context.getSourceSchema()));
+        update(digest, "destination");
+        update(digest, context.getDestinationDatabaseType());
+        update(digest, Objects.toString(context.getDestinationSchema()));
+        update(digest, "domain");
+        update(digest, context.getBusinessDomain());
+        update(digest, "rules");
+        update(digest, Objects.toString(context.getBusinessRules()));
+        update(digest, "primary-keys"); // Decide how oversized prompts are sharded
+        update(digest, Objects.toString(context.getPrimaryKeyColumns()));
+        update(digest, "model");
+        update(digest, llmModel);
+        update(digest, "prompt-template");
+        update(digest, Integer.toString(promptTemplateVersion));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Looks up validated transformations, falling through memory to disk.
+     * A disk hit is promoted into the memory tier.
+     */
+    public Optional<List<GeneratedTransformation>> get(String fingerprint) {
+        List<CachedTransformation> cached;
+        synchronized (this) {
+            cached = memoryTier.get(fingerprint);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(toTransformations(cached));
+        }
+
+        cached = readFromDisk(fingerprint);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            synchronized (this) {
+                memoryTier.put(fingerprint, cached);
+            }
+            return Optional.of(toTransformations(cached));
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores APPROVED transformations under the given fingerprint in both tiers.
+     */
+    public void put(String fingerprint, List<GeneratedTransformation> transformations) {
+        List<CachedTransformation> snapshot = new ArrayList<>(transformations.size());
+        for (GeneratedTransformation transformation : transformations) {
+            snapshot.add(CachedTransformation.of(transformation));
+        }
+        synchronized (this) {
+            memoryTier.put(fingerprint, snapshot);
+        }
+        writeToDisk(fingerprint, snapshot);
+    }
+
+    public TransformationCacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = memoryTier.size();
+        }
+        return new TransformationCacheStats(
+            memoryHits.get(), diskHits.get(), misses.get(), evictions.get(), diskEvictions.get(), size);
+    }
+
+    private List<GeneratedTransformation> toTransformations(List<CachedTransformation> cached) {
+        List<GeneratedTransformation> result = new ArrayList<>(cached.size());
+        for (CachedTransformation entry : cached) {
+            result.add(entry.toTransformation());
+        }
+        return result;
+    }
+
+    private List<CachedTransformation> readFromDisk(String fingerprint) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        Path file = diskDirectory.resolve(fingerprint + ENTRY_SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            if (isExpired(file)) {
+                deleteEntry(file);
+                return null;
+            }
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < Integer.BYTES + SIGNATURE_LENGTH) {
+                logger.warn("Ignoring truncated transformation cache entry {}", fingerprint);
+                return null;
+            }
+            byte[] payload = Arrays.copyOf(content, content.length - SIGNATURE_LENGTH);
+            if (new DataInputStream(new ByteArrayInputStream(payload)).readInt() != DISK_FORMAT_VERSION) {
+                logger.debug("Ignoring cache entry {} written with an older format", fingerprint);
+                return null;
+            }
+            byte[] signature = Arrays.copyOfRange(content, payload.length, content.length);
+            if (!MessageDigest.isEqual(sign(fingerprint, payload), signature)) {
+                // Altered, or signed with a key that has since been rotated
+                logger.warn("Ignoring transformation cache entry {}: signature does not match", fingerprint);
+                return null;
+            }
+            List<CachedTransformation> entries = readEntries(payload);
+            // Last-modified doubles as last-used, so pruning evicts the least recently used entries
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return entries;
+        } catch (IOException e) {
+            logger.warn("Failed to read transformation cache entry {}: {}", fingerprint, e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<CachedTransformation> readEntries(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            in.readInt(); // Format version, checked by the caller
+            int count = in.readInt();
+            List<CachedTransformation> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(CachedTransformation.read(in));
+            }
+            return entries;
+        }
+    }
+
+    private void writeToDisk(String fingerprint, List<CachedTransformation> entries) {
+        if (diskDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskDirectory);
+            // Write to a temp file and move it into place so readers never see a partial entry
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(content)) {
+                out.writeInt(DISK_FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (CachedTransformation entry : entries) {
+                    entry.write(out);
+                }
+            }
+            byte[] payload = content.toByteArray();
+            content.write(sign(fingerprint, payload));
+            Path temp = Files.createTempFile(diskDirectory, fingerprint, ".tmp");
+            Files.write(temp, content.toByteArray());
+            Files.move(temp, diskDirectory.resolve(fingerprint + ENTRY_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk tier is best effort; the memory tier still serves this entry
+            logger.warn("Failed to persist transformation cache entry {}: {}", fingerprint, e.getMessage());
+            return;
+        }
+        pruneDisk();
+    }
+
+    /**
+     * Deletes expired entries, then the least recently used ones until at most
+     * diskMaxEntries remain. Runs after every write, which is rare next to the
+     * LLM call that precedes it; a prune already in progress is not repeated.
+     */
+    private void pruneDisk() {
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            List<Map.Entry<Path, FileTime>> live = new ArrayList<>();
+            Instant expiry = Instant.now().minus(diskMaxAge);
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+                    continue;
+                }
+                FileTime lastUsed = Files.getLastModifiedTime(file);
+                if (lastUsed.toInstant().isBefore(expiry)) {
+                    deleteEntry(file);
+                } else {
+                    live.add(Map.entry(file, lastUsed));
+                }
+            }
+            live.sort(Map.Entry.comparingByValue());
+            for (int i = 0; i < live.size() - diskMaxEntries; i++) {
+                deleteEntry(live.get(i).getKey());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Failed to prune transformation cache directory {}: {}", diskDirectory, e.getMessage());
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(diskMaxAge));
+    }
+
+    private void deleteEntry(Path file) throws IOException {
+        if (Files.deleteIfExists(file)) {
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    // The fingerprint is signed too, so an entry cannot be copied to another key
+    private byte[] sign(String fingerprint, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(signingKey);
+            mac.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(SIGNATURE_ALGORITHM + " not available", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value == null ? "\0" : value).getBytes(StandardCharsets.UTF_8);
+        // Length-prefix every field so ("ab", "c") and ("a", "bc") hash differently
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * Immutable snapshot of an approved transformation, including its bytecode
+     * and the helper classes it needs.
+     */
+    private record CachedTransformation(String methodName,
+                                        String destinationColumnName,
+                                        String javaCode,
+                                        String testCode,
+                                        String documentation,
+                                        double confidence,
+                                        String llmModel,
+                                        String generatedAt,
+                                        byte[] compiledBytecode,
+                                        Map<String, byte[]> helperClasses) {
+
+        static CachedTransformation of(GeneratedTransformation transformation) {
+            return new CachedTransformation(
+                transformation.getMethodName(),
+                transformation.getDestinationColumnName(),
+                transformation.getJavaCode(),
+                transformation.getTestCode(),
+                transformation.getDocumentation(),
+                transformation.getConfidence(),
+                transformation.getLlmModel(),
+                Objects.toString(transformation.getGeneratedAt(), null),
+                transformation.getCompiledBytecode(),
+                transformation.getHelperClasses() == null ? Map.of() : Map.copyOf(transformation.getHelperClasses()));
+        }
+
+        GeneratedTransformation toTransformation() {
+            GeneratedTransformation transformation = new GeneratedTransformation();
+            transformation.setMethodName(methodName);
+            transformation.setDestinationColumnName(destinationColumnName);
+            transformation.setJavaCode(javaCode);
+            transformation.setTestCode(testCode);
+            transformation.setDocumentation(documentation);
+            transformation.setConfidence(confidence);
+            transformation.setLlmModel(llmModel);
+            transformation.setGeneratedAt(generatedAt == null ? null : LocalDateTime.parse(generatedAt));
+            transformation.setCompiledBytecode(compiledBytecode);
+            transformation.setHelperClasses(helperClasses);
+            transformation.setValidationStatus(ValidationStatus.APPROVED);
+            return transformation;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            writeString(out, methodName);
+            writeString(out, destinationColumnName);
+            writeString(out, javaCode);
+            writeString(out, testCode);
+            writeString(out, documentation);
+            out.writeDouble(confidence);
+            writeString(out, llmModel);
+            writeString(out, generatedAt);
+            if (compiledBytecode == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(compiledBytecode.length);
+                out.write(compiledBytecode);
+            }
+            out.writeInt(helperClasses.size());
+            for (Map.Entry<String, byte[]> helper : helperClasses.entrySet()) {
+                writeString(out, helper.getKey());
+                out.writeInt(helper.getValue().length);
+                out.write(helper.getValue());
+            }
+        }
+
+        static CachedTransformation read(DataInputStream in) throws IOException {
+            String methodName = readString(in);
+            String destinationColumnName = readString(in);
+            String javaCode = readString(in);
+            String testCode = readString(in);
+            String documentation = readString(in);
+            double confidence = in.readDouble();
+            String llmModel = readString(in);
+            String generatedAt = readString(in);
+            int bytecodeLength = in.readInt();
+            byte[] bytecode = null;
+            if (bytecodeLength >= 0) {
+                bytecode = new byte[bytecodeLength];
+                in.readFully(bytecode);
+            }
+            int helperCount = in.readInt();
+            Map<String, byte[]> helperClasses = new LinkedHashMap<>();
+            for (int i = 0; i < helperCount; i++) {
+                String className = readString(in);
+                byte[] helper = new byte[in.readInt()];
+                in.readFully(helper);
+                helperClasses.put(className, helper);
+            }
+            return new CachedTransformation(methodName, destinationColumnName, javaCode, testCode, documentation,
+                confidence, llmModel, generatedAt, bytecode, helperClasses);
+        }
+
+        // Generated sources can exceed writeUTF's 64KB limit, so use length-prefixed UTF-8
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
+
+/**
+ * Hit/miss/eviction counters exposed by LLMTransformationService
+ */
+record TransformationCacheStats(long memoryHits,
+                                long diskHits,
+                                long misses,
+                                long evictions,
+                                long diskEvictions,
+                                int memoryEntries) {
+
+    public double hitRatio() {
+        long lookups = memoryHits + diskHits + misses;
+        return lookups == 0 ? 0.0 : (double) (memoryHits + diskHits) / lookups;
+    }
+}
@@ -1334,22 +1334,39 @@ export class MigrationToolComponent implements OnInit, OnDestroy {
     console.log('MigrationToolComponent: Migration configuration saved to service.');
 
 
-    console.log('MigrationToolComponent: Initiating migration with backend...');
+    const columnMappingDtos = this.columnMappings.map((m: ColumnMapping) => ({
+      sourceColumnName: m.sourceColumn?.name ?? null,
+      secondaryColumnName: m.secondarySourceColumn?.name ?? null,
+      destinationColumnName: m.destinationColumn?.name ?? null,
+      transformationType: this.getTransformationTypeForDto(m),
+      transformationParameter: m.transformationMode === 'CUSTOM_COMMAND' ? (m.customCommand || null) : null // Pass custom command as parameter, ensure null if empty
+    }));
+
+    // Reuse the id of a run that did not succeed so the backend resumes it from its checkpoint, but only
+    // for the same tables and mappings. Any other run gets a new id and replaces the pending one.
+    // The pending run is stored before the request, so it survives a backend crash or a page reload.
+    const sourceTable = `${this.sourceDbParams.databaseName}.${this.selectedSourceTableName}`;
+    const destinationTable = `${this.destinationDbParams.databaseName}.${this.selectedDestinationTableName}`;
+    const mappingFingerprint = this.migrationDataService.mappingFingerprint(columnMappingDtos);
+    const pendingMigrationId = this.migrationDataService.getPendingMigrationId(sourceTable, destinationTable, mappingFingerprint);
+    const migrationId = pendingMigrationId ?? this.migrationService.newMigrationId();
+    this.migrationDataService.setPendingMigration({ migrationId, sourceTable, destinationTable, mappingFingerprint });
+
+    console.log(`MigrationToolComponent: Initiating migration ${migrationId} with backend (resume: ${pendingMigrationId !== null})...`);
     this.migrationService.startMigration(
       this.sourceDbParams.databaseName, // Use databaseName as profile name
       this.selectedSourceTableName,
       this.destinationDbParams.databaseName, // Use databaseName as profile name
       this.selectedDestinationTableName,
-      this.columnMappings.map((m: ColumnMapping) => ({
-        sourceColumnName: m.sourceColumn?.name ?? null,
-        secondaryColumnName: m.secondarySourceColumn?.name ?? null,
-        destinationColumnName: m.destinationColumn?.name ?? null,
-        transformationType: this.getTransformationTypeForDto(m),
-        transformationParameter: m.transformationMode === 'CUSTOM_COMMAND' ? (m.customCommand || null) : null // Pass custom command as parameter, ensure null if empty
-      }))
+      columnMappingDtos,
+      migrationId,
+      pendingMigrationId !== null
     ).subscribe({
       next: (report) => {
         console.log('MigrationToolComponent: Migration initiated, report received:', report);
+        if (report.status === 'SUCCESS') {
+          this.migrationDataService.clearPendingMigration();
+        }
         this.migrationDataService.setMigrationReport(report); // Set report in service (in-memory)
         console.log('MigrationToolComponent: Migration data and report saved. Navigating to dashboard.');
         this.router.navigate(['/mock-dashboard']);
@@ -87,6 +87,8 @@ export interface MigrationInitiationRequest {
   destinationDatabaseName: string;
   destinationTableName: string;
   columnMappings: ColumnMappingDto[];
+  migrationId: string; // Generated by the client before the first request, so a run that never answered can still be resumed
+  resumeFromCheckpoint?: boolean; // Continue after the last checkpointed rows instead of row zero
 }
 
 export interface MigrationReport {
@@ -100,6 +102,30 @@ export interface MigrationReport {
   messages: string[];
   errors: string[];
   executedQueries?: string[]; // NEW: SQL queries executed during migration
+  pipelineMetrics?: MigrationMetrics; // Throughput and per-method latencies of this run
+}
+
+// Latency distribution of one timer (see GET /metrics)
+export interface LatencySummary {
+  count: number;
+  meanMillis: number;
+  p50Millis: number;
+  p90Millis: number;
+  p99Millis: number;
+  p999Millis: number;
+  maxMillis: number;
+  errors: number;
+  rows: number;
+  rowsPerSecond: number;
+}
+
+export interface MigrationMetrics {
+  migrationId: string;
+  elapsedMillis: number;
+  rowsProcessed: number;
+  rowsPerSecond: number;
+  errors: number;
+  methodLatencies: { [method: string]: LatencySummary };
 }
 
 // --- SQL Executor Interfaces ---
@@ -115,6 +141,14 @@ export interface SqlExecutionResponse {
   queryResult?: TableDataResponse;
 }
 
+// One line of a streamed /execute-sql/stream or /data-preview/.../stream response (application/x-ndjson)
+export type SqlStreamEvent =
+  | { type: 'columns'; columns: ColumnMetadata[] }
+  | { type: 'row'; values: any[] }
+  | { type: 'update'; rowCount: number }
+  | { type: 'end'; rowCount: number; truncated: 'MAX_ROWS' | 'MAX_BYTES' | null; elapsedMillis: number }
+  | { type: 'error'; message: string };
+
 // --- Persistence and State Management Interfaces ---
 export interface PersistedMigrationConfig {
   sourceDbParams: Omit<DbConnectionParams, 'password'> & { password?: string } | null;
@@ -124,6 +158,14 @@ export interface PersistedMigrationConfig {
   columnMappings: (Omit<ColumnMapping, 'isValid' | 'validationMessage'> & { customCommand?: string | null })[];
 }
 
+// A migration that did not report SUCCESS, with what it was started for; only an identical rerun resumes it
+export interface PendingMigration {
+  migrationId: string;
+  sourceTable: string; // "<profile>.<table>"
+  destinationTable: string;
+  mappingFingerprint: string; // See MigrationDataService.mappingFingerprint
+}
+
 // Full configuration state, including in-memory schemas (not persisted)
 export interface MigrationConfigurationState {
   sourceDbParams: DbConnectionParams | null;
@@ -168,6 +210,9 @@ export class MigrationDataService {
 
   private migrationReport: MigrationReport | null = null;
 
+  // Last migration that did not report SUCCESS; kept across reloads so it can be resumed
+  private pendingMigration: PendingMigration | null = this.loadPendingMigration();
+
   constructor() {
     this.loadStateFromLocalStorage();
   }
@@ -311,6 +356,61 @@ export class MigrationDataService {
     this.migrationReport = report;
   }
 
+  // --- Getters and Setters for the resumable migration id ---
+
+  /**
+   * Returns the id of the pending migration if it was started for the same table pair and mappings,
+   * or null when there is none or it belongs to another run (which is then not resumed).
+   */
+  getPendingMigrationId(sourceTable: string, destinationTable: string, mappingFingerprint: string): string | null {
+    const pending = this.pendingMigration;
+    if (!pending) {
+      return null;
+    }
+    if (pending.sourceTable !== sourceTable
+        || pending.destinationTable !== destinationTable
+        || pending.mappingFingerprint !== mappingFingerprint) {
+      console.log(`MigrationDataService: Pending migration ${pending.migrationId} was for other tables or mappings; starting a new one.`);
+      return null;
+    }
+    return pending.migrationId;
+  }
+
+  setPendingMigration(pending: PendingMigration): void {
+    this.pendingMigration = pending;
+    localStorage.setItem('pendingMigration', JSON.stringify(pending));
+  }
+
+  clearPendingMigration(): void {
+    this.pendingMigration = null;
+    localStorage.removeItem('pendingMigration');
+  }
+
+  /**
+   * Hash of the column mappings exactly as sent to startMigration, independent of mapping and field order.
+   */
+  mappingFingerprint(columnMappings: ColumnMappingDto[]): string {
+    const canonical = columnMappings
+      .map(m => JSON.stringify(Object.entries(m).sort(([a], [b]) => a.localeCompare(b))))
+      .sort();
+    return CryptoJS.SHA256(canonical.join('\n')).toString();
+  }
+
+  private loadPendingMigration(): PendingMigration | null {
+    localStorage.removeItem('pendingMigrationId'); // Older entries stored no tables or mappings, so they cannot be matched
+    const stored = localStorage.getItem('pendingMigration');
+    if (!stored) {
+      return null;
+    }
+    try {
+      return JSON.parse(stored) as PendingMigration;
+    } catch (e) {
+      console.error('MigrationDataService: Error parsing pending migration from localStorage:', e);
+      localStorage.removeItem('pendingMigration');
+      return null;
+    }
+  }
+
   clearAllData(): void {
     this.migrationConfiguration = {
       sourceDbParams: null,
@@ -323,5 +423,6 @@ export class MigrationDataService {
     };
     this.migrationReport = null;
     localStorage.removeItem('migrationConfig');
+    this.clearPendingMigration();
   }
 }
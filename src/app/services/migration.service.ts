@@ -19,7 +19,8 @@ import {
   SqlExecutionResponse,
   ColumnMetadata,
   MlMappingSuggestion,
-  DatabaseWithMlSuggestions
+  DatabaseWithMlSuggestions,
+  SqlStreamEvent
 } from './migration-data.service';
 
 @Injectable({
@@ -127,6 +128,21 @@ export class MigrationService {
       );
   }
 
+  /**
+   * Drops the backend's cached metadata so the next getDatabaseMetadata call rescans the catalog.
+   * @param databaseName Database whose cached metadata is dropped; all databases when omitted.
+   * @returns Observable of the number of dropped cache entries (void when clearing everything).
+   */
+  invalidateMetadataCache(databaseName?: string): Observable<number | void> {
+    const url = databaseName
+      ? `${this.apiUrl}/metadata-cache/${encodeURIComponent(databaseName)}`
+      : `${this.apiUrl}/metadata-cache`;
+    return this.http.delete<number | void>(url)
+      .pipe(
+        catchError(this.handleError)
+      );
+  }
+
   /**
    * Fetches table data for preview from the backend.
    * Passwords will be encrypted.
@@ -156,6 +172,8 @@ export class MigrationService {
    * @param destinationDatabaseName Name of the destination database.
    * @param destinationTableName Name of the destination table.
    * @param columnMappings Array of column mappings.
+   * @param migrationId Id from newMigrationId(), chosen before the request so it is known even if no report ever arrives.
+   * @param resumeFromCheckpoint True to continue migrationId from its last checkpoint instead of row zero.
    * @returns Observable of MigrationReport.
    */
   startMigration(
@@ -163,15 +181,21 @@ export class MigrationService {
     sourceTableName: string,
     destinationDatabaseName: string,
     destinationTableName: string,
-    columnMappings: ColumnMappingDto[]
+    columnMappings: ColumnMappingDto[],
+    migrationId: string,
+    resumeFromCheckpoint = false
   ): Observable<MigrationReport> {
     const request: MigrationInitiationRequest = {
       sourceDatabaseName,
       sourceTableName,
       destinationDatabaseName,
       destinationTableName,
-      columnMappings: columnMappings
+      columnMappings: columnMappings,
+      migrationId
     };
+    if (resumeFromCheckpoint) {
+      request.resumeFromCheckpoint = true;
+    }
     console.log('Frontend: Sending migration initiation request to backend:', request);
     return this.http.post<MigrationReport>(`${this.apiUrl}/start-migration`, request)
       .pipe(
@@ -179,6 +203,18 @@ export class MigrationService {
       );
   }
 
+  /**
+   * Creates a migration id on the client. crypto.randomUUID is missing outside secure contexts (plain http),
+   * so random bytes from CryptoJS are used there.
+   * @returns A random UUID-like id.
+   */
+  newMigrationId(): string {
+    if (typeof crypto !== 'undefined' && typeof crypto.randomUUID === 'function') {
+      return crypto.randomUUID();
+    }
+    return CryptoJS.lib.WordArray.random(16).toString(CryptoJS.enc.Hex);
+  }
+
   /**
    * Executes a generic SQL query via the backend.
    * Passwords are NOT sent here as backend fetches from H2 (if profile saving is active).
@@ -193,6 +229,104 @@ export class MigrationService {
       );
   }
 
+  /**
+   * Executes a SQL query and emits its result row by row as the backend streams it.
+   * Unsubscribing aborts the request, which makes the backend cancel the query.
+   * @param request SqlExecutionRequest containing database name and SQL query.
+   * @param maxRows Optional row limit; the backend never returns more than its own cap.
+   * @returns Observable of SqlStreamEvent (columns, row..., end or update, or error).
+   */
+  executeSqlStream(request: SqlExecutionRequest, maxRows?: number): Observable<SqlStreamEvent> {
+    const query = maxRows ? `?maxRows=${maxRows}` : '';
+    console.log('Frontend: Sending streaming SQL execution request to backend:', request);
+    return this.postNdjson(`${this.apiUrl}/execute-sql/stream${query}`, request);
+  }
+
+  /**
+   * Streams the rows of a table for preview instead of loading them as one response.
+   * Passwords will be encrypted.
+   * @param databaseName The name of the database.
+   * @param tableName The name of the table.
+   * @param params DbConnectionParams for the database.
+   * @param maxRows Optional row limit; the backend never returns more than its own cap.
+   * @returns Observable of SqlStreamEvent.
+   */
+  getTableDataStream(databaseName: string, tableName: string, params: DbConnectionParams, maxRows?: number): Observable<SqlStreamEvent> {
+    const paramsToSend = { ...params };
+    if (paramsToSend.password) {
+      paramsToSend.password = this.encrypt(paramsToSend.password);
+    }
+    const query = maxRows ? `?maxRows=${maxRows}` : '';
+    return this.postNdjson(`${this.apiUrl}/data-preview/${databaseName}/${tableName}/stream${query}`, paramsToSend);
+  }
+
+  /**
+   * Posts a request and parses the NDJSON response line by line as chunks arrive.
+   * Uses fetch rather than HttpClient: HttpClient's partialText is the whole body received so far,
+   * whereas the stream reader hands over each chunk once, so only the unfinished last line is kept.
+   * Heartbeat lines only keep the connection observable by the backend and are dropped here.
+   */
+  private postNdjson(url: string, body: unknown): Observable<SqlStreamEvent> {
+    return new Observable<SqlStreamEvent>(subscriber => {
+      const abort = new AbortController();
+      const emitLines = (text: string): void => {
+        for (const line of text.split('\n')) {
+          if (line.trim().length === 0) {
+            continue;
+          }
+          const event = JSON.parse(line) as SqlStreamEvent | { type: 'heartbeat' };
+          if (event.type !== 'heartbeat') {
+            subscriber.next(event);
+          }
+        }
+      };
+
+      const stream = async (): Promise<void> => {
+        const response = await fetch(url, {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json', 'Accept': 'application/x-ndjson' },
+          body: JSON.stringify(body),
+          signal: abort.signal
+        });
+        if (!response.ok || !response.body) {
+          throw new HttpErrorResponse({
+            status: response.status,
+            statusText: response.statusText,
+            url,
+            error: await response.json().catch(() => null)
+          });
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let pending = ''; // Text after the last newline; everything before it is already emitted
+        for (;;) {
+          const { done, value } = await reader.read();
+          if (done) {
+            break;
+          }
+          pending += value;
+          const end = pending.lastIndexOf('\n') + 1;
+          if (end > 0) {
+            emitLines(pending.substring(0, end));
+            pending = pending.substring(end);
+          }
+        }
+        emitLines(pending);
+        subscriber.complete();
+      };
+
+      stream().catch(error => {
+        if (!abort.signal.aborted) {
+          // Network failures surface like HttpClient's: status 0
+          subscriber.error(error instanceof HttpErrorResponse ? error : new HttpErrorResponse({ status: 0, url, error }));
+        }
+      });
+      // Unsubscribing aborts the request, which makes the backend cancel the query
+      return () => abort.abort();
+    }).pipe(
+      catchError(this.handleError)
+    );
+  }
+
   /**
    * Downloads migration SQL queries as a .sql file
    * @param sourceDatabaseName Source database name
@@ -228,6 +362,48 @@ export class MigrationService {
     );
   }
 
+  /**
+   * Downloads a bulk-load script built by the backend directly from the source table:
+   * multi-row INSERT batches, or COPY blocks for PostgreSQL destinations.
+   * @param sourceDatabaseName Source database name
+   * @param sourceTableName Source table name
+   * @param destinationDatabaseName Destination database name
+   * @param destinationTableName Destination table name
+   * @param columnMappings Array of column mappings, as sent to startMigration
+   * @param format 'INSERT' or 'COPY'; omitted = COPY for PostgreSQL destinations, INSERT otherwise
+   * @param gzip Whether the backend compresses the script (.sql.gz)
+   * @returns Observable of Blob for file download
+   */
+  downloadBulkLoadScript(
+    sourceDatabaseName: string,
+    sourceTableName: string,
+    destinationDatabaseName: string,
+    destinationTableName: string,
+    columnMappings: ColumnMappingDto[],
+    format?: 'INSERT' | 'COPY',
+    gzip: boolean = false
+  ): Observable<Blob> {
+    const request = {
+      sourceDatabaseName,
+      sourceTableName,
+      destinationDatabaseName,
+      destinationTableName,
+      columnMappings,
+      format: format ?? null,
+      gzip
+    };
+
+    console.log('Frontend: Sending bulk-load export request to backend:', request);
+    return this.http.post(`${this.apiUrl}/download-migration-queries/bulk`, request, {
+      responseType: 'blob',
+      headers: {
+        'Accept': gzip ? 'application/gzip' : 'application/sql'
+      }
+    }).pipe(
+      catchError(this.handleError)
+    );
+  }
+
   private handleError(error: HttpErrorResponse): Observable<never> {
     let errorMessage = 'An unknown error occurred!';
     if (error.error instanceof ErrorEvent) {
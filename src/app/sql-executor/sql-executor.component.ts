@@ -6,6 +6,7 @@ import { MigrationService } from '../services/migration.service';
 import {
   SqlExecutionRequest,
   SqlExecutionResponse,
+  SqlStreamEvent,
   TableData,
   DisplayTable,
   DbConnectionParams,
@@ -43,6 +44,7 @@ export class SqlExecutorComponent implements OnInit, OnDestroy { // Implement On
   successMessage: string | null = null;
 
   // For displaying tabular results
+  readonly maxDisplayedRows = 1000; // Rows kept for the grid; the backend stops reading after this many
   resultHeaders: string[] = [];
   resultRows: { [key: string]: any }[] = [];
   totalResultRows: number = 0;
@@ -55,6 +57,7 @@ export class SqlExecutorComponent implements OnInit, OnDestroy { // Implement On
   connectionMessage: string | null = null; // Message for the connection status
 
   private subscriptions: Subscription = new Subscription(); // To manage subscriptions
+  private executionSubscription: Subscription | null = null; // Running streamed query, if any
 
   constructor(private migrationService: MigrationService) { }
 
@@ -77,6 +80,7 @@ export class SqlExecutorComponent implements OnInit, OnDestroy { // Implement On
   ngOnDestroy(): void {
     // Unsubscribe to prevent memory leaks
     this.subscriptions.unsubscribe();
+    this.executionSubscription?.unsubscribe(); // Also cancels a running query on the backend
   }
 
   /**
@@ -187,31 +191,71 @@ export class SqlExecutorComponent implements OnInit, OnDestroy { // Implement On
       sqlQuery: this.sqlQuery.trim()
     };
 
-    this.migrationService.executeSql(request).subscribe({
-      next: (response: SqlExecutionResponse) => {
-        this.executionResult = response;
-        if (response.success) {
-          if (response.rowCount !== undefined && response.rowCount !== null) { // Check for rowCount for DML/DDL
-            this.rowCount = response.rowCount; // Assign to component's rowCount
-            this.successMessage = `Command executed successfully. Rows affected: ${this.rowCount}`;
-          } else if (response.queryResult) { // This is a SELECT query result
-            this.resultHeaders = response.queryResult.columns.map(col => col.name);
-            this.resultRows = response.queryResult.rows;
-            this.totalResultRows = response.queryResult.totalRows;
-            this.successMessage = `Query executed successfully. Rows returned: ${this.totalResultRows}`;
-          } else { // Generic success message without rows/query results
-            this.successMessage = response.message || 'Operation completed successfully.';
-          }
-        } else {
-          this.errorMessage = response.message || 'SQL execution failed.';
-        }
-        this.isLoading = false;
-      },
+    // Rows are streamed as the backend reads them; the grid keeps at most maxDisplayedRows of them
+    this.executionSubscription?.unsubscribe();
+    this.executionSubscription = this.migrationService.executeSqlStream(request, this.maxDisplayedRows).subscribe({
+      next: (event: SqlStreamEvent) => this.onStreamEvent(event),
       error: (err: HttpErrorResponse) => {
         this.isLoading = false;
         this.errorMessage = `Error executing SQL: ${err.error?.message || err.message || 'Server error'}`;
         console.error('SQL Execution Error:', err);
+      },
+      complete: () => {
+        this.isLoading = false;
       }
     });
   }
+
+  /**
+   * Stops a running query; the backend cancels it when the stream is aborted.
+   */
+  cancelExecution(): void {
+    this.executionSubscription?.unsubscribe();
+    this.executionSubscription = null;
+    this.isLoading = false;
+    this.successMessage = `Query cancelled after ${this.totalResultRows} rows.`;
+  }
+
+  /**
+   * Applies one streamed result event to the table state.
+   */
+  private onStreamEvent(event: SqlStreamEvent): void {
+    switch (event.type) {
+      case 'columns':
+        this.resultHeaders = event.columns.map(col => col.name);
+        this.executionResult = {
+          success: true,
+          message: '',
+          queryResult: { columns: event.columns, rows: this.resultRows, totalRows: 0 }
+        };
+        break;
+      case 'row': {
+        this.totalResultRows++;
+        if (this.resultRows.length >= this.maxDisplayedRows) {
+          break;
+        }
+        const row: { [key: string]: any } = {};
+        this.resultHeaders.forEach((header, i) => row[header.toLowerCase()] = event.values[i]);
+        this.resultRows.push(row);
+        break;
+      }
+      case 'update':
+        this.executionResult = { success: true, message: '', rowCount: event.rowCount };
+        this.rowCount = event.rowCount;
+        this.successMessage = `Command executed successfully. Rows affected: ${this.rowCount}`;
+        break;
+      case 'end':
+        if (this.executionResult?.queryResult) {
+          this.executionResult.queryResult.totalRows = event.rowCount;
+          this.successMessage = event.truncated
+            ? `Query executed successfully. Showing the first ${event.rowCount} rows (${event.truncated === 'MAX_ROWS' ? 'row' : 'size'} limit reached).`
+            : `Query executed successfully. Rows returned: ${event.rowCount}`;
+        }
+        break;
+      case 'error':
+        this.executionResult = { success: false, message: event.message };
+        this.errorMessage = event.message || 'SQL execution failed.';
+        break;
+    }
+  }
 }